@@ -0,0 +1,61 @@
+#!/bin/bash
+
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+cd "$SCRIPT_DIR"
+
+# Script para compilar e executar os benchmarks JMH
+# Uso: ./bench.sh [argumentos do JMH], ex.: ./bench.sh RouterBenchmark -f 1 -wi 3 -i 5
+#      ./bench.sh compare <base.json> <novo.json>
+# Os resultados ficam em bench-results/<data>-<commit>.json, salvo quando -rff
+# é passado
+
+echo "=== Benchmarks JMH - Sistema de Pedidos API ==="
+
+JMH_VERSION=1.37
+CP_LIBS="lib/*:../../lib/*"
+
+mkdir -p build/classes
+mkdir -p build/jmh/classes
+mkdir -p lib/jmh
+
+# Baixar JMH e dependências se não existir
+if [ ! -f "lib/jmh/jmh-core-$JMH_VERSION.jar" ]; then
+    echo "Baixando JMH $JMH_VERSION..."
+    curl -L -o lib/jmh/jmh-core-$JMH_VERSION.jar "https://repo1.maven.org/maven2/org/openjdk/jmh/jmh-core/$JMH_VERSION/jmh-core-$JMH_VERSION.jar"
+    curl -L -o lib/jmh/jmh-generator-annprocess-$JMH_VERSION.jar "https://repo1.maven.org/maven2/org/openjdk/jmh/jmh-generator-annprocess/$JMH_VERSION/jmh-generator-annprocess-$JMH_VERSION.jar"
+    curl -L -o lib/jmh/jopt-simple-5.0.4.jar "https://repo1.maven.org/maven2/net/sf/jopt-simple/jopt-simple/5.0.4/jopt-simple-5.0.4.jar"
+    curl -L -o lib/jmh/commons-math3-3.6.1.jar "https://repo1.maven.org/maven2/org/apache/commons/commons-math3/3.6.1/commons-math3-3.6.1.jar"
+fi
+
+# Compilar código da aplicação
+echo "Compilando código Java..."
+find src/main/java -name "*.java" > build/jmh/main-sources.txt
+javac -encoding UTF-8 -cp "$CP_LIBS" -d build/classes @build/jmh/main-sources.txt || { echo "Erro na compilação!"; exit 1; }
+
+# Compilar benchmarks (o processador de anotações do JMH gera as classes de execução)
+echo "Compilando benchmarks..."
+find src/jmh/java -name "*.java" > build/jmh/sources.txt
+javac -encoding UTF-8 -cp "build/classes:$CP_LIBS:lib/jmh/*" -d build/jmh/classes @build/jmh/sources.txt || { echo "Erro na compilação dos benchmarks!"; exit 1; }
+
+BENCH_CP="build/jmh/classes:build/classes:$CP_LIBS:lib/jmh/*"
+
+if [ "$1" = "compare" ]; then
+    shift
+    java -cp "$BENCH_CP" com.sistema.pedidos.benchmark.BenchmarkCompare "$@"
+    exit $?
+fi
+
+RESULT_ARGS=()
+if [[ " $* " != *" -rff "* ]]; then
+    mkdir -p bench-results
+    REVISION=$(git rev-parse --short HEAD 2>/dev/null || echo "local")
+    RESULT_FILE="bench-results/$(date +%Y%m%d-%H%M%S)-$REVISION.json"
+    RESULT_ARGS=(-rf json -rff "$RESULT_FILE")
+fi
+
+echo "Executando benchmarks..."
+java -cp "$BENCH_CP" org.openjdk.jmh.Main "${RESULT_ARGS[@]}" "$@" || exit $?
+
+if [ -n "$RESULT_FILE" ] && [ -f "$RESULT_FILE" ]; then
+    echo "Resultados: $RESULT_FILE"
+fi
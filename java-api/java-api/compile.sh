@@ -20,6 +20,12 @@ if [ ! -f "lib/jackson-core-2.15.2.jar" ]; then
     curl -L -o lib/jackson-datatype-jsr310-2.15.2.jar "https://repo1.maven.org/maven2/com/fasterxml/jackson/datatype/jackson-datatype-jsr310/2.15.2/jackson-datatype-jsr310-2.15.2.jar"
 fi
 
+# Módulo Blackbird (acessores de propriedades gerados para o Jackson)
+if [ ! -f "lib/jackson-module-blackbird-2.15.2.jar" ]; then
+    echo "Baixando Jackson Blackbird..."
+    curl -L -o lib/jackson-module-blackbird-2.15.2.jar "https://repo1.maven.org/maven2/com/fasterxml/jackson/module/jackson-module-blackbird/2.15.2/jackson-module-blackbird-2.15.2.jar"
+fi
+
 # MySQL Connector/J
 if [ ! -f "lib/mysql-connector-j-8.4.0.jar" ]; then
     echo "Baixando MySQL Connector/J..."
@@ -0,0 +1,49 @@
+#!/bin/bash
+
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+cd "$SCRIPT_DIR"
+
+# Script para gravar e resumir os eventos JFR da API (pedidos.Request,
+# pedidos.Query, pedidos.Broadcast, pedidos.FanOut e pedidos.Report)
+# Uso:
+#   ./jfr.sh start <pid>              inicia uma gravação contínua no processo
+#   ./jfr.sh dump <pid> [arquivo]     salva o que foi gravado até agora
+#   ./jfr.sh stop <pid>               encerra a gravação
+#   ./jfr.sh summary <arquivo> [top]  resume uma gravação offline
+
+RECORDING=pedidos
+CP_LIBS="lib/*:../../lib/*"
+
+case "$1" in
+    start)
+        [ -z "$2" ] && { echo "Informe o pid da API"; exit 1; }
+        jcmd "$2" JFR.start name=$RECORDING settings=profile maxage=1h disk=true
+        ;;
+    dump)
+        [ -z "$2" ] && { echo "Informe o pid da API"; exit 1; }
+        mkdir -p recordings
+        FILE="${3:-recordings/pedidos-$(date +%Y%m%d-%H%M%S).jfr}"
+        jcmd "$2" JFR.dump name=$RECORDING filename="$(realpath -m "$FILE")" || exit 1
+        echo "Gravação salva em $FILE"
+        ;;
+    stop)
+        [ -z "$2" ] && { echo "Informe o pid da API"; exit 1; }
+        jcmd "$2" JFR.stop name=$RECORDING
+        ;;
+    summary)
+        [ -z "$2" ] && { echo "Informe o arquivo .jfr"; exit 1; }
+        mkdir -p build/classes
+        if [ ! -f build/classes/com/sistema/pedidos/jfr/JfrSummary.class ]; then
+            echo "Compilando código Java..."
+            find src/main/java -name "*.java" > build/jfr-sources.txt
+            javac -encoding UTF-8 -cp "$CP_LIBS" -d build/classes @build/jfr-sources.txt || { echo "Erro na compilação!"; exit 1; }
+        fi
+        # Contagem por tipo de evento, seguida do resumo dos eventos da API
+        jfr summary "$2" | grep -E "pedidos\.|Event Type|====="
+        java -cp "build/classes:$CP_LIBS" com.sistema.pedidos.jfr.JfrSummary "$2" "${3:-15}"
+        ;;
+    *)
+        echo "Uso: $0 start <pid> | dump <pid> [arquivo] | stop <pid> | summary <arquivo.jfr> [top]"
+        exit 1
+        ;;
+esac
@@ -0,0 +1,81 @@
+package com.sistema.pedidos.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compara dois resultados do JMH em JSON (-rf json), benchmark a benchmark e
+ * com os mesmos @Param: score de cada um, erro e variação. Em modos de tempo
+ * (avgt, sample, ss) variação negativa é melhora; em thrpt, positiva.
+ * <p>
+ * Uso: {@code ./bench.sh compare bench-results/antes.json bench-results/depois.json}
+ */
+public final class BenchmarkCompare {
+
+	private BenchmarkCompare() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Uso: BenchmarkCompare <base.json> <novo.json>");
+			System.exit(1);
+		}
+		Map<String, JsonNode> base = read(args[0]);
+		Map<String, JsonNode> current = read(args[1]);
+
+		System.out.printf("%-70s %14s %14s %9s  %s%n", "benchmark", "base", "novo", "variação", "unidade");
+		for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+			JsonNode now = entry.getValue().get("primaryMetric");
+			JsonNode before = base.containsKey(entry.getKey()) ? base.get(entry.getKey()).get("primaryMetric") : null;
+			String unit = now.get("scoreUnit").asText();
+			if (before == null) {
+				System.out.printf("%-70s %14s %14s %9s  %s%n", entry.getKey(), "-", score(now), "novo", unit);
+				continue;
+			}
+			double change = (now.get("score").asDouble() - before.get("score").asDouble())
+					/ before.get("score").asDouble() * 100;
+			System.out.printf("%-70s %14s %14s %+8.1f%%  %s%n", entry.getKey(), score(before), score(now), change,
+					unit);
+		}
+		for (String key : base.keySet()) {
+			if (!current.containsKey(key)) {
+				System.out.printf("%-70s %14s %14s %9s%n", key, score(base.get(key).get("primaryMetric")), "-",
+						"removido");
+			}
+		}
+	}
+
+	/**
+	 * Resultados indexados por nome curto do benchmark, modo e parâmetros
+	 */
+	private static Map<String, JsonNode> read(String path) throws IOException {
+		Map<String, JsonNode> results = new LinkedHashMap<>();
+		for (JsonNode result : new ObjectMapper().readTree(new File(path))) {
+			String name = result.get("benchmark").asText();
+			StringBuilder key = new StringBuilder(name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1))
+					.append(" [").append(result.get("mode").asText());
+			JsonNode params = result.get("params");
+			if (params != null) {
+				Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+				while (fields.hasNext()) {
+					Map.Entry<String, JsonNode> param = fields.next();
+					key.append(", ").append(param.getKey()).append('=').append(param.getValue().asText());
+				}
+			}
+			results.put(key.append(']').toString(), result);
+		}
+		return results;
+	}
+
+	private static String score(JsonNode metric) {
+		double error = metric.get("scoreError").asDouble();
+		return Double.isNaN(error) ? String.format("%.3f", metric.get("score").asDouble())
+				: String.format("%.3f±%.3f", metric.get("score").asDouble(), error);
+	}
+}
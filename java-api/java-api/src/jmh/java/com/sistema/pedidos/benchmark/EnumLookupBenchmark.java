@@ -0,0 +1,81 @@
+package com.sistema.pedidos.benchmark;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sistema.pedidos.enums.Permissions;
+import com.sistema.pedidos.enums.Status;
+
+/**
+ * Busca por nome em {@link Status} e {@link Permissions}, usada na troca de
+ * status e na checagem de permissões: primeiro valor, último valor e nome
+ * inexistente (percorre todos)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnumLookupBenchmark {
+
+	@Param({ "first", "last", "missing" })
+	public String position;
+
+	private String status;
+	private String permission;
+
+	@Setup
+	public void setup() {
+		switch (position) {
+		case "first":
+			status = "atendimento";
+			permission = "verDashboard";
+			break;
+		case "last":
+			status = "finalizado";
+			permission = "excluirUsuarios";
+			break;
+		default:
+			status = "cancelado";
+			permission = "verFinanceiro";
+		}
+	}
+
+	@Benchmark
+	public Optional<Status> statusFromName() {
+		return Status.fromName(status);
+	}
+
+	@Benchmark
+	public boolean statusContainsName() {
+		return Status.containsName(status);
+	}
+
+	@Benchmark
+	public Status nextStatus() {
+		return Status.getNextStatus(status);
+	}
+
+	@Benchmark
+	public Optional<Permissions> permissionFromName() {
+		return Permissions.fromName(permission);
+	}
+
+	@Benchmark
+	public boolean permissionContainsName() {
+		return Permissions.containsName(permission);
+	}
+}
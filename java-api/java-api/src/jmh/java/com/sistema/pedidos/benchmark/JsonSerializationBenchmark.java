@@ -0,0 +1,97 @@
+package com.sistema.pedidos.benchmark;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sistema.pedidos.model.Order;
+import com.sistema.pedidos.util.JsonCodec;
+
+/**
+ * Serialização da lista de pedidos do dia: ObjectMapper genérico (como antes
+ * do {@link JsonCodec}) contra o writer tipado com acessores do Blackbird e
+ * contra {@link JsonCodec#write}, o caminho do sendJsonResponse do
+ * BaseHandler para respostas sem writer próprio
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	public int orders;
+
+	private ObjectMapper plainMapper;
+	private JsonCodec codec;
+	private List<Order> orderList;
+	private byte[] orderJson;
+
+	@Setup
+	public void setup() throws Exception {
+		plainMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		codec = JsonCodec.getInstance();
+
+		orderList = new ArrayList<>(orders);
+		for (int i = 0; i < orders; i++) {
+			Order order = new Order("Cliente " + i, "1199999" + i, i % 2 == 0 ? "delivery" : "pickup");
+			order.setId("20241019" + i);
+			order.setAddress("Rua " + i);
+			List<Order.OrderItem> items = new ArrayList<>();
+			for (int j = 0; j < 3; j++) {
+				items.add(new Order.OrderItem((long) j, "Produto " + j, j + 1, new BigDecimal("12.50")));
+			}
+			order.setItems(items);
+			order.setTotal(new BigDecimal("75.00"));
+			orderList.add(order);
+		}
+		orderJson = codec.write(orderList.get(0));
+	}
+
+	@Benchmark
+	public byte[] writePlainMapper() throws Exception {
+		return plainMapper.writeValueAsString(orderList).getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public byte[] writeCodec() throws Exception {
+		return codec.writeOrders(orderList);
+	}
+
+	@Benchmark
+	public byte[] writeHandlerResponse() throws Exception {
+		return codec.write(orderList);
+	}
+
+	@Benchmark
+	public Order readPlainMapper() throws Exception {
+		return plainMapper.readValue(new String(orderJson, StandardCharsets.UTF_8), Order.class);
+	}
+
+	@Benchmark
+	public Order readCodec() throws Exception {
+		return codec.read(orderJson, Order.class);
+	}
+}
@@ -0,0 +1,59 @@
+package com.sistema.pedidos.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sistema.pedidos.util.JwtUtil;
+
+/**
+ * Emissão e validação de token pelo {@link JwtUtil}, feita no login e em
+ * toda requisição autenticada; inclui o token com assinatura errada, que sai
+ * antes de decodificar o payload
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+	private String token;
+	private String tamperedToken;
+
+	@Setup
+	public void setup() {
+		token = JwtUtil.generateToken("admin");
+		tamperedToken = token.substring(0, token.lastIndexOf('.') + 1) + "assinatura";
+	}
+
+	@Benchmark
+	public String generateToken() {
+		return JwtUtil.generateToken("admin");
+	}
+
+	@Benchmark
+	public boolean validateToken() {
+		return JwtUtil.validateToken(token);
+	}
+
+	@Benchmark
+	public boolean validateTamperedToken() {
+		return JwtUtil.validateToken(tamperedToken);
+	}
+
+	@Benchmark
+	public String getUsernameFromToken() {
+		return JwtUtil.getUsernameFromToken(token);
+	}
+}
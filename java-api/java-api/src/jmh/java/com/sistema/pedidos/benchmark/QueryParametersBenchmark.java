@@ -0,0 +1,44 @@
+package com.sistema.pedidos.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sistema.pedidos.util.HttpUtils;
+
+/**
+ * Leitura da query string por {@link HttpUtils}: sem parâmetros, o período
+ * dos relatórios e os filtros de pedidos com valores codificados
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryParametersBenchmark {
+
+	@Param({ "", "period=month",
+			"customer=Jo%C3%A3o+da+Silva&status=preparo&type=delivery&startDate=2024-10-01T00%3A00&endDate=2024-10-19T23%3A59" })
+	public String query;
+
+	@Benchmark
+	public Map<String, String> parseQueryParameters() {
+		return HttpUtils.parseQueryParameters(query);
+	}
+
+	@Benchmark
+	public String getQueryParameter() {
+		return HttpUtils.getQueryParameter(query, "status");
+	}
+}
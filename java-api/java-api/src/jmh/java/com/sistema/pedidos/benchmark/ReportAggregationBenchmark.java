@@ -0,0 +1,163 @@
+package com.sistema.pedidos.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sistema.pedidos.enums.Status;
+import com.sistema.pedidos.model.Order;
+import com.sistema.pedidos.model.Product;
+import com.sistema.pedidos.service.MetricsService;
+import com.sistema.pedidos.service.OrderService;
+import com.sistema.pedidos.service.ProductService;
+
+/**
+ * Agregação dos relatórios e do dashboard do {@link MetricsService} sobre
+ * pedidos sintéticos dos últimos 90 dias. O banco é trocado por listas em
+ * memória (busca binária por data), então o tempo medido é o da agregação,
+ * sem as consultas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportAggregationBenchmark {
+
+	private static final String[] CATEGORIES = { "lanches", "bebidas", "acompanhamentos", "sobremesas" };
+	private static final int PRODUCTS = 20;
+	private static final int DAYS = 90;
+
+	@Param({ "1000", "10000" })
+	public int orders;
+
+	private MetricsService metricsService;
+
+	@Setup
+	public void setup() {
+		List<Product> products = new ArrayList<>(PRODUCTS);
+		for (int i = 0; i < PRODUCTS; i++) {
+			Product product = new Product("Produto " + i, "", new BigDecimal(10 + i + ".90"),
+					CATEGORIES[i % CATEGORIES.length]);
+			product.setId((long) i);
+			products.add(product);
+		}
+
+		// Em ordem de criação, do mais antigo ao mais recente
+		Status[] statuses = Status.values();
+		LocalDateTime now = LocalDateTime.now();
+		long spanMinutes = DAYS * 24L * 60;
+		List<Order> orderList = new ArrayList<>(orders);
+		for (int i = 0; i < orders; i++) {
+			Order order = new Order("Cliente " + i, "1199999" + i, i % 3 == 0 ? "pickup" : "delivery");
+			order.setId("20241019" + i);
+			order.setStatus(i % 2 == 0 ? "finalizado" : statuses[i % statuses.length].getName());
+			order.setCreatedAt(now.minusMinutes(spanMinutes - spanMinutes * i / orders));
+			List<Order.OrderItem> items = new ArrayList<>();
+			for (int j = 0; j <= i % 4; j++) {
+				Product product = products.get((i + j * 7) % PRODUCTS);
+				items.add(new Order.OrderItem(product.getId(), product.getName(), j + 1, product.getPrice()));
+			}
+			order.setItems(items);
+			order.calculateTotal();
+			orderList.add(order);
+		}
+
+		ProductService productService = new InMemoryProductService(products);
+		metricsService = new MetricsService(new InMemoryOrderService(productService, orderList), productService);
+	}
+
+	/**
+	 * Período dos relatórios; o dashboard não depende dele
+	 */
+	@State(Scope.Benchmark)
+	public static class ReportPeriod {
+		@Param({ "week", "month", "year" })
+		public String period;
+	}
+
+	@Benchmark
+	public Map<String, Object> reports(ReportPeriod reportPeriod) {
+		return metricsService.getReports(reportPeriod.period);
+	}
+
+	@Benchmark
+	public Map<String, Object> dashboard() {
+		return metricsService.getDashboardMetrics();
+	}
+
+	/**
+	 * Pedidos em memória no lugar das consultas ao banco. O construtor do
+	 * OrderService ainda tenta ler o contador de pedidos no banco; sem banco,
+	 * só registra o erro.
+	 */
+	private static final class InMemoryOrderService extends OrderService {
+		private final List<Order> orders;
+
+		private InMemoryOrderService(ProductService productService, List<Order> orders) {
+			super(productService);
+			this.orders = orders;
+		}
+
+		@Override
+		public List<Order> findAll() {
+			return new ArrayList<>(orders);
+		}
+
+		@Override
+		public List<Order> findByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+			List<Order> found = new ArrayList<>();
+			for (int i = firstAtOrAfter(startDate); i < orders.size(); i++) {
+				Order order = orders.get(i);
+				if (order.getCreatedAt().isAfter(endDate)) {
+					break;
+				}
+				found.add(order);
+			}
+			return found;
+		}
+
+		private int firstAtOrAfter(LocalDateTime date) {
+			int low = 0;
+			int high = orders.size();
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (orders.get(mid).getCreatedAt().isBefore(date)) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+	}
+
+	private static final class InMemoryProductService extends ProductService {
+		private final List<Product> products;
+
+		private InMemoryProductService(List<Product> products) {
+			this.products = products;
+		}
+
+		@Override
+		public List<Product> findAll() {
+			return new ArrayList<>(products);
+		}
+	}
+}
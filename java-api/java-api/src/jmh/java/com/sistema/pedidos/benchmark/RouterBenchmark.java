@@ -0,0 +1,70 @@
+package com.sistema.pedidos.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.sistema.pedidos.controller.router.Route;
+import com.sistema.pedidos.controller.router.Router;
+import com.sun.net.httpserver.HttpHandler;
+
+/**
+ * Custo de despacho do {@link Router} com a mesma tabela de rotas da API,
+ * comparado à quebra manual de caminho usada antes do router
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouterBenchmark {
+
+	@Param({ "/api/orders", "/api/orders/202410190001/status", "/api/chat/messages/202410190001/1/20",
+			"/api/users/42/password", "/api/desconhecido/1" })
+	public String path;
+
+	private Router router;
+
+	@Setup
+	public void setup() {
+		HttpHandler noop = exchange -> {
+		};
+		router = new Router(noop, noop);
+		router.post("/api/auth/login", noop).post("/api/auth/logout", noop).get("/api/auth/validate", noop);
+		router.get("/api/users", noop).post("/api/users", noop).put("/api/users/{id:long}", noop)
+				.patch("/api/users/{id:long}/password", noop).delete("/api/users/{id:long}", noop);
+		router.get("/api/profiles", noop).post("/api/profiles", noop).put("/api/profiles/{id:long}", noop)
+				.delete("/api/profiles/{id:long}", noop);
+		router.get("/api/products", noop).post("/api/products", noop).put("/api/products/{id:long}", noop)
+				.delete("/api/products/{id:long}", noop);
+		router.get("/api/orders", noop).post("/api/orders", noop).patch("/api/orders/{id}/status", noop);
+		router.get("/api/clientes", noop).get("/api/clientes/{id:long}", noop).post("/api/clientes", noop);
+		router.get("/api/metrics/dashboard", noop).get("/api/metrics/reports", noop);
+		router.post("/api/chat/send", noop).get("/api/chat/messages/{orderId}", noop)
+				.get("/api/chat/messages/{orderId}/{page}/{limit}", noop);
+	}
+
+	@Benchmark
+	public Route trieLookup() {
+		return router.find(path);
+	}
+
+	@Benchmark
+	public void legacySplit(Blackhole blackhole) {
+		// Equivalente ao antigo extractIdFromPath/handlePatchOrder
+		String[] parts = path.split("/");
+		blackhole.consume(parts.length > 3 ? parts[3] : null);
+	}
+}
@@ -0,0 +1,162 @@
+package com.sistema.pedidos.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+import org.java_websocket.drafts.Draft;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.framing.Framedata;
+import org.java_websocket.handshake.HandshakeImpl1Client;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sistema.pedidos.model.Order;
+import com.sistema.websocket.NotificationEvent;
+import com.sistema.websocket.TextDeflateExtension;
+
+/**
+ * Custo de um fan-out para N clientes, medido no enquadramento da própria
+ * biblioteca (sem sockets): texto puro, permessage-deflate (compressão por
+ * conexão) e encoding=binary (compressão única compartilhada). O contador
+ * wireBytes dividido por events dá os bytes por evento e cliente.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebSocketFanOutBenchmark {
+
+	@Param({ "200" })
+	public int clients;
+
+	@Param({ "text", "deflate", "binary" })
+	public String mode;
+
+	private final List<Draft> connections = new ArrayList<>();
+	private String[] events;
+	private Deflater deflater;
+	private final byte[] deflateBuffer = new byte[8192];
+	private int next;
+
+	@Setup
+	public void setup() throws Exception {
+		Draft template = "deflate".equals(mode) ? new Draft_6455(new TextDeflateExtension(128))
+				: new Draft_6455(new TextDeflateExtension(Integer.MAX_VALUE));
+		for (int i = 0; i < clients; i++) {
+			Draft draft = template.copyInstance();
+			draft.acceptHandshakeAsServer(handshake());
+			connections.add(draft);
+		}
+		deflater = new Deflater(6, true);
+
+		// Mistura típica do quadro de pedidos: mudanças de status, um pedido novo
+		// e um lote agrupado
+		List<String> sample = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			Order order = order(i);
+			order.setStatus(i % 2 == 0 ? "preparo" : "pronto");
+			sample.add(withSeq(i, NotificationEvent.orderStatus(order).getJson()));
+		}
+		sample.add(withSeq(5, NotificationEvent.orderCreated(order(5)).getJson()));
+		sample.add("[" + String.join(",", sample.subList(0, 4)) + "]");
+		events = sample.toArray(new String[0]);
+	}
+
+	private static HandshakeImpl1Client handshake() {
+		HandshakeImpl1Client handshake = new HandshakeImpl1Client();
+		handshake.setResourceDescriptor("/api/notificacoes");
+		handshake.put("Upgrade", "websocket");
+		handshake.put("Connection", "Upgrade");
+		handshake.put("Sec-WebSocket-Version", "13");
+		handshake.put("Sec-WebSocket-Key", "dGhlIHNhbXBsZSBub25jZQ==");
+		handshake.put("Sec-WebSocket-Extensions", "permessage-deflate; client_max_window_bits");
+		return handshake;
+	}
+
+	private static Order order(int i) {
+		Order order = new Order("Cliente " + i, "1199999" + i, "delivery");
+		order.setId("2024101900" + i);
+		order.setAddress("Rua das Flores, " + i);
+		List<Order.OrderItem> items = new ArrayList<>();
+		for (int j = 0; j < 3; j++) {
+			items.add(new Order.OrderItem((long) j, "Produto " + j, j + 1, new BigDecimal("12.50")));
+		}
+		order.setItems(items);
+		order.setTotal(new BigDecimal("75.00"));
+		return order;
+	}
+
+	private static String withSeq(long seq, String json) {
+		return "{\"seq\":" + seq + "," + json.substring(1);
+	}
+
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	@State(Scope.Thread)
+	public static class Traffic {
+		public long wireBytes;
+		public long events;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			wireBytes = 0;
+			events = 0;
+		}
+	}
+
+	@Benchmark
+	public long fanOut(Traffic traffic) {
+		String event = events[next++ % events.length];
+		long bytes = 0;
+		if ("binary".equals(mode)) {
+			byte[] data = deflate(event);
+			for (Draft draft : connections) {
+				bytes += frame(draft, draft.createFrames(ByteBuffer.wrap(data), false));
+			}
+		} else {
+			for (Draft draft : connections) {
+				bytes += frame(draft, draft.createFrames(event, false));
+			}
+		}
+		traffic.wireBytes += bytes;
+		traffic.events += connections.size();
+		return bytes;
+	}
+
+	private static long frame(Draft draft, List<Framedata> frames) {
+		long bytes = 0;
+		for (Framedata frame : frames) {
+			bytes += draft.createBinaryFrame(frame).remaining();
+		}
+		return bytes;
+	}
+
+	private byte[] deflate(String event) {
+		deflater.reset();
+		deflater.setInput(event.getBytes(StandardCharsets.UTF_8));
+		deflater.finish();
+		ByteArrayOutputStream output = new ByteArrayOutputStream(event.length() / 2);
+		while (!deflater.finished()) {
+			output.write(deflateBuffer, 0, deflater.deflate(deflateBuffer));
+		}
+		return output.toByteArray();
+	}
+}
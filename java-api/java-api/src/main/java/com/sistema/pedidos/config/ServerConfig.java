@@ -10,16 +10,95 @@ public class ServerConfig {
     
     private final int threadPoolSize;
     private final int webSocketPort;
+    private final String serverMode;
+    private final int serverHeaderTimeoutSeconds;
+    private final int serverIdleTimeoutSeconds;
     private final String corsAllowOrigin;
     private final String corsAllowMethods;
     private final String corsAllowHeaders;
+    private final int corsMaxAge;
+    private final boolean compressionEnabled;
+    private final int compressionMinSize;
+    private final int compressionLevel;
+    private final int compressionPoolSize;
+    private final int wsQueueCapacity;
+    private final String wsQueuePolicy;
+    private final int wsMaxPendingFrames;
+    private final long wsSlowConsumerTimeoutMs;
+    private final int wsPublishThreads;
+    private final long wsBatchWindowMs;
+    private final int wsReplayBufferSize;
+    private final boolean wsCompressionEnabled;
+    private final int wsCompressionThreshold;
+    private final int wsHeartbeatIntervalSeconds;
+    private final int wsMaxConnectionsPerUser;
+    private final int eventBusCapacity;
+    private final int actionLogQueueCapacity;
+    private final int actionLogBatchSize;
+    private final long actionLogFlushIntervalMs;
+    private final String actionLogOverflow;
+    private final int actionLogSampleRate;
+    private final String actionLogWalDir;
+    private final int actionLogWalSegmentBytes;
+    private final int actionLogWalMaxSegments;
+    private final String internalAllowedIps;
+    private final boolean dbInstrumentationEnabled;
+    private final long dbSlowQueryMs;
+    private final int dbRequestQueryBudget;
+    private final int dbRepeatedQueryThreshold;
+    private final boolean dbDebugHeaders;
+    private final boolean tracingEnabled;
+    private final int traceBufferSize;
     
     private ServerConfig() {
         this.threadPoolSize = Integer.parseInt(getEnvOrDefault("THREAD_POOL_SIZE", "10"));
         this.webSocketPort = Integer.parseInt(getEnvOrDefault("WEBSOCKET_PORT", "8081"));
+        this.serverMode = getEnvOrDefault("SERVER_MODE", "classic");
+        this.serverHeaderTimeoutSeconds = Integer.parseInt(getEnvOrDefault("SERVER_HEADER_TIMEOUT_SECONDS", "10"));
+        this.serverIdleTimeoutSeconds = Integer.parseInt(getEnvOrDefault("SERVER_IDLE_TIMEOUT_SECONDS", "60"));
         this.corsAllowOrigin = getEnvOrDefault("CORS_ALLOW_ORIGIN", "*");
         this.corsAllowMethods = getEnvOrDefault("CORS_ALLOW_METHODS", "GET, POST, PUT, DELETE, OPTIONS, PATCH");
         this.corsAllowHeaders = getEnvOrDefault("CORS_ALLOW_HEADERS", "Content-Type, Authorization");
+        this.corsMaxAge = Integer.parseInt(getEnvOrDefault("CORS_MAX_AGE", "86400"));
+        this.compressionEnabled = Boolean.parseBoolean(getEnvOrDefault("COMPRESSION_ENABLED", "true"));
+        this.compressionMinSize = Integer.parseInt(getEnvOrDefault("COMPRESSION_MIN_SIZE", "1024"));
+        this.compressionLevel = Integer.parseInt(getEnvOrDefault("COMPRESSION_LEVEL", "6"));
+        this.compressionPoolSize = Integer.parseInt(getEnvOrDefault("COMPRESSION_POOL_SIZE", String.valueOf(threadPoolSize)));
+        this.wsQueueCapacity = Integer.parseInt(getEnvOrDefault("WS_QUEUE_CAPACITY", "256"));
+        this.wsQueuePolicy = getEnvOrDefault("WS_QUEUE_POLICY", "drop_oldest");
+        this.wsMaxPendingFrames = Integer.parseInt(getEnvOrDefault("WS_MAX_PENDING_FRAMES", "32"));
+        this.wsSlowConsumerTimeoutMs = Long.parseLong(getEnvOrDefault("WS_SLOW_CONSUMER_TIMEOUT_MS", "15000"));
+        this.wsPublishThreads = Integer.parseInt(getEnvOrDefault("WS_PUBLISH_THREADS", "2"));
+        this.wsBatchWindowMs = Long.parseLong(getEnvOrDefault("WS_BATCH_WINDOW_MS", "50"));
+        this.wsReplayBufferSize = Integer.parseInt(getEnvOrDefault("WS_REPLAY_BUFFER_SIZE", "1024"));
+        this.wsCompressionEnabled = Boolean.parseBoolean(getEnvOrDefault("WS_COMPRESSION_ENABLED", "true"));
+        this.wsCompressionThreshold = Integer.parseInt(getEnvOrDefault("WS_COMPRESSION_THRESHOLD", "128"));
+        this.wsHeartbeatIntervalSeconds = Integer.parseInt(getEnvOrDefault("WS_HEARTBEAT_INTERVAL_SECONDS", "30"));
+        this.wsMaxConnectionsPerUser = Integer.parseInt(getEnvOrDefault("WS_MAX_CONNECTIONS_PER_USER", "5"));
+        this.eventBusCapacity = Integer.parseInt(getEnvOrDefault("EVENT_BUS_CAPACITY", "4096"));
+        this.actionLogQueueCapacity = Integer.parseInt(getEnvOrDefault("ACTION_LOG_QUEUE_CAPACITY", "10000"));
+        this.actionLogBatchSize = Integer.parseInt(getEnvOrDefault("ACTION_LOG_BATCH_SIZE", "200"));
+        this.actionLogFlushIntervalMs = Long.parseLong(getEnvOrDefault("ACTION_LOG_FLUSH_INTERVAL_MS", "200"));
+        this.actionLogOverflow = getEnvOrDefault("ACTION_LOG_OVERFLOW", "spill");
+        this.actionLogSampleRate = Integer.parseInt(getEnvOrDefault("ACTION_LOG_SAMPLE_RATE", "10"));
+        this.actionLogWalDir = getEnvOrDefault("ACTION_LOG_WAL_DIR", "logs/system_logs-wal");
+        this.actionLogWalSegmentBytes = Integer.parseInt(getEnvOrDefault("ACTION_LOG_WAL_SEGMENT_BYTES", "8388608"));
+        this.actionLogWalMaxSegments = Integer.parseInt(getEnvOrDefault("ACTION_LOG_WAL_MAX_SEGMENTS", "64"));
+        this.internalAllowedIps = getEnvOrDefault("INTERNAL_ALLOWED_IPS", "127.0.0.1,0:0:0:0:0:0:0:1");
+        this.dbInstrumentationEnabled = Boolean.parseBoolean(getEnvOrDefault("DB_INSTRUMENTATION_ENABLED", "true"));
+        this.dbSlowQueryMs = Long.parseLong(getEnvOrDefault("DB_SLOW_QUERY_MS", "200"));
+        this.dbRequestQueryBudget = Integer.parseInt(getEnvOrDefault("DB_REQUEST_QUERY_BUDGET", "50"));
+        this.dbRepeatedQueryThreshold = Integer.parseInt(getEnvOrDefault("DB_REPEATED_QUERY_THRESHOLD", "10"));
+        this.dbDebugHeaders = Boolean.parseBoolean(getEnvOrDefault("DB_DEBUG_HEADERS", "false"));
+        this.tracingEnabled = Boolean.parseBoolean(getEnvOrDefault("TRACING_ENABLED", "true"));
+        this.traceBufferSize = Integer.parseInt(getEnvOrDefault("TRACE_BUFFER_SIZE", "8192"));
+    }
+    
+    /**
+     * SERVER_MODE=unified: HTTP e WebSocket na mesma porta, em um único seletor NIO
+     */
+    public boolean isUnifiedMode() {
+        return "unified".equalsIgnoreCase(serverMode);
     }
     
     private String getEnvOrDefault(String key, String defaultValue) {
@@ -1,6 +1,10 @@
 package com.sistema.pedidos.context;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import com.sistema.pedidos.model.User;
+import com.sistema.pedidos.tracing.Span;
 
 /**
  * Context para armazenar informações da requisição atual
@@ -18,11 +22,23 @@ public final class RequestContext {
      * Inicializa o contexto da requisição
      */
     public static void initialize(String requestId, String clientIp, User authenticatedUser) {
+        initialize(requestId, clientIp, authenticatedUser, null, null);
+    }
+    
+    /**
+     * Inicializa o contexto guardando também a linha da requisição (método e
+     * template da rota), lidos uma única vez e reaproveitados nos logs
+     */
+    public static void initialize(String requestId, String clientIp, User authenticatedUser,
+            String method, String route) {
         RequestContextData data = RequestContextData.builder()
                 .requestId(requestId)
                 .clientIp(clientIp)
                 .authenticatedUser(authenticatedUser)
+                .method(method)
+                .route(route)
                 .startTime(System.currentTimeMillis())
+                .startNanos(System.nanoTime())
                 .build();
         
         CONTEXT.set(data);
@@ -44,6 +60,17 @@ public final class RequestContext {
         return data != null ? data.getClientIp() : null;
     }
     
+    /**
+     * Define o usuário autenticado depois da inicialização, para que a
+     * validação do token já rode dentro do contexto da requisição
+     */
+    public static void setAuthenticatedUser(User authenticatedUser) {
+        RequestContextData data = CONTEXT.get();
+        if (data != null) {
+            data.authenticatedUser = authenticatedUser;
+        }
+    }
+    
     /**
      * Obtém o usuário autenticado
      */
@@ -52,6 +79,22 @@ public final class RequestContext {
         return data != null ? data.getAuthenticatedUser() : null;
     }
     
+    /**
+     * Obtém o método HTTP da requisição
+     */
+    public static String getMethod() {
+        RequestContextData data = CONTEXT.get();
+        return data != null ? data.getMethod() : null;
+    }
+    
+    /**
+     * Obtém o template da rota (ex.: /api/orders/{id}/status)
+     */
+    public static String getRoute() {
+        RequestContextData data = CONTEXT.get();
+        return data != null ? data.getRoute() : null;
+    }
+    
     /**
      * Obtém o tempo de início da requisição
      */
@@ -68,6 +111,82 @@ public final class RequestContext {
         return startTime != null ? System.currentTimeMillis() - startTime : 0;
     }
     
+    /**
+     * Tempo de processamento em microssegundos, medido com System.nanoTime
+     */
+    public static long getElapsedMicros() {
+        RequestContextData data = CONTEXT.get();
+        return data != null ? (System.nanoTime() - data.getStartNanos()) / 1000 : 0;
+    }
+    
+    /**
+     * Conta uma conexão com o banco obtida pela requisição atual
+     */
+    public static void recordConnection() {
+        RequestContextData data = CONTEXT.get();
+        if (data != null) {
+            data.connectionCount++;
+        }
+    }
+    
+    /**
+     * Conta uma execução de SQL na requisição atual e retorna quantas vezes o
+     * template já foi executado nela, incluindo esta (0 fora de uma requisição)
+     */
+    public static int recordQuery(String template) {
+        RequestContextData data = CONTEXT.get();
+        if (data == null) {
+            return 0;
+        }
+        data.queryCount++;
+        if (data.queriesByTemplate == null) {
+            data.queriesByTemplate = new HashMap<>();
+        }
+        return data.queriesByTemplate.merge(template, 1, Integer::sum);
+    }
+    
+    /**
+     * Execuções de SQL da requisição atual
+     */
+    public static int getQueryCount() {
+        RequestContextData data = CONTEXT.get();
+        return data != null ? data.queryCount : 0;
+    }
+    
+    /**
+     * Conexões com o banco obtidas pela requisição atual
+     */
+    public static int getConnectionCount() {
+        RequestContextData data = CONTEXT.get();
+        return data != null ? data.connectionCount : 0;
+    }
+    
+    /**
+     * Span aberto mais recentemente na requisição atual, pai dos próximos
+     */
+    public static Span getCurrentSpan() {
+        RequestContextData data = CONTEXT.get();
+        return data != null ? data.currentSpan : null;
+    }
+    
+    /**
+     * Troca o span corrente; usado pelo Tracer ao abrir e fechar spans
+     */
+    public static void setCurrentSpan(Span span) {
+        RequestContextData data = CONTEXT.get();
+        if (data != null) {
+            data.currentSpan = span;
+        }
+    }
+    
+    /**
+     * Id do trace da requisição atual (null com o tracing desligado)
+     */
+    public static String getTraceId() {
+        Span span = getCurrentSpan();
+        return span != null ? span.getTraceId() : null;
+    }
+    
     /**
      * Limpa o contexto da thread atual
      */
@@ -81,20 +200,34 @@ public final class RequestContext {
     private static class RequestContextData {
         private final String requestId;
         private final String clientIp;
-        private final User authenticatedUser;
+        private User authenticatedUser;
+        private final String method;
+        private final String route;
         private final long startTime;
+        private final long startNanos;
+        // Contadores de banco: só a thread da requisição acessa
+        private int queryCount;
+        private int connectionCount;
+        private Map<String, Integer> queriesByTemplate;
+        private Span currentSpan;
         
         private RequestContextData(Builder builder) {
             this.requestId = builder.requestId;
             this.clientIp = builder.clientIp;
             this.authenticatedUser = builder.authenticatedUser;
+            this.method = builder.method;
+            this.route = builder.route;
             this.startTime = builder.startTime;
+            this.startNanos = builder.startNanos;
         }
         
         public String getRequestId() { return requestId; }
         public String getClientIp() { return clientIp; }
         public User getAuthenticatedUser() { return authenticatedUser; }
+        public String getMethod() { return method; }
+        public String getRoute() { return route; }
         public long getStartTime() { return startTime; }
+        public long getStartNanos() { return startNanos; }
         
         public static Builder builder() {
             return new Builder();
@@ -104,7 +237,10 @@ public final class RequestContext {
             private String requestId;
             private String clientIp;
             private User authenticatedUser;
+            private String method;
+            private String route;
             private long startTime;
+            private long startNanos;
             
             public Builder requestId(String requestId) {
                 this.requestId = requestId;
@@ -121,6 +257,21 @@ public final class RequestContext {
                 return this;
             }
             
+            public Builder method(String method) {
+                this.method = method;
+                return this;
+            }
+            
+            public Builder route(String route) {
+                this.route = route;
+                return this;
+            }
+            
+            public Builder startNanos(long startNanos) {
+                this.startNanos = startNanos;
+                return this;
+            }
+            
             public Builder startTime(long startTime) {
                 this.startTime = startTime;
                 return this;
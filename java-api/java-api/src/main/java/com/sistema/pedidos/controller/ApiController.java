@@ -3,23 +3,34 @@ package com.sistema.pedidos.controller;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import org.java_websocket.server.WebSocketServer;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.sistema.pedidos.config.ServerConfig;
 import com.sistema.pedidos.controller.handler.AuthHandler;
 import com.sistema.pedidos.controller.handler.ChatHandler;
 import com.sistema.pedidos.controller.handler.CorsHandler;
 import com.sistema.pedidos.controller.handler.CustomerHandler;
+import com.sistema.pedidos.controller.handler.EventsHandler;
 import com.sistema.pedidos.controller.handler.HandlerContainer;
+import com.sistema.pedidos.controller.handler.InternalHandler;
 import com.sistema.pedidos.controller.handler.MetricsHandler;
 import com.sistema.pedidos.controller.handler.OrderHandler;
 import com.sistema.pedidos.controller.handler.ProductHandler;
 import com.sistema.pedidos.controller.handler.ProfileHandler;
 import com.sistema.pedidos.controller.handler.UserHandler;
+import com.sistema.pedidos.controller.router.Router;
+import com.sistema.pedidos.event.AuditConsumer;
+import com.sistema.pedidos.event.EventBus;
+import com.sistema.pedidos.event.EventMetricsConsumer;
+import com.sistema.pedidos.event.NotificationConsumer;
 import com.sistema.pedidos.exception.ApiException;
+import com.sistema.pedidos.metrics.PrometheusExporter;
+import com.sistema.pedidos.metrics.QueryMetrics;
+import com.sistema.pedidos.metrics.RuntimeStats;
+import com.sistema.pedidos.server.UnifiedServer;
 import com.sistema.pedidos.service.AuthService;
 import com.sistema.pedidos.service.CustomerService;
 import com.sistema.pedidos.service.MetricsService;
@@ -28,6 +39,10 @@ import com.sistema.pedidos.service.ProductService;
 import com.sistema.pedidos.service.ProfileService;
 import com.sistema.pedidos.service.ServiceContainer;
 import com.sistema.pedidos.service.UserService;
+import com.sistema.pedidos.tracing.Tracer;
+import com.sistema.pedidos.util.ActionLogger;
+import com.sistema.pedidos.util.JsonCodec;
+import com.sistema.pedidos.util.ResponseCompressor;
 import com.sistema.websocket.NotificacaoWebSocketServer;
 import com.sun.net.httpserver.HttpServer;
 
@@ -58,9 +73,7 @@ public class ApiController {
 	 * Configuração do ObjectMapper com módulos necessários
 	 */
 	private ObjectMapper configureObjectMapper() {
-		return new ObjectMapper().registerModule(new JavaTimeModule())
-				.disable(com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
-				.configure(com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		return JsonCodec.getInstance().getMapper();
 	}
 
 	/**
@@ -85,20 +98,28 @@ public class ApiController {
 	 */
 	private HandlerContainer initializeHandlers() {
 		return HandlerContainer.builder().corsHandler(new CorsHandler())
-				.authHandler(new AuthHandler(services.getAuthService(), objectMapper))
+				.authHandler(new AuthHandler(services, objectMapper))
 				.userHandler(new UserHandler(services, objectMapper))
 				.profileHandler(new ProfileHandler(services, objectMapper))
 				.productHandler(new ProductHandler(services, objectMapper))
 				.orderHandler(new OrderHandler(services, objectMapper))
 				.metricsHandler(new MetricsHandler(services, objectMapper))
 				.customerHandler(new CustomerHandler(services, objectMapper))
-				.chatHandler(new ChatHandler(services, objectMapper)).build();
+				.chatHandler(new ChatHandler(services, objectMapper))
+				.eventsHandler(new EventsHandler(services, objectMapper))
+				.internalHandler(new InternalHandler(services, objectMapper)).build();
 	}
 
 	/**
 	 * Inicia o servidor HTTP
 	 */
 	public void start(int port) throws IOException {
+		startEventBus();
+		registerMetrics();
+		if (config.isUnifiedMode()) {
+			startUnifiedServer(port);
+			return;
+		}
 		HttpServer server = createHttpServer(port);
 		configureRoutes(server);
 		configureServerSettings(server);
@@ -108,38 +129,137 @@ public class ApiController {
 		logServerStartup(port);
 	}
 
+	/**
+	 * HTTP e WebSocket na mesma porta: as mesmas rotas, com o pool de workers
+	 * compartilhado pelas requisições e pelas mensagens WebSocket
+	 */
+	private void startUnifiedServer(int port) throws IOException {
+		UnifiedServer server = new UnifiedServer(new InetSocketAddress("0.0.0.0", port), createRouter(),
+				createWorkerPool());
+		server.start();
+		log.info("Modo unificado: WebSocket disponível em ws://localhost:{}/api/notificacoes", port);
+		logServerStartup(port);
+	}
+
+	/**
+	 * Consumidores dos eventos publicados pelos handlers, cada um na própria
+	 * thread
+	 */
+	private void startEventBus() {
+		EventBus eventBus = EventBus.getInstance();
+		eventBus.subscribe(new NotificationConsumer());
+		eventBus.subscribe(new EventMetricsConsumer());
+		eventBus.subscribe(new AuditConsumer());
+		eventBus.start();
+	}
+
+	/**
+	 * Componentes cujas estatísticas entram em /internal/metrics
+	 */
+	private void registerMetrics() {
+		PrometheusExporter exporter = PrometheusExporter.getInstance();
+		exporter.register("compression", ResponseCompressor.getInstance()::getStats);
+		exporter.register("websocket", NotificacaoWebSocketServer::getStats);
+		exporter.register("event_bus", EventBus.getInstance()::getStats);
+		exporter.register("action_log", ActionLogger::getStats);
+		exporter.register("jdbc", QueryMetrics.getInstance()::getStats);
+		exporter.register("tracing", Tracer.getInstance()::getStats);
+		exporter.register("runtime", RuntimeStats.getInstance()::getStats);
+	}
+
 	private HttpServer createHttpServer(int port) throws IOException {
 		return HttpServer.create(new InetSocketAddress("0.0.0.0", port), 0);
 	}
 
 	private void configureRoutes(HttpServer server) {
+		server.createContext("/", createRouter());
+	}
+
+	/**
+	 * Tabela de rotas da API: caminhos desconhecidos e preflight CORS caem no
+	 * CorsHandler
+	 */
+	private Router createRouter() {
+		CorsHandler cors = handlers.getCorsHandler();
+		Router router = new Router(cors, cors::handleMethodNotAllowed);
+
 		// Rotas de autenticação
+		AuthHandler auth = handlers.getAuthHandler();
+		router.post("/api/auth/login", auth.route(auth::handleLogin));
+		router.post("/api/auth/logout", auth.route(auth::handleLogout));
+		router.get("/api/auth/validate", auth.route(auth::handleValidateToken));
+
+		// Rotas de usuários
+		UserHandler users = handlers.getUserHandler();
+		router.get("/api/users", users.authenticatedRoute(users::handleGetUsers));
+		router.post("/api/users", users.authenticatedRoute(users::handleCreateUser));
+		router.put("/api/users/{id:long}", users.authenticatedRoute(users::handleUpdateUser));
+		router.patch("/api/users/{id:long}/password", users.authenticatedRoute(users::handlePasswordChange));
+		router.delete("/api/users/{id:long}", users.authenticatedRoute(users::handleDeleteUser));
+
+		// Rotas de perfis
+		ProfileHandler profiles = handlers.getProfileHandler();
+		router.get("/api/profiles", profiles.route(profiles::handleGetProfiles));
+		router.post("/api/profiles", profiles.route(profiles::handleCreateProfile));
+		router.put("/api/profiles/{id:long}", profiles.route(profiles::handleUpdateProfile));
+		router.delete("/api/profiles/{id:long}", profiles.route(profiles::handleDeleteProfile));
 
-		server.createContext("/api/auth/login", handlers.getAuthHandler()::handleLogin);
-		server.createContext("/api/auth/logout", handlers.getAuthHandler()::handleLogout);
-		server.createContext("/api/auth/validate", handlers.getAuthHandler()::handleValidateToken);
+		// Rotas de produtos
+		ProductHandler products = handlers.getProductHandler();
+		router.get("/api/products", products.route(products::handleGetProducts));
+		router.post("/api/products", products.route(products::handleCreateProduct));
+		router.put("/api/products/{id:long}", products.route(products::handleUpdateProduct));
+		router.delete("/api/products/{id:long}", products.route(products::handleDeleteProduct));
 
-		// Rotas de recursos
-		server.createContext("/api/users", handlers.getUserHandler());
-		server.createContext("/api/profiles", handlers.getProfileHandler());
-		server.createContext("/api/products", handlers.getProductHandler());
-		server.createContext("/api/orders", handlers.getOrderHandler());
-		server.createContext("/api/clientes", handlers.getCustomerHandler());
+		// Rotas de pedidos
+		OrderHandler orders = handlers.getOrderHandler();
+		router.get("/api/orders", orders.authenticatedRoute(orders::handleGetOrders));
+		router.post("/api/orders", orders.authenticatedRoute(orders::handleCreateOrder));
+		router.patch("/api/orders/{id}/status", orders.authenticatedRoute(orders::handleUpdateOrderStatus));
+
+		// Rotas de clientes
+		CustomerHandler customers = handlers.getCustomerHandler();
+		router.get("/api/clientes", customers.authenticatedRoute(customers::handleGetAllCustomers));
+		router.get("/api/clientes/{id:long}", customers.authenticatedRoute(customers::handleGetCustomerById));
+		router.post("/api/clientes", customers.authenticatedRoute(customers::handleCreateOrUpdateCustomer));
 
 		// Rotas de métricas
-		server.createContext("/api/metrics/dashboard", handlers.getMetricsHandler()::handleDashboard);
-		server.createContext("/api/metrics/reports", handlers.getMetricsHandler()::handleReports);
+		MetricsHandler metrics = handlers.getMetricsHandler();
+		router.get("/api/metrics/dashboard", metrics.route(metrics::handleDashboard));
+		router.get("/api/metrics/reports", metrics.route(metrics::handleReports));
+
+		// Rotas de chat (o front-end também envia paginação após o ID do pedido)
+		ChatHandler chat = handlers.getChatHandler();
+		router.post("/api/chat/send", chat.route(chat::handleSendMessage));
+		router.get("/api/chat/messages/{orderId}", chat.route(chat::handleGetMessages));
+		router.get("/api/chat/messages/{orderId}/{page}/{limit}", chat.route(chat::handleGetMessages));
 
-		// Rotas de chat
-		server.createContext("/api/chat/send", handlers.getChatHandler()::handleSendMessage);
-		server.createContext("/api/chat/messages", handlers.getChatHandler()::handleGetMessages);
+		// Stream SSE das notificações, alternativa somente leitura ao WebSocket
+		EventsHandler events = handlers.getEventsHandler();
+		router.get("/api/events", events.route(events::handleEvents));
 
-		// Handler padrão para CORS
-		server.createContext("/", handlers.getCorsHandler());
+		// Endpoints internos de operação
+		InternalHandler internal = handlers.getInternalHandler();
+		router.get("/internal/health", internal.route(internal::handleHealth));
+		router.get("/internal/metrics", internal.route(internal::handleMetrics));
+		router.get("/internal/queries", internal.route(internal::handleQueries));
+		router.get("/internal/traces", internal.route(internal::handleTraces));
+		router.get("/internal/traces/{traceId}", internal.route(internal::handleTrace));
+
+		return router;
 	}
 
 	private void configureServerSettings(HttpServer server) {
-		server.setExecutor(Executors.newFixedThreadPool(config.getThreadPoolSize()));
+		server.setExecutor(createWorkerPool());
+	}
+
+	/**
+	 * Pool fixo das requisições, registrado para aparecer em /internal/health
+	 */
+	private ThreadPoolExecutor createWorkerPool() {
+		ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(config.getThreadPoolSize());
+		RuntimeStats.getInstance().registerExecutor("http", executor);
+		return executor;
 	}
 
 	private void startWebSocketServer() {
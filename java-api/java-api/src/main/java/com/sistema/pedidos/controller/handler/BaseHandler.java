@@ -2,21 +2,33 @@ package com.sistema.pedidos.controller.handler;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sistema.pedidos.config.ServerConfig;
 import com.sistema.pedidos.context.RequestContext;
+import com.sistema.pedidos.controller.router.Route;
 import com.sistema.pedidos.dto.ApiResponse;
 import com.sistema.pedidos.enums.Permissions;
+import com.sistema.pedidos.event.EventBus;
 import com.sistema.pedidos.exception.ApiException;
+import com.sistema.pedidos.jfr.RequestEvent;
+import com.sistema.pedidos.metrics.HttpMetrics;
+import com.sistema.pedidos.metrics.QueryMetrics;
 import com.sistema.pedidos.model.User;
 import com.sistema.pedidos.service.ServiceContainer;
+import com.sistema.pedidos.tracing.Span;
+import com.sistema.pedidos.tracing.Tracer;
+import com.sistema.pedidos.util.AccessLog;
 import com.sistema.pedidos.util.ActionLogger;
 import com.sistema.pedidos.util.HttpUtils;
+import com.sistema.pedidos.util.JsonCodec;
+import com.sistema.pedidos.util.ResponseCompressor;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
@@ -29,33 +41,76 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @RequiredArgsConstructor
-public abstract class BaseHandler implements HttpHandler {
+public abstract class BaseHandler {
 
 	protected final ServiceContainer services;
 	protected final ObjectMapper objectMapper;
 	protected final ServerConfig config = ServerConfig.getInstance();
+	protected final ResponseCompressor compressor = ResponseCompressor.getInstance();
+	protected final PrecomputedResponses precomputed = PrecomputedResponses.getInstance();
+	protected final JsonCodec json = JsonCodec.getInstance();
+	protected final EventBus events = EventBus.getInstance();
+	private final HttpMetrics httpMetrics = HttpMetrics.getInstance();
+	private final QueryMetrics queryMetrics = QueryMetrics.getInstance();
+	private final Tracer tracer = Tracer.getInstance();
 
-	@Override
-	public final void handle(HttpExchange exchange) throws IOException {
+	/**
+	 * Ação executada para uma rota registrada no router
+	 */
+	@FunctionalInterface
+	public interface Action {
+		void handle(HttpExchange exchange) throws Exception;
+	}
+
+	/**
+	 * Envolve a ação de uma rota no fluxo comum a todos os handlers: contexto da
+	 * requisição, CORS, logging e tratamento de erros
+	 */
+	public final HttpHandler route(Action action) {
+		return exchange -> handle(exchange, action);
+	}
+
+	/**
+	 * Como {@link #route(Action)}, exigindo token válido antes da ação
+	 */
+	public final HttpHandler authenticatedRoute(Action action) {
+		return route(exchange -> {
+			if (!isAuthenticated(exchange)) {
+				sendUnauthorizedResponse(exchange);
+				return;
+			}
+			action.handle(exchange);
+		});
+	}
+
+	private void handle(HttpExchange exchange, Action action) throws IOException {
 		String requestId = HttpUtils.generateRequestId();
 		String clientIp = HttpUtils.getClientIp(exchange);
+		String method = exchange.getRequestMethod();
+		Route route = Route.of(exchange);
+		AccessLog.CountingOutputStream responseBody = new AccessLog.CountingOutputStream(exchange.getResponseBody());
+		exchange.setStreams(null, responseBody);
+		HttpMetrics.RouteMetrics routeMetrics = httpMetrics.begin(method,
+				route != null ? route.getTemplate() : "unmatched");
+		RequestEvent event = new RequestEvent();
+		event.begin();
+		Span requestSpan = null;
 
 		try {
 			// Inicializar context da requisição
-			User authenticatedUser = getAuthenticatedUserSafely(exchange);
-			RequestContext.initialize(requestId, clientIp, authenticatedUser);
+			String template = route != null ? route.getTemplate() : exchange.getRequestURI().getPath();
+			RequestContext.initialize(requestId, clientIp, null, method, template);
+			requestSpan = startRequestSpan(exchange, method + " " + template);
+			// Autenticação já dentro do contexto: suas consultas entram no trace,
+			// nos contadores e nos eventos JFR da requisição
+			RequestContext.setAuthenticatedUser(getAuthenticatedUserSafely(exchange));
 
 			// Log início da requisição
 			logRequestStart(exchange, requestId);
 
 			addCorsHeaders(exchange);
 
-			if (isOptionsRequest(exchange)) {
-				handleOptionsRequest(exchange);
-				return;
-			}
-
-			handleRequest(exchange);
+			action.handle(exchange);
 
 			// Log sucesso da requisição
 			logRequestSuccess(exchange, requestId);
@@ -70,38 +125,30 @@ public abstract class BaseHandler implements HttpHandler {
 
 		} catch (Exception e) {
 			log.error("Unexpected error in request {}: {}", requestId, e.getMessage(), e);
-			sendErrorResponse(exchange, 500, "Erro interno do servidor");
+			sendErrorResponse(exchange, 500, PrecomputedResponses.INTERNAL_ERROR);
 
 			// Log do erro no ActionLogger
 			logError(exchange, e);
 
 		} finally {
-			// Log final da requisição com tempo de processamento
-			logRequestEnd(exchange, requestId);
+			// Métricas e log final da requisição com tempo de processamento
+			long elapsedMicros = RequestContext.getElapsedMicros();
+			routeMetrics.end(exchange.getResponseCode(), elapsedMicros, responseBody.getCount());
+			logRequestEnd(exchange, requestId, responseBody.getCount(), elapsedMicros);
+			queryMetrics.checkRequestBudget();
+			commitRequestEvent(event, exchange, requestId, responseBody.getCount());
+			if (requestSpan != null) {
+				requestSpan.setAttribute("requestId", requestId).setAttribute("http.status", exchange.getResponseCode())
+						.close();
+			}
 
 			// Limpar context
 			RequestContext.clear();
 		}
 	}
 
-	/**
-	 * Método abstrato que deve ser implementado pelos handlers específicos
-	 */
-	protected abstract void handleRequest(HttpExchange exchange) throws IOException;
-
 	protected void addCorsHeaders(HttpExchange exchange) {
-		exchange.getResponseHeaders().add("Access-Control-Allow-Origin", config.getCorsAllowOrigin());
-		exchange.getResponseHeaders().add("Access-Control-Allow-Methods", config.getCorsAllowMethods());
-		exchange.getResponseHeaders().add("Access-Control-Allow-Headers", config.getCorsAllowHeaders());
-	}
-
-	protected boolean isOptionsRequest(HttpExchange exchange) {
-		return "OPTIONS".equals(exchange.getRequestMethod());
-	}
-
-	protected void handleOptionsRequest(HttpExchange exchange) throws IOException {
-		exchange.sendResponseHeaders(200, 0);
-		exchange.close();
+		precomputed.addCorsHeaders(exchange);
 	}
 
 	protected boolean isAuthenticated(HttpExchange exchange) {
@@ -147,33 +194,121 @@ public abstract class BaseHandler implements HttpHandler {
 	}
 
 	protected <T> T parseRequestBody(HttpExchange exchange, Class<T> valueType) throws IOException {
-		String body = readRequestBody(exchange);
-		if (body.trim().isEmpty()) {
-			throw new IllegalArgumentException("Corpo da requisição não pode estar vazio");
-		}
-		return objectMapper.readValue(body, valueType);
+		return json.read(readRequestBytes(exchange), valueType);
 	}
 
 	protected Map<String, Object> parseRequestBodyAsMap(HttpExchange exchange) throws IOException {
-		String body = readRequestBody(exchange);
-		if (body.trim().isEmpty()) {
-			throw new IllegalArgumentException("Corpo da requisição não pode estar vazio");
+		return json.readMap(readRequestBytes(exchange));
+	}
+
+	/**
+	 * Lê o corpo bruto para o Jackson, sem decodificar para String antes
+	 */
+	private byte[] readRequestBytes(HttpExchange exchange) throws IOException {
+		byte[] body;
+		try (InputStream is = exchange.getRequestBody()) {
+			body = is.readAllBytes();
+		}
+		for (byte b : body) {
+			if (!Character.isWhitespace(b)) {
+				return body;
+			}
 		}
-		return objectMapper.readValue(body, Map.class);
+		throw new IllegalArgumentException("Corpo da requisição não pode estar vazio");
 	}
 
 	protected void sendJsonResponse(HttpExchange exchange, int statusCode, Object response) throws IOException {
-		String jsonResponse = objectMapper.writeValueAsString(response);
-		byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
+		sendJsonBytes(exchange, statusCode, json.write(response));
+	}
+
+	/**
+	 * Envia um corpo JSON já serializado, comprimindo quando negociado
+	 */
+	protected void sendJsonBytes(HttpExchange exchange, int statusCode, byte[] responseBytes) throws IOException {
+		precomputed.addJsonContentType(exchange);
+		sendBytes(exchange, statusCode, responseBytes);
+	}
 
-		exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
-		exchange.sendResponseHeaders(statusCode, responseBytes.length);
+	/**
+	 * Envia o corpo com o Content-Type já definido, comprimindo quando
+	 * negociado
+	 */
+	protected void sendBytes(HttpExchange exchange, int statusCode, byte[] responseBytes) throws IOException {
+		ResponseCompressor.Encoding encoding = compressor
+				.negotiate(exchange.getRequestHeaders().getFirst("Accept-Encoding"), responseBytes.length);
+		precomputed.addDebugHeaders(exchange);
+		// Caches intermediários precisam separar a versão comprimida da original,
+		// inclusive quando esta requisição recebe a original
+		if (compressor.isCompressible(responseBytes.length)) {
+			addVaryAcceptEncoding(exchange);
+		}
+		if (encoding == null) {
+			exchange.sendResponseHeaders(statusCode, responseBytes.length);
+			try (OutputStream os = exchange.getResponseBody()) {
+				os.write(responseBytes);
+			}
+			return;
+		}
 
+		// Tamanho final desconhecido: resposta segue em chunked encoding
+		exchange.getResponseHeaders().set("Content-Encoding", encoding.getToken());
+		exchange.sendResponseHeaders(statusCode, 0);
 		try (OutputStream os = exchange.getResponseBody()) {
-			os.write(responseBytes);
+			compressor.compress(responseBytes, encoding, os);
 		}
 	}
 
+	/**
+	 * GET condicional: define o ETag da versão atual do recurso e responde 304
+	 * quando o cliente já possui essa versão. Retorna true se a resposta já foi
+	 * enviada.
+	 * <p>
+	 * O ETag é fraco: a mesma versão sai em gzip, deflate ou sem compressão, e
+	 * um ETag forte exigiria um valor por codificação. Pelo mesmo motivo o Vary
+	 * vai tanto no 200 quanto no 304; o tamanho do corpo não é conhecido aqui,
+	 * então basta a compressão estar habilitada.
+	 */
+	protected boolean handleConditionalGet(HttpExchange exchange, String resource, String version)
+			throws IOException {
+		String etag = "\"" + resource + "-" + version + "\"";
+		exchange.getResponseHeaders().set("ETag", "W/" + etag);
+		exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+		if (compressor.isEnabled()) {
+			addVaryAcceptEncoding(exchange);
+		}
+
+		if (!etagMatches(exchange.getRequestHeaders().getFirst("If-None-Match"), etag)) {
+			return false;
+		}
+		precomputed.addDebugHeaders(exchange);
+		exchange.sendResponseHeaders(304, -1);
+		exchange.close();
+		return true;
+	}
+
+	private void addVaryAcceptEncoding(HttpExchange exchange) {
+		List<String> vary = exchange.getResponseHeaders().get("Vary");
+		if (vary == null || !vary.contains("Accept-Encoding")) {
+			exchange.getResponseHeaders().add("Vary", "Accept-Encoding");
+		}
+	}
+
+	private boolean etagMatches(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		for (String candidate : ifNoneMatch.split(",")) {
+			String value = candidate.trim();
+			if (value.startsWith("W/")) {
+				value = value.substring(2);
+			}
+			if ("*".equals(value) || etag.equals(value)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	protected void sendSuccessResponse(HttpExchange exchange, Object data) throws IOException {
 		sendJsonResponse(exchange, 200, data);
 	}
@@ -183,15 +318,23 @@ public abstract class BaseHandler implements HttpHandler {
 	}
 
 	protected void sendErrorResponse(HttpExchange exchange, int statusCode, String message) throws IOException {
+		// Falha depois do GET condicional: o cliente não deve guardar o erro como
+		// a versão atual do recurso
+		exchange.getResponseHeaders().remove("ETag");
+		byte[] body = precomputed.getErrorBody(message);
+		if (body != null) {
+			sendJsonBytes(exchange, statusCode, body);
+			return;
+		}
 		sendJsonResponse(exchange, statusCode, ApiResponse.error(message));
 	}
 
 	protected void sendUnauthorizedResponse(HttpExchange exchange) throws IOException {
-		sendErrorResponse(exchange, 401, "Token inválido ou ausente");
+		sendErrorResponse(exchange, 401, PrecomputedResponses.UNAUTHORIZED);
 	}
 
 	protected void sendForbiddenResponse(HttpExchange exchange) throws IOException {
-		sendErrorResponse(exchange, 403, "Acesso negado");
+		sendErrorResponse(exchange, 403, PrecomputedResponses.FORBIDDEN);
 	}
 
 	protected void sendNotFoundResponse(HttpExchange exchange, String resource) throws IOException {
@@ -199,38 +342,32 @@ public abstract class BaseHandler implements HttpHandler {
 	}
 
 	protected void sendMethodNotAllowedResponse(HttpExchange exchange) throws IOException {
-		sendErrorResponse(exchange, 405, "Método não permitido");
+		sendErrorResponse(exchange, 405, PrecomputedResponses.METHOD_NOT_ALLOWED);
 	}
 
 	protected void sendBadRequestResponse(HttpExchange exchange, String message) throws IOException {
 		sendErrorResponse(exchange, 400, message);
 	}
 
-	protected Long extractIdFromPath(String path, int position) {
-		String[] parts = path.split("/");
-		if (parts.length > position) {
-			try {
-				return Long.parseLong(parts[position]);
-			} catch (NumberFormatException e) {
-				throw new IllegalArgumentException("ID inválido: " + parts[position]);
-			}
-		}
-		throw new IllegalArgumentException("ID é obrigatório na posição " + position + " do caminho");
+	/**
+	 * Parâmetro de caminho da rota atual (ex.: {id} em /api/orders/{id}/status)
+	 */
+	protected String getPathParam(HttpExchange exchange, String name) {
+		return Route.of(exchange).getParam(exchange.getRequestURI().getPath(), name);
 	}
 
-	protected String extractPathParameter(String path, int position) {
-		String[] parts = path.split("/");
-		if (parts.length > position) {
-			return parts[position];
-		}
-		return null;
+	/**
+	 * Parâmetro de caminho numérico, declarado na rota como {nome:long}
+	 */
+	protected Long getLongPathParam(HttpExchange exchange, String name) {
+		return Route.of(exchange).getLongParam(exchange.getRequestURI().getPath(), name);
 	}
 
 	// Métodos de logging
 	private void logRequestStart(HttpExchange exchange, String requestId) {
 		if (log.isDebugEnabled()) {
-			log.debug("Request {} started: {} {} from {}", requestId, exchange.getRequestMethod(),
-					exchange.getRequestURI(), HttpUtils.getClientIp(exchange));
+			log.debug("Request {} started: {} {} from {}", requestId, RequestContext.getMethod(),
+					exchange.getRequestURI(), RequestContext.getClientIp());
 		}
 	}
 
@@ -240,11 +377,52 @@ public abstract class BaseHandler implements HttpHandler {
 		}
 	}
 
-	private void logRequestEnd(HttpExchange exchange, String requestId) {
-		if (log.isInfoEnabled()) {
-			log.info("Request {} - {} {} - {}ms - {}", requestId, exchange.getRequestMethod(),
-					HttpUtils.getEndpointName(exchange), RequestContext.getProcessingTime(),
-					HttpUtils.getClientIp(exchange));
+	/**
+	 * Span raiz da requisição, continuando o trace do cabeçalho traceparent; o
+	 * id do trace volta no X-Trace-Id para localizar a requisição em
+	 * /internal/traces
+	 */
+	private Span startRequestSpan(HttpExchange exchange, String name) {
+		Span span = tracer.startRequest(name, exchange.getRequestHeaders().getFirst("traceparent"));
+		if (span.getTraceId() != null) {
+			exchange.getResponseHeaders().set("X-Trace-Id", span.getTraceId());
+		}
+		return span;
+	}
+
+	/**
+	 * Evento JFR da requisição; os campos só são preenchidos quando há uma
+	 * gravação ativa que o aceite
+	 */
+	private void commitRequestEvent(RequestEvent event, HttpExchange exchange, String requestId, long bytes) {
+		event.end();
+		if (!event.shouldCommit()) {
+			return;
+		}
+		event.requestId = requestId;
+		event.method = RequestContext.getMethod();
+		event.route = RequestContext.getRoute();
+		event.status = exchange.getResponseCode();
+		event.responseBytes = bytes;
+		event.queries = RequestContext.getQueryCount();
+		event.connections = RequestContext.getConnectionCount();
+		event.commit();
+	}
+
+	/**
+	 * Linha JSON no log de acesso; o resumo em texto fica no nível DEBUG. Os
+	 * campos da linha da requisição vêm do contexto, lidos uma única vez
+	 */
+	private void logRequestEnd(HttpExchange exchange, String requestId, long responseBytes, long elapsedMicros) {
+		if (AccessLog.isEnabled()) {
+			User user = RequestContext.getAuthenticatedUser();
+			AccessLog.log(requestId, RequestContext.getMethod(), RequestContext.getRoute(), exchange.getResponseCode(),
+					responseBytes, elapsedMicros, user != null ? user.getId() : null,
+					RequestContext.getClientIp());
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("Request {} - {} {} - {}ms - {}", requestId, RequestContext.getMethod(),
+					RequestContext.getRoute(), RequestContext.getProcessingTime(), RequestContext.getClientIp());
 		}
 	}
 
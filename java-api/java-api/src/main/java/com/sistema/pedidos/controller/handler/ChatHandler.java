@@ -4,10 +4,10 @@ import java.io.IOException;
 import java.util.List;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.pedidos.event.ChatMessageAdded;
 import com.sistema.pedidos.model.Order;
 import com.sistema.pedidos.model.User;
 import com.sistema.pedidos.service.ServiceContainer;
-import com.sistema.websocket.NotificacaoWebSocketServer;
 import com.sun.net.httpserver.HttpExchange;
 
 import lombok.Data;
@@ -23,32 +23,14 @@ public class ChatHandler extends BaseHandler {
 		super(services, objectMapper);
 	}
 
-	@Override
-	protected void handleRequest(HttpExchange exchange) throws IOException {
-		// Este método não é usado diretamente, pois usamos métodos específicos
-		sendMethodNotAllowedResponse(exchange);
-	}
-
 	public void handleGetMessages(HttpExchange exchange) throws IOException {
-		addCorsHeaders(exchange);
-
-		if (isOptionsRequest(exchange)) {
-			handleOptionsRequest(exchange);
-			return;
-		}
-
 		if (!isAuthenticated(exchange)) {
 			sendUnauthorizedResponse(exchange);
 			return;
 		}
 
-		if (!"GET".equals(exchange.getRequestMethod())) {
-			sendMethodNotAllowedResponse(exchange);
-			return;
-		}
-
 		try {
-			String orderId = extractOrderIdFromPath(exchange);
+			String orderId = getPathParam(exchange, "orderId");
 			Order order = services.getOrderService().findById(orderId);
 
 			if (order == null) {
@@ -68,23 +50,11 @@ public class ChatHandler extends BaseHandler {
 	}
 
 	public void handleSendMessage(HttpExchange exchange) throws IOException {
-		addCorsHeaders(exchange);
-
-		if (isOptionsRequest(exchange)) {
-			handleOptionsRequest(exchange);
-			return;
-		}
-
 		if (!isAuthenticated(exchange)) {
 			sendUnauthorizedResponse(exchange);
 			return;
 		}
 
-		if (!"POST".equals(exchange.getRequestMethod())) {
-			sendMethodNotAllowedResponse(exchange);
-			return;
-		}
-
 		try {
 			ChatMessageRequest request = parseRequestBody(exchange, ChatMessageRequest.class);
 
@@ -96,10 +66,16 @@ public class ChatHandler extends BaseHandler {
 			User currentUser = getAuthenticatedUser(exchange);
 			String formattedMessage = formatMessage(currentUser, request.getMessage());
 
-			services.getOrderService().addChatMessage(request.getOrderId(), formattedMessage, "user");
+			Order.ChatMessage saved = services.getOrderService().addChatMessage(request.getOrderId(),
+					formattedMessage, "user");
+			if (saved == null) {
+				sendErrorResponse(exchange, 500, "Erro ao salvar a mensagem");
+				return;
+			}
 
-			// Notificar via WebSocket
-			notifyChatUpdate(request.getOrderId());
+			// Notificação e auditoria seguem pelo barramento de eventos, com a
+			// mensagem gravada por esta requisição
+			events.publish(new ChatMessageAdded(request.getOrderId(), saved));
 
 			sendJsonResponse(exchange, 200,
 					com.sistema.pedidos.dto.ApiResponse.success("Mensagem enviada com sucesso"));
@@ -112,17 +88,6 @@ public class ChatHandler extends BaseHandler {
 		}
 	}
 
-	private String extractOrderIdFromPath(HttpExchange exchange) {
-		String path = exchange.getRequestURI().getPath();
-		String[] pathParts = path.split("/");
-
-		if (pathParts.length >= 5) {
-			return pathParts[4];
-		}
-
-		throw new IllegalArgumentException("ID do pedido é obrigatório");
-	}
-
 	private boolean isValidChatRequest(ChatMessageRequest request) {
 		return request != null && request.getOrderId() != null && !request.getOrderId().trim().isEmpty()
 				&& request.getMessage() != null && !request.getMessage().trim().isEmpty();
@@ -132,14 +97,6 @@ public class ChatHandler extends BaseHandler {
 		return user.getName() + ": " + message;
 	}
 
-	private void notifyChatUpdate(String orderId) {
-		try {
-			NotificacaoWebSocketServer.enviarNotificacao("/chat/" + orderId);
-		} catch (Exception e) {
-			log.warn("Failed to send WebSocket notification for chat update: {}", orderId, e);
-		}
-	}
-
 	/**
 	 * Classe interna para representar uma requisição de mensagem de chat
 	 */
@@ -1,12 +1,7 @@
 package com.sistema.pedidos.controller.handler;
 
 import java.io.IOException;
-import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.sistema.pedidos.config.ServerConfig;
-import com.sistema.pedidos.dto.ApiResponse;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
@@ -15,38 +10,28 @@ import com.sun.net.httpserver.HttpHandler;
  */
 public class CorsHandler implements HttpHandler {
 
-	private final ServerConfig config = ServerConfig.getInstance();
+	private final PrecomputedResponses precomputed = PrecomputedResponses.getInstance();
 
 	@Override
 	public void handle(HttpExchange exchange) throws IOException {
-		addCorsHeaders(exchange);
-
 		if ("OPTIONS".equals(exchange.getRequestMethod())) {
-			exchange.sendResponseHeaders(200, 0);
-			exchange.close();
+			precomputed.sendPreflight(exchange);
 			return;
 		}
 
 		// Se não é uma rota da API conhecida, retornar 404
-		sendNotFoundResponse(exchange);
+		sendErrorResponse(exchange, 404, PrecomputedResponses.NOT_FOUND);
 	}
 
-	private void addCorsHeaders(HttpExchange exchange) {
-		exchange.getResponseHeaders().add("Access-Control-Allow-Origin", config.getCorsAllowOrigin());
-		exchange.getResponseHeaders().add("Access-Control-Allow-Methods", config.getCorsAllowMethods());
-		exchange.getResponseHeaders().add("Access-Control-Allow-Headers", config.getCorsAllowHeaders());
+	/**
+	 * Resposta para caminhos conhecidos acessados com método não registrado
+	 */
+	public void handleMethodNotAllowed(HttpExchange exchange) throws IOException {
+		sendErrorResponse(exchange, 405, PrecomputedResponses.METHOD_NOT_ALLOWED);
 	}
 
-	private void sendNotFoundResponse(HttpExchange exchange) throws IOException {
-		ApiResponse response = ApiResponse.error("Endpoint não encontrado");
-		String jsonResponse = new ObjectMapper().writeValueAsString(response);
-		byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
-
-		exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
-		exchange.sendResponseHeaders(404, responseBytes.length);
-
-		try (OutputStream os = exchange.getResponseBody()) {
-			os.write(responseBytes);
-		}
+	private void sendErrorResponse(HttpExchange exchange, int statusCode, String message) throws IOException {
+		precomputed.addCorsHeaders(exchange);
+		precomputed.sendJson(exchange, statusCode, precomputed.getErrorBody(message));
 	}
 }
\ No newline at end of file
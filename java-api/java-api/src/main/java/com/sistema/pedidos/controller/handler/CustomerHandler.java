@@ -22,49 +22,8 @@ public class CustomerHandler extends BaseHandler {
         super(services, objectMapper);
     }
     
-    @Override
-    protected void handleRequest(HttpExchange exchange) throws IOException {
-        if (!isAuthenticated(exchange)) {
-            sendUnauthorizedResponse(exchange);
-            return;
-        }
-        
-        String method = exchange.getRequestMethod();
-        String path = exchange.getRequestURI().getPath();
-        
-        try {
-            switch (method) {
-                case "GET":
-                    handleGetCustomers(exchange, path);
-                    break;
-                case "POST":
-                    handleCreateOrUpdateCustomer(exchange);
-                    break;
-                default:
-                    sendMethodNotAllowedResponse(exchange);
-            }
-        } catch (NumberFormatException e) {
-            sendBadRequestResponse(exchange, "ID inválido");
-        } catch (Exception e) {
-            log.error("Error handling customer request", e);
-            sendErrorResponse(exchange, 500, "Erro interno do servidor: " + e.getMessage());
-        }
-    }
-    
-    private void handleGetCustomers(HttpExchange exchange, String path) throws IOException {
-        String[] pathParts = path.split("/");
-        
-        if (pathParts.length >= 4) {
-            // GET /api/clientes/{id}
-            handleGetCustomerById(exchange, pathParts[3]);
-        } else {
-            // GET /api/clientes
-            handleGetAllCustomers(exchange);
-        }
-    }
-    
-    private void handleGetCustomerById(HttpExchange exchange, String customerIdStr) throws IOException {
-        Long customerId = Long.parseLong(customerIdStr);
+    public void handleGetCustomerById(HttpExchange exchange) throws IOException {
+        Long customerId = getLongPathParam(exchange, "id");
         Customer customer = services.getCustomerService().findById(customerId);
         
         if (customer == null) {
@@ -74,12 +33,12 @@ public class CustomerHandler extends BaseHandler {
         }
     }
     
-    private void handleGetAllCustomers(HttpExchange exchange) throws IOException {
+    public void handleGetAllCustomers(HttpExchange exchange) throws IOException {
         List<Customer> customers = services.getCustomerService().findAll();
         sendSuccessResponse(exchange, customers);
     }
     
-    private void handleCreateOrUpdateCustomer(HttpExchange exchange) throws IOException {
+    public void handleCreateOrUpdateCustomer(HttpExchange exchange) throws IOException {
         Map<String, Object> data = parseRequestBodyAsMap(exchange);
         
         String name = (String) data.get("name");
@@ -0,0 +1,106 @@
+package com.sistema.pedidos.controller.handler;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.pedidos.model.User;
+import com.sistema.pedidos.service.ServiceContainer;
+import com.sistema.pedidos.util.HttpUtils;
+import com.sistema.websocket.ClientSession;
+import com.sistema.websocket.NotificacaoWebSocketServer;
+import com.sistema.websocket.SseTransport;
+import com.sun.net.httpserver.HttpExchange;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Server-Sent Events (/api/events): as mesmas notificações do WebSocket em um
+ * stream somente de leitura, para telas que só acompanham (cozinha, balcão de
+ * retirada). O EventSource do navegador não envia cabeçalhos próprios, então o
+ * token também é aceito na URL:
+ *
+ * <pre>
+ * GET /api/events?token=...&amp;topics=status:preparo,status:pronto
+ * </pre>
+ */
+@Slf4j
+public class EventsHandler extends BaseHandler {
+
+	public EventsHandler(ServiceContainer services, ObjectMapper objectMapper) {
+		super(services, objectMapper);
+	}
+
+	public void handleEvents(HttpExchange exchange) throws IOException {
+		String token = extractStreamToken(exchange);
+		if (token == null || !services.getAuthService().validateToken(token)) {
+			sendUnauthorizedResponse(exchange);
+			return;
+		}
+		User user = services.getAuthService().getUserFromToken(token);
+
+		String topicsParam = HttpUtils.getQueryParameter(exchange, "topics");
+		List<String> topics = topicsParam == null ? null
+				: Arrays.stream(topicsParam.split(",")).map(String::trim).filter(topic -> !topic.isEmpty())
+						.collect(Collectors.toList());
+
+		String lastEventId = lastEventId(exchange);
+		ClientSession session = NotificacaoWebSocketServer.abrirStream(new SseTransport(exchange), user, topics,
+				parseSeq(lastEventId), parseEpoch(lastEventId));
+		if (session == null) {
+			sendErrorResponse(exchange, 429, "Limite de conexões por usuário atingido");
+			return;
+		}
+		log.info("Stream SSE aberto para {} ({})", user.getName(), HttpUtils.getClientIp(exchange));
+	}
+
+	private String extractStreamToken(HttpExchange exchange) {
+		String token = HttpUtils.getQueryParameter(exchange, "token");
+		if (token != null) {
+			return token;
+		}
+		String authHeader = exchange.getRequestHeaders().getFirst("Authorization");
+		return authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+	}
+
+	/**
+	 * Id do último evento recebido, no formato "época:seq": o EventSource o
+	 * reenvia no cabeçalho Last-Event-ID ao reconectar; os parâmetros since e
+	 * epoch servem à primeira conexão de uma página recarregada
+	 */
+	private String lastEventId(HttpExchange exchange) {
+		String lastEventId = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+		if (lastEventId != null) {
+			return lastEventId.trim();
+		}
+		String since = HttpUtils.getQueryParameter(exchange, "since");
+		if (since == null) {
+			return null;
+		}
+		String epoch = HttpUtils.getQueryParameter(exchange, "epoch");
+		return (epoch != null ? epoch : "") + ":" + since;
+	}
+
+	private static Long parseSeq(String lastEventId) {
+		if (lastEventId == null) {
+			return null;
+		}
+		try {
+			long seq = Long.parseLong(lastEventId.substring(lastEventId.lastIndexOf(':') + 1).trim());
+			return seq >= 0 ? seq : null;
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Época do id; um id sem época (de antes dela existir) nunca coincide com a
+	 * atual e leva a um resync
+	 */
+	private static String parseEpoch(String lastEventId) {
+		int separator = lastEventId != null ? lastEventId.lastIndexOf(':') : -1;
+		return separator >= 0 ? lastEventId.substring(0, separator) : null;
+	}
+}
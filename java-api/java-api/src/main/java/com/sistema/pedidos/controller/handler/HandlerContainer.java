@@ -20,5 +20,7 @@ public class HandlerContainer {
     private final MetricsHandler metricsHandler;
     private final CustomerHandler customerHandler;
     private final ChatHandler chatHandler;
+    private final EventsHandler eventsHandler;
+    private final InternalHandler internalHandler;
     
 }
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.sistema.pedidos.controller.handler;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.pedidos.metrics.PrometheusExporter;
+import com.sistema.pedidos.metrics.QueryMetrics;
+import com.sistema.pedidos.metrics.RuntimeStats;
+import com.sistema.pedidos.service.ServiceContainer;
+import com.sistema.pedidos.tracing.Tracer;
+import com.sistema.pedidos.util.HttpUtils;
+import com.sun.net.httpserver.HttpExchange;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Endpoints internos de operação (/internal/...). Não usam token: o acesso é
+ * liberado pelo endereço da conexão (não pelo X-Forwarded-For), conforme
+ * INTERNAL_ALLOWED_IPS; "*" libera qualquer origem.
+ */
+@Slf4j
+public class InternalHandler extends BaseHandler {
+
+	private static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	private final PrometheusExporter exporter = PrometheusExporter.getInstance();
+	private final QueryMetrics queryMetrics = QueryMetrics.getInstance();
+	private final Tracer tracer = Tracer.getInstance();
+	private final RuntimeStats runtimeStats = RuntimeStats.getInstance();
+	private final Set<String> allowedIps;
+
+	public InternalHandler(ServiceContainer services, ObjectMapper objectMapper) {
+		super(services, objectMapper);
+		this.allowedIps = Arrays.stream(config.getInternalAllowedIps().split(",")).map(String::trim)
+				.filter(ip -> !ip.isEmpty()).collect(Collectors.toSet());
+	}
+
+	/**
+	 * Métricas no formato texto do Prometheus
+	 */
+	public void handleMetrics(HttpExchange exchange) throws IOException {
+		if (!isAllowed(exchange)) {
+			sendForbiddenResponse(exchange);
+			return;
+		}
+		exchange.getResponseHeaders().set("Content-Type", PROMETHEUS_CONTENT_TYPE);
+		sendBytes(exchange, 200, exporter.scrape().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Estado do processo: executor HTTP, GC, heap, conexões com o banco e
+	 * clientes de notificação
+	 */
+	public void handleHealth(HttpExchange exchange) throws IOException {
+		if (!isAllowed(exchange)) {
+			sendForbiddenResponse(exchange);
+			return;
+		}
+		Map<String, Object> data = new LinkedHashMap<>();
+		data.put("status", "UP");
+		data.putAll(runtimeStats.getStats());
+		sendSuccessResponse(exchange, data);
+	}
+
+	/**
+	 * Consultas SQL mais custosas: ?top=N (padrão 10) e ?sort=total|p99|max|count
+	 */
+	public void handleQueries(HttpExchange exchange) throws IOException {
+		if (!isAllowed(exchange)) {
+			sendForbiddenResponse(exchange);
+			return;
+		}
+		int top;
+		try {
+			top = Integer.parseInt(HttpUtils.getQueryParameter(exchange, "top", "10"));
+		} catch (NumberFormatException e) {
+			sendBadRequestResponse(exchange, "Parâmetro top inválido");
+			return;
+		}
+		Map<String, Object> data = new LinkedHashMap<>(queryMetrics.getStats());
+		data.put("top", queryMetrics.getTop(top, HttpUtils.getQueryParameter(exchange, "sort", "total")));
+		sendSuccessResponse(exchange, data);
+	}
+
+	/**
+	 * Requisições mais recentes ainda no buffer de spans: ?limit=N (padrão 20)
+	 * e ?minMs=M para só as que levaram pelo menos M ms
+	 */
+	public void handleTraces(HttpExchange exchange) throws IOException {
+		if (!isAllowed(exchange)) {
+			sendForbiddenResponse(exchange);
+			return;
+		}
+		int limit;
+		long minMicros;
+		try {
+			limit = Integer.parseInt(HttpUtils.getQueryParameter(exchange, "limit", "20"));
+			minMicros = (long) (Double.parseDouble(HttpUtils.getQueryParameter(exchange, "minMs", "0")) * 1000);
+		} catch (NumberFormatException e) {
+			sendBadRequestResponse(exchange, "Parâmetros limit/minMs inválidos");
+			return;
+		}
+		sendSuccessResponse(exchange, tracer.getTraces(limit, minMicros));
+	}
+
+	/**
+	 * Árvore de spans de um trace, com o tempo próprio de cada trecho
+	 */
+	public void handleTrace(HttpExchange exchange) throws IOException {
+		if (!isAllowed(exchange)) {
+			sendForbiddenResponse(exchange);
+			return;
+		}
+		Map<String, Object> trace = tracer.getTrace(getPathParam(exchange, "traceId"));
+		if (trace == null) {
+			sendNotFoundResponse(exchange, "Trace");
+			return;
+		}
+		sendSuccessResponse(exchange, trace);
+	}
+
+	private boolean isAllowed(HttpExchange exchange) {
+		if (allowedIps.contains("*")) {
+			return true;
+		}
+		String remote = exchange.getRemoteAddress().getAddress().getHostAddress();
+		if (allowedIps.contains(remote)) {
+			return true;
+		}
+		log.warn("Acesso a {} negado para {}", exchange.getRequestURI().getPath(), remote);
+		return false;
+	}
+}
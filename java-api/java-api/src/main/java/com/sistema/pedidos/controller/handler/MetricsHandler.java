@@ -19,25 +19,7 @@ public class MetricsHandler extends BaseHandler {
         super(services, objectMapper);
     }
     
-    @Override
-    protected void handleRequest(HttpExchange exchange) throws IOException {
-        // Este método não é usado diretamente, pois usamos métodos específicos
-        sendMethodNotAllowedResponse(exchange);
-    }
-    
     public void handleDashboard(HttpExchange exchange) throws IOException {
-        addCorsHeaders(exchange);
-        
-        if (isOptionsRequest(exchange)) {
-            handleOptionsRequest(exchange);
-            return;
-        }
-        
-        if (!"GET".equals(exchange.getRequestMethod())) {
-            sendMethodNotAllowedResponse(exchange);
-            return;
-        }
-        
         if (!isAuthenticated(exchange)) {
             sendUnauthorizedResponse(exchange);
             return;
@@ -62,18 +44,6 @@ public class MetricsHandler extends BaseHandler {
     }
     
     public void handleReports(HttpExchange exchange) throws IOException {
-        addCorsHeaders(exchange);
-        
-        if (isOptionsRequest(exchange)) {
-            handleOptionsRequest(exchange);
-            return;
-        }
-        
-        if (!"GET".equals(exchange.getRequestMethod())) {
-            sendMethodNotAllowedResponse(exchange);
-            return;
-        }
-        
         if (!isAuthenticated(exchange)) {
             sendUnauthorizedResponse(exchange);
             return;
@@ -1,6 +1,7 @@
 package com.sistema.pedidos.controller.handler;
 
 import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -9,10 +10,12 @@ import java.util.stream.Collectors;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sistema.pedidos.enums.Permissions;
 import com.sistema.pedidos.enums.Status;
+import com.sistema.pedidos.event.OrderCreated;
+import com.sistema.pedidos.event.OrderStatusChanged;
 import com.sistema.pedidos.model.Order;
 import com.sistema.pedidos.model.User;
+import com.sistema.pedidos.service.OrderService;
 import com.sistema.pedidos.service.ServiceContainer;
-import com.sistema.websocket.NotificacaoWebSocketServer;
 import com.sun.net.httpserver.HttpExchange;
 
 import lombok.extern.slf4j.Slf4j;
@@ -27,39 +30,13 @@ public class OrderHandler extends BaseHandler {
 		super(services, objectMapper);
 	}
 
-	@Override
-	protected void handleRequest(HttpExchange exchange) throws IOException {
-		if (!isAuthenticated(exchange)) {
-			sendUnauthorizedResponse(exchange);
+	public void handleGetOrders(HttpExchange exchange) throws IOException {
+		// A lista depende do dia corrente, que também entra na versão
+		String version = services.getOrderService().getOrderBoardVersion() + "-" + LocalDate.now().toEpochDay();
+		if (handleConditionalGet(exchange, "orders", version)) {
 			return;
 		}
 
-		String method = exchange.getRequestMethod();
-		String path = exchange.getRequestURI().getPath();
-
-		try {
-			switch (method) {
-			case "GET":
-				handleGetOrders(exchange);
-				break;
-			case "POST":
-				handleCreateOrder(exchange);
-				break;
-			case "PATCH":
-				handlePatchOrder(exchange, path);
-				break;
-			default:
-				sendMethodNotAllowedResponse(exchange);
-			}
-		} catch (IllegalArgumentException e) {
-			sendBadRequestResponse(exchange, e.getMessage());
-		} catch (Exception e) {
-			log.error("Error handling order request", e);
-			sendErrorResponse(exchange, 500, "Erro interno do servidor: " + e.getMessage());
-		}
-	}
-
-	private void handleGetOrders(HttpExchange exchange) throws IOException {
 		List<Order> allOrders = services.getOrderService().findAll();
 
 		// Filtrar apenas pedidos de hoje
@@ -69,7 +46,7 @@ public class OrderHandler extends BaseHandler {
 			order.setChat(null);
 		}
 
-		sendSuccessResponse(exchange, todaysOrders);
+		sendJsonBytes(exchange, 200, json.writeOrders(todaysOrders));
 	}
 
 	private List<Order> filterTodaysOrders(List<Order> allOrders) {
@@ -85,28 +62,18 @@ public class OrderHandler extends BaseHandler {
 		}).collect(Collectors.toList());
 	}
 
-	private void handleCreateOrder(HttpExchange exchange) throws IOException {
+	public void handleCreateOrder(HttpExchange exchange) throws IOException {
 		Order newOrder = parseRequestBody(exchange, Order.class);
 		Order createdOrder = services.getOrderService().create(newOrder);
 
-		// Notificar via WebSocket
-		notifyOrderChange("/novo_pedidos/" + createdOrder.getId());
+		// Notificações, métricas e auditoria seguem pelo barramento de eventos
+		events.publish(new OrderCreated(createdOrder));
 
 		sendCreatedResponse(exchange, createdOrder);
 	}
 
-	private void handlePatchOrder(HttpExchange exchange, String path) throws IOException {
-		String[] pathParts = path.split("/");
-
-		if (pathParts.length >= 5 && "status".equals(pathParts[4])) {
-			handleUpdateOrderStatus(exchange, pathParts[3]);
-		} else {
-			sendBadRequestResponse(exchange, "Endpoint inválido");
-		}
-	}
-
-	private void handleUpdateOrderStatus(HttpExchange exchange, String orderIdStr) throws IOException {
-		String orderId = orderIdStr;
+	public void handleUpdateOrderStatus(HttpExchange exchange) throws IOException {
+		String orderId = getPathParam(exchange, "id");
 		Map<String, Object> statusData = parseRequestBodyAsMap(exchange);
 		String newStatus = (String) statusData.get("status");
 
@@ -131,37 +98,11 @@ public class OrderHandler extends BaseHandler {
 				newStatus = Status.getNextStatus(newStatus).getName();
 		}
 
-		Order updatedOrder = services.getOrderService().updateStatus(orderId, newStatus);
-
-		// Notificar via WebSocket sobre mudança no pedido e no chat
-		notifyOrderChange(
-				"/status_pedidos/" + orderId + "/" + newStatus.substring(0, 1).toUpperCase() + newStatus.substring(1));
-		notifyOrderChat(orderId);
+		OrderService.StatusUpdate update = services.getOrderService().updateStatus(orderId, newStatus);
 
-		sendSuccessResponse(exchange, updatedOrder);
-	}
-
-	private void notifyOrderChange() {
-		try {
-			NotificacaoWebSocketServer.enviarNotificacao("/pedidos");
-		} catch (Exception e) {
-			log.warn("Failed to send WebSocket notification for order change", e);
-		}
-	}
+		// Notificações (status e chat), métricas e auditoria seguem pelo barramento
+		events.publish(new OrderStatusChanged(update.getOrder(), status, update.getChatMessage()));
 
-	private void notifyOrderChange(String notify) {
-		try {
-			NotificacaoWebSocketServer.enviarNotificacao(notify);
-		} catch (Exception e) {
-			log.warn("Failed to send WebSocket notification for order change", e);
-		}
-	}
-
-	private void notifyOrderChat(String orderId) {
-		try {
-			NotificacaoWebSocketServer.enviarNotificacao("/chat/" + orderId);
-		} catch (Exception e) {
-			log.warn("Failed to send WebSocket notification for order chat: {}", orderId, e);
-		}
+		sendSuccessResponse(exchange, update.getOrder());
 	}
 }
\ No newline at end of file
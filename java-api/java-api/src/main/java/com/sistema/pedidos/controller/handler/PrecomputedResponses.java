@@ -0,0 +1,127 @@
+package com.sistema.pedidos.controller.handler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.pedidos.config.ServerConfig;
+import com.sistema.pedidos.context.RequestContext;
+import com.sistema.pedidos.dto.ApiResponse;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+
+/**
+ * Cabeçalhos e corpos de resposta constantes, montados uma única vez na
+ * inicialização a partir do {@link ServerConfig}. Os valores de cabeçalho são
+ * strings prontas, aplicadas com {@code set} em cada resposta; os envelopes de
+ * erro fixos já ficam serializados em bytes, sem passar pelo Jackson a cada
+ * envio.
+ */
+public final class PrecomputedResponses {
+
+	public static final String UNAUTHORIZED = "Token inválido ou ausente";
+	public static final String INVALID_TOKEN = "Token inválido";
+	public static final String FORBIDDEN = "Acesso negado";
+	public static final String NOT_FOUND = "Endpoint não encontrado";
+	public static final String METHOD_NOT_ALLOWED = "Método não permitido";
+	public static final String INTERNAL_ERROR = "Erro interno do servidor";
+
+	private static final String JSON_CONTENT_TYPE = "application/json; charset=UTF-8";
+	private static final String EXPOSE_DEBUG_HEADERS = "X-Db-Queries, X-Db-Connections";
+
+	private final String allowOrigin;
+	private final String allowMethods;
+	private final String allowHeaders;
+	private final String maxAge;
+	private final Map<String, byte[]> errorBodies = new HashMap<>();
+	private final boolean dbDebugHeaders;
+
+	private PrecomputedResponses(ServerConfig config) {
+		this.allowOrigin = config.getCorsAllowOrigin();
+		this.allowMethods = config.getCorsAllowMethods();
+		this.allowHeaders = config.getCorsAllowHeaders();
+		this.maxAge = String.valueOf(config.getCorsMaxAge());
+		this.dbDebugHeaders = config.isDbDebugHeaders();
+
+		ObjectMapper mapper = new ObjectMapper();
+		for (String message : new String[] { UNAUTHORIZED, INVALID_TOKEN, FORBIDDEN, NOT_FOUND, METHOD_NOT_ALLOWED,
+				INTERNAL_ERROR }) {
+			try {
+				errorBodies.put(message, mapper.writeValueAsBytes(ApiResponse.error(message)));
+			} catch (JsonProcessingException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	public static PrecomputedResponses getInstance() {
+		return SingletonHolder.INSTANCE;
+	}
+
+	private static class SingletonHolder {
+		private static final PrecomputedResponses INSTANCE = new PrecomputedResponses(ServerConfig.getInstance());
+	}
+
+	/**
+	 * Define os cabeçalhos CORS comuns a todas as respostas
+	 */
+	public void addCorsHeaders(HttpExchange exchange) {
+		Headers headers = exchange.getResponseHeaders();
+		headers.set("Access-Control-Allow-Origin", allowOrigin);
+		headers.set("Access-Control-Allow-Methods", allowMethods);
+		headers.set("Access-Control-Allow-Headers", allowHeaders);
+	}
+
+	/**
+	 * Com DB_DEBUG_HEADERS, informa quantas execuções de SQL e conexões a
+	 * requisição usou até o envio da resposta
+	 */
+	public void addDebugHeaders(HttpExchange exchange) {
+		if (!dbDebugHeaders) {
+			return;
+		}
+		Headers headers = exchange.getResponseHeaders();
+		headers.set("X-Db-Queries", Integer.toString(RequestContext.getQueryCount()));
+		headers.set("X-Db-Connections", Integer.toString(RequestContext.getConnectionCount()));
+		headers.set("Access-Control-Expose-Headers", EXPOSE_DEBUG_HEADERS);
+	}
+
+	public void addJsonContentType(HttpExchange exchange) {
+		exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+	}
+
+	/**
+	 * Responde ao preflight CORS (OPTIONS) sem corpo; o Access-Control-Max-Age
+	 * permite ao navegador reaproveitar o resultado nas chamadas seguintes
+	 */
+	public void sendPreflight(HttpExchange exchange) throws IOException {
+		addCorsHeaders(exchange);
+		exchange.getResponseHeaders().set("Access-Control-Max-Age", maxAge);
+		exchange.sendResponseHeaders(204, -1);
+		exchange.close();
+	}
+
+	/**
+	 * Corpo já serializado para a mensagem de erro, ou null se a mensagem não
+	 * for uma das constantes
+	 */
+	public byte[] getErrorBody(String message) {
+		return errorBodies.get(message);
+	}
+
+	/**
+	 * Envia um corpo JSON já serializado com tamanho conhecido
+	 */
+	public void sendJson(HttpExchange exchange, int statusCode, byte[] body) throws IOException {
+		addJsonContentType(exchange);
+		addDebugHeaders(exchange);
+		exchange.sendResponseHeaders(statusCode, body.length);
+		try (OutputStream os = exchange.getResponseBody()) {
+			os.write(body);
+		}
+	}
+}
@@ -1,12 +1,11 @@
 package com.sistema.pedidos.controller.handler;
 
-import java.io.IOException;
 import java.util.List;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.pedidos.event.ProductChanged;
 import com.sistema.pedidos.model.Product;
 import com.sistema.pedidos.service.ServiceContainer;
-import com.sistema.websocket.NotificacaoWebSocketServer;
 import com.sun.net.httpserver.HttpExchange;
 
 import lombok.extern.slf4j.Slf4j;
@@ -21,50 +20,16 @@ public class ProductHandler extends BaseHandler {
 		super(services, objectMapper);
 	}
 
-	@Override
-	protected void handleRequest(HttpExchange exchange) throws IOException {
-		String method = exchange.getRequestMethod();
-		String path = exchange.getRequestURI().getPath();
-
-		try {
-			switch (method) {
-			case "GET":
-				handleGetProducts(exchange);
-				break;
-			case "POST":
-				handleCreateProduct(exchange);
-				break;
-			case "PUT":
-				handleUpdateProduct(exchange, path);
-				break;
-			case "DELETE":
-				handleDeleteProduct(exchange, path);
-				break;
-			default:
-				sendMethodNotAllowedResponse(exchange);
-			}
-		} catch (NumberFormatException e) {
-			sendBadRequestResponse(exchange, "ID inválido");
-		} catch (IllegalArgumentException e) {
-			sendBadRequestResponse(exchange, e.getMessage());
-		} catch (Exception e) {
-			log.error("Error handling product request", e);
-			sendErrorResponse(exchange, 500, "Erro interno do servidor: " + e.getMessage());
+	public void handleGetProducts(HttpExchange exchange) throws Exception {
+		if (handleConditionalGet(exchange, "products", services.getProductService().getCatalogVersion())) {
+			return;
 		}
-	}
 
-	private void handleGetProducts(HttpExchange exchange) throws IOException {
-		List<Product> products = null;
-		try {
-			products = services.getProductService().findAll();
-		} catch (Exception e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
+		List<Product> products = services.getProductService().findAll();
 		sendSuccessResponse(exchange, products);
 	}
 
-	private void handleCreateProduct(HttpExchange exchange) throws Exception {
+	public void handleCreateProduct(HttpExchange exchange) throws Exception {
 		if (!isAuthenticated(exchange)) {
 			sendUnauthorizedResponse(exchange);
 			return;
@@ -73,40 +38,37 @@ public class ProductHandler extends BaseHandler {
 		Product newProduct = parseRequestBody(exchange, Product.class);
 		Product createdProduct = services.getProductService().create(newProduct);
 
-		// Notificar via WebSocket
-		notifyProductChange();
+		events.publish(new ProductChanged(createdProduct));
 
 		sendCreatedResponse(exchange, createdProduct);
 	}
 
-	private void handleUpdateProduct(HttpExchange exchange, String path) throws Exception {
+	public void handleUpdateProduct(HttpExchange exchange) throws Exception {
 		if (!isAuthenticated(exchange)) {
 			sendUnauthorizedResponse(exchange);
 			return;
 		}
 
-		Long productId = extractIdFromPath(path, 3);
+		Long productId = getLongPathParam(exchange, "id");
 		Product updateProduct = parseRequestBody(exchange, Product.class);
 		Product updatedProduct = services.getProductService().update(productId, updateProduct);
 
-		// Notificar via WebSocket
-		notifyProductChange();
+		events.publish(new ProductChanged(updatedProduct));
 
 		sendSuccessResponse(exchange, updatedProduct);
 	}
 
-	private void handleDeleteProduct(HttpExchange exchange, String path) throws Exception {
+	public void handleDeleteProduct(HttpExchange exchange) throws Exception {
 		if (!isAuthenticated(exchange)) {
 			sendUnauthorizedResponse(exchange);
 			return;
 		}
 
-		Long productId = extractIdFromPath(path, 3);
+		Long productId = getLongPathParam(exchange, "id");
 		boolean deleted = services.getProductService().delete(productId);
 
 		if (deleted) {
-			// Notificar via WebSocket
-			notifyProductChange();
+			events.publish(ProductChanged.deleted(productId));
 
 			sendJsonResponse(exchange, 200,
 					com.sistema.pedidos.dto.ApiResponse.success("Produto excluído com sucesso"));
@@ -114,12 +76,4 @@ public class ProductHandler extends BaseHandler {
 			sendNotFoundResponse(exchange, "Produto");
 		}
 	}
-
-	private void notifyProductChange() {
-		try {
-			NotificacaoWebSocketServer.enviarNotificacao("/produto");
-		} catch (Exception e) {
-			log.warn("Failed to send WebSocket notification for product change", e);
-		}
-	}
 }
\ No newline at end of file
@@ -23,37 +23,7 @@ public class ProfileHandler extends BaseHandler {
 		super(services, objectMapper);
 	}
 
-	@Override
-	protected void handleRequest(HttpExchange exchange) throws IOException {
-		String method = exchange.getRequestMethod();
-		String path = exchange.getRequestURI().getPath();
-
-		try {
-			switch (method) {
-			case "GET":
-				handleGetProfiles(exchange);
-				break;
-			case "POST":
-				handleCreateProfile(exchange);
-				break;
-			case "PUT":
-				handleUpdateProfile(exchange, path);
-				break;
-			case "DELETE":
-				handleDeleteProfile(exchange, path);
-				break;
-			default:
-				sendMethodNotAllowedResponse(exchange);
-			}
-		} catch (IllegalArgumentException e) {
-			sendBadRequestResponse(exchange, e.getMessage());
-		} catch (Exception e) {
-			log.error("Error handling profile request", e);
-			sendErrorResponse(exchange, 500, "Erro interno do servidor: " + e.getMessage());
-		}
-	}
-
-	private void handleGetProfiles(HttpExchange exchange) throws Exception {
+	public void handleGetProfiles(HttpExchange exchange) throws Exception {
 		if (!isAuthenticated(exchange)) {
 			// Para GET de profiles, permite acesso sem autenticação em alguns casos
 			// Mantendo a lógica original do código
@@ -86,7 +56,7 @@ public class ProfileHandler extends BaseHandler {
 		return profile;
 	}
 
-	private void handleCreateProfile(HttpExchange exchange) throws Exception {
+	public void handleCreateProfile(HttpExchange exchange) throws Exception {
 		if (!isAuthenticated(exchange)) {
 			sendUnauthorizedResponse(exchange);
 			return;
@@ -104,13 +74,13 @@ public class ProfileHandler extends BaseHandler {
 		sendCreatedResponse(exchange, createdProfile);
 	}
 
-	private void handleUpdateProfile(HttpExchange exchange, String path) throws Exception {
+	public void handleUpdateProfile(HttpExchange exchange) throws Exception {
 		if (!isAuthenticated(exchange)) {
 			sendUnauthorizedResponse(exchange);
 			return;
 		}
 
-		Long profileId = extractIdFromPath(path, 3);
+		Long profileId = getLongPathParam(exchange, "id");
 		Profile updateProfile = parseRequestBody(exchange, Profile.class);
 
 		log.debug("Updating profile {} with data: {}", profileId, updateProfile);
@@ -139,7 +109,7 @@ public class ProfileHandler extends BaseHandler {
 		sendSuccessResponse(exchange, updatedProfile);
 	}
 
-	private void handleDeleteProfile(HttpExchange exchange, String path) throws Exception {
+	public void handleDeleteProfile(HttpExchange exchange) throws Exception {
 		if (!isAuthenticated(exchange)) {
 			sendUnauthorizedResponse(exchange);
 			return;
@@ -159,7 +129,7 @@ public class ProfileHandler extends BaseHandler {
 			return;
 		}
 
-		Long profileId = extractIdFromPath(path, 3);
+		Long profileId = getLongPathParam(exchange, "id");
 		boolean deleted = services.getProfileService().delete(profileId);
 
 		if (deleted) {
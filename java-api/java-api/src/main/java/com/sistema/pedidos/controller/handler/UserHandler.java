@@ -23,47 +23,7 @@ public class UserHandler extends BaseHandler {
 		super(services, objectMapper);
 	}
 
-	@Override
-	protected void handleRequest(HttpExchange exchange) throws IOException {
-		if (!isAuthenticated(exchange)) {
-			sendUnauthorizedResponse(exchange);
-			return;
-		}
-
-		String method = exchange.getRequestMethod();
-		String path = exchange.getRequestURI().getPath();
-
-		try {
-			switch (method) {
-			case "GET":
-				handleGetUsers(exchange);
-				break;
-			case "POST":
-				handleCreateUser(exchange);
-				break;
-			case "PUT":
-				handleUpdateUser(exchange, path);
-				break;
-			case "PATCH":
-				handlePatchUser(exchange, path);
-				break;
-			case "DELETE":
-				handleDeleteUser(exchange, path);
-				break;
-			default:
-				sendMethodNotAllowedResponse(exchange);
-			}
-		} catch (NumberFormatException e) {
-			sendBadRequestResponse(exchange, "ID inválido");
-		} catch (IllegalArgumentException e) {
-			sendBadRequestResponse(exchange, e.getMessage());
-		} catch (Exception e) {
-			log.error("Error handling user request", e);
-			sendErrorResponse(exchange, 500, "Erro interno do servidor: " + e.getMessage());
-		}
-	}
-
-	private void handleGetUsers(HttpExchange exchange) throws IOException {
+	public void handleGetUsers(HttpExchange exchange) throws IOException {
 		User currentUser = getAuthenticatedUser(exchange);
 
 		// Verificar se o usuário tem permissão para listar todos os usuários
@@ -77,31 +37,21 @@ public class UserHandler extends BaseHandler {
 		sendSuccessResponse(exchange, users);
 	}
 
-	private void handleCreateUser(HttpExchange exchange) throws IOException {
+	public void handleCreateUser(HttpExchange exchange) throws IOException {
 		User newUser = parseRequestBody(exchange, User.class);
 		User createdUser = services.getUserService().create(newUser);
 		sendCreatedResponse(exchange, createdUser);
 	}
 
-	private void handleUpdateUser(HttpExchange exchange, String path) throws IOException {
-		Long userId = extractIdFromPath(path, 3);
+	public void handleUpdateUser(HttpExchange exchange) throws IOException {
+		Long userId = getLongPathParam(exchange, "id");
 		User updateUser = parseRequestBody(exchange, User.class);
 		User updatedUser = services.getUserService().update(userId, updateUser);
 		sendSuccessResponse(exchange, updatedUser);
 	}
 
-	private void handlePatchUser(HttpExchange exchange, String path) throws IOException {
-		String[] pathParts = path.split("/");
-
-		if (pathParts.length >= 5 && "password".equals(pathParts[4])) {
-			handlePasswordChange(exchange, pathParts[3]);
-		} else {
-			sendBadRequestResponse(exchange, "Endpoint inválido");
-		}
-	}
-
-	private void handlePasswordChange(HttpExchange exchange, String userIdStr) throws IOException {
-		Long userId = Long.parseLong(userIdStr);
+	public void handlePasswordChange(HttpExchange exchange) throws IOException {
+		Long userId = getLongPathParam(exchange, "id");
 		Map<String, Object> data = parseRequestBodyAsMap(exchange);
 
 		String currentPassword = (String) data.get("currentPassword");
@@ -129,8 +79,8 @@ public class UserHandler extends BaseHandler {
 		sendSuccessResponse(exchange, updatedUser);
 	}
 
-	private void handleDeleteUser(HttpExchange exchange, String path) throws IOException {
-		Long userId = extractIdFromPath(path, 3);
+	public void handleDeleteUser(HttpExchange exchange) throws IOException {
+		Long userId = getLongPathParam(exchange, "id");
 		boolean deleted = services.getUserService().delete(userId);
 
 		if (deleted) {
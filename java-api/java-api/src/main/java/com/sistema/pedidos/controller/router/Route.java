@@ -0,0 +1,189 @@
+package com.sistema.pedidos.controller.router;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+/**
+ * Rota registrada no {@link Router}: template (ex.: /api/orders/{id}/status),
+ * parâmetros de caminho tipados e handlers por método HTTP
+ */
+public final class Route {
+
+	/** Atributo da exchange onde o router guarda a rota encontrada */
+	public static final String ATTRIBUTE = Route.class.getName();
+
+	private final String template;
+	private final String[] paramNames;
+	private final int[] paramSegments;
+	private final HttpHandler[] handlers = new HttpHandler[Method.values().length];
+
+	/**
+	 * Tipos aceitos em parâmetros de caminho: {nome} ou {nome:long}
+	 */
+	public enum ParamType {
+		STRING, LONG;
+
+		boolean accepts(String path, int start, int end) {
+			if (this == STRING) {
+				return true;
+			}
+			int length = end - start;
+			if (length == 0 || length > 18) {
+				return false;
+			}
+			for (int i = start; i < end; i++) {
+				char c = path.charAt(i);
+				if (c < '0' || c > '9') {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		static ParamType fromName(String name) {
+			switch (name) {
+			case "string":
+				return STRING;
+			case "long":
+				return LONG;
+			default:
+				throw new IllegalArgumentException("Tipo de parâmetro desconhecido: " + name);
+			}
+		}
+	}
+
+	/**
+	 * Métodos HTTP roteáveis
+	 */
+	enum Method {
+		GET, POST, PUT, PATCH, DELETE;
+
+		static Method fromName(String method) {
+			switch (method) {
+			case "GET":
+				return GET;
+			case "POST":
+				return POST;
+			case "PUT":
+				return PUT;
+			case "PATCH":
+				return PATCH;
+			case "DELETE":
+				return DELETE;
+			default:
+				return null;
+			}
+		}
+	}
+
+	Route(String template) {
+		this.template = template;
+		String[] segments = splitTemplate(template);
+
+		List<String> names = new ArrayList<>();
+		List<Integer> positions = new ArrayList<>();
+		for (int i = 0; i < segments.length; i++) {
+			String segment = segments[i];
+			if (isParam(segment)) {
+				String body = segment.substring(1, segment.length() - 1);
+				int colon = body.indexOf(':');
+				names.add(colon >= 0 ? body.substring(0, colon) : body);
+				positions.add(i);
+			}
+		}
+		this.paramNames = names.toArray(new String[0]);
+		this.paramSegments = positions.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	static String[] splitTemplate(String template) {
+		List<String> parts = new ArrayList<>();
+		for (String part : template.split("/")) {
+			if (!part.isEmpty()) {
+				parts.add(part);
+			}
+		}
+		return parts.toArray(new String[0]);
+	}
+
+	static boolean isParam(String segment) {
+		return segment.startsWith("{") && segment.endsWith("}");
+	}
+
+	static ParamType paramTypeOf(String segment) {
+		int colon = segment.indexOf(':');
+		return colon >= 0 ? ParamType.fromName(segment.substring(colon + 1, segment.length() - 1)) : ParamType.STRING;
+	}
+
+	public String getTemplate() {
+		return template;
+	}
+
+	void setHandler(Method method, HttpHandler handler) {
+		if (handlers[method.ordinal()] != null) {
+			throw new IllegalStateException("Rota duplicada: " + method + " " + template);
+		}
+		handlers[method.ordinal()] = handler;
+	}
+
+	HttpHandler getHandler(String method) {
+		Method resolved = Method.fromName(method);
+		return resolved != null ? handlers[resolved.ordinal()] : null;
+	}
+
+	/**
+	 * Valor textual de um parâmetro de caminho, extraído sob demanda
+	 */
+	public String getParam(String path, String name) {
+		for (int i = 0; i < paramNames.length; i++) {
+			if (paramNames[i].equals(name)) {
+				return segmentAt(path, paramSegments[i]);
+			}
+		}
+		throw new IllegalArgumentException("Parâmetro inexistente na rota " + template + ": " + name);
+	}
+
+	/**
+	 * Valor numérico de um parâmetro declarado como {nome:long}
+	 */
+	public long getLongParam(String path, String name) {
+		String value = getParam(path, name);
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("ID inválido: " + value);
+		}
+	}
+
+	private static String segmentAt(String path, int index) {
+		int current = -1;
+		int pos = 0;
+		int length = path.length();
+		while (pos < length) {
+			while (pos < length && path.charAt(pos) == '/') {
+				pos++;
+			}
+			if (pos == length) {
+				break;
+			}
+			int end = path.indexOf('/', pos);
+			if (end < 0) {
+				end = length;
+			}
+			if (++current == index) {
+				return path.substring(pos, end);
+			}
+			pos = end;
+		}
+		return null;
+	}
+
+	/**
+	 * Rota encontrada pelo router para a exchange atual
+	 */
+	public static Route of(HttpExchange exchange) {
+		return (Route) exchange.getAttribute(ATTRIBUTE);
+	}
+}
@@ -0,0 +1,166 @@
+package com.sistema.pedidos.controller.router;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+/**
+ * Roteador baseado em trie de segmentos de caminho, com parâmetros tipados e
+ * despacho por método HTTP. A busca percorre o caminho por índices, sem
+ * quebrar a URI em arrays; os parâmetros são extraídos pela {@link Route}
+ * apenas quando o handler os solicita.
+ */
+public final class Router implements HttpHandler {
+
+	private final Node root = new Node(null);
+	private final HttpHandler fallbackHandler;
+	private final HttpHandler methodNotAllowedHandler;
+
+	/**
+	 * @param fallbackHandler         recebe caminhos desconhecidos e OPTIONS
+	 *                                (preflight CORS)
+	 * @param methodNotAllowedHandler recebe caminhos conhecidos com método não
+	 *                                registrado
+	 */
+	public Router(HttpHandler fallbackHandler, HttpHandler methodNotAllowedHandler) {
+		this.fallbackHandler = fallbackHandler;
+		this.methodNotAllowedHandler = methodNotAllowedHandler;
+	}
+
+	public Router get(String template, HttpHandler handler) {
+		return add(Route.Method.GET, template, handler);
+	}
+
+	public Router post(String template, HttpHandler handler) {
+		return add(Route.Method.POST, template, handler);
+	}
+
+	public Router put(String template, HttpHandler handler) {
+		return add(Route.Method.PUT, template, handler);
+	}
+
+	public Router patch(String template, HttpHandler handler) {
+		return add(Route.Method.PATCH, template, handler);
+	}
+
+	public Router delete(String template, HttpHandler handler) {
+		return add(Route.Method.DELETE, template, handler);
+	}
+
+	private Router add(Route.Method method, String template, HttpHandler handler) {
+		Node node = root;
+		String[] segments = Route.splitTemplate(template);
+		for (int i = 0; i < segments.length; i++) {
+			node = node.child(segments[i], template);
+		}
+		if (node.route == null) {
+			node.route = new Route(template);
+		} else if (!node.route.getTemplate().equals(template)) {
+			throw new IllegalStateException(
+					"Rotas conflitantes: " + node.route.getTemplate() + " e " + template);
+		}
+		node.route.setHandler(method, handler);
+		return this;
+	}
+
+	@Override
+	public void handle(HttpExchange exchange) throws IOException {
+		Route route = find(exchange.getRequestURI().getPath());
+		if (route == null) {
+			fallbackHandler.handle(exchange);
+			return;
+		}
+
+		exchange.setAttribute(Route.ATTRIBUTE, route);
+		HttpHandler handler = route.getHandler(exchange.getRequestMethod());
+		if (handler != null) {
+			handler.handle(exchange);
+		} else if ("OPTIONS".equals(exchange.getRequestMethod())) {
+			fallbackHandler.handle(exchange);
+		} else {
+			methodNotAllowedHandler.handle(exchange);
+		}
+	}
+
+	/**
+	 * Localiza a rota do caminho informado, ou null se nenhuma corresponder
+	 */
+	public Route find(String path) {
+		Node node = find(root, path, 0);
+		return node != null ? node.route : null;
+	}
+
+	private Node find(Node node, String path, int pos) {
+		int length = path.length();
+		while (pos < length && path.charAt(pos) == '/') {
+			pos++;
+		}
+		if (pos == length) {
+			return node.route != null ? node : null;
+		}
+
+		int end = path.indexOf('/', pos);
+		if (end < 0) {
+			end = length;
+		}
+
+		// Segmentos estáticos têm prioridade sobre parâmetros
+		for (Node child : node.staticChildren) {
+			if (child.matches(path, pos, end)) {
+				Node found = find(child, path, end);
+				if (found != null) {
+					return found;
+				}
+			}
+		}
+		Node param = node.paramChild;
+		if (param != null && param.paramType.accepts(path, pos, end)) {
+			return find(param, path, end);
+		}
+		return null;
+	}
+
+	/**
+	 * Nó da trie: um segmento estático ou um parâmetro
+	 */
+	private static final class Node {
+		private final String segment;
+		private Route.ParamType paramType;
+		private Node[] staticChildren = new Node[0];
+		private Node paramChild;
+		private Route route;
+
+		Node(String segment) {
+			this.segment = segment;
+		}
+
+		boolean matches(String path, int start, int end) {
+			int length = end - start;
+			return segment.length() == length && path.regionMatches(start, segment, 0, length);
+		}
+
+		Node child(String segment, String template) {
+			if (Route.isParam(segment)) {
+				Route.ParamType type = Route.paramTypeOf(segment);
+				if (paramChild == null) {
+					paramChild = new Node(segment);
+					paramChild.paramType = type;
+				} else if (paramChild.paramType != type) {
+					throw new IllegalStateException("Tipos de parâmetro conflitantes em " + template);
+				}
+				return paramChild;
+			}
+			for (Node child : staticChildren) {
+				if (child.segment.equals(segment)) {
+					return child;
+				}
+			}
+			Node child = new Node(segment);
+			staticChildren = Arrays.copyOf(staticChildren, staticChildren.length + 1);
+			staticChildren[staticChildren.length - 1] = child;
+			return child;
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package com.sistema.pedidos.event;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.sistema.pedidos.util.ActionLogger;
+import com.sistema.pedidos.util.JsonCodec;
+
+/**
+ * Registra os eventos em system_logs, com o autor e o IP da requisição que os
+ * originou
+ */
+public final class AuditConsumer implements EventConsumer {
+
+	@Override
+	public String getName() {
+		return "auditoria";
+	}
+
+	@Override
+	public void onEvent(DomainEvent event) throws Exception {
+		Map<String, Object> metadata = new LinkedHashMap<>();
+		metadata.put("requestId", event.getRequestId());
+		String action;
+		String message;
+		if (event instanceof OrderCreated) {
+			OrderCreated created = (OrderCreated) event;
+			action = "order_created";
+			message = "Pedido " + created.getOrder().getId() + " criado";
+			metadata.put("orderId", created.getOrder().getId());
+			metadata.put("total", created.getOrder().getTotal());
+		} else if (event instanceof OrderStatusChanged) {
+			OrderStatusChanged change = (OrderStatusChanged) event;
+			action = "order_status_changed";
+			message = "Pedido " + change.getOrder().getId() + ": " + change.getPreviousStatus() + " -> "
+					+ change.getOrder().getStatus();
+			metadata.put("orderId", change.getOrder().getId());
+			metadata.put("from", change.getPreviousStatus());
+			metadata.put("to", change.getOrder().getStatus());
+		} else if (event instanceof ChatMessageAdded) {
+			ChatMessageAdded chat = (ChatMessageAdded) event;
+			action = "chat_message_added";
+			message = "Mensagem no chat do pedido " + chat.getOrderId();
+			metadata.put("orderId", chat.getOrderId());
+		} else if (event instanceof ProductChanged) {
+			ProductChanged change = (ProductChanged) event;
+			action = change.isDeleted() ? "product_deleted" : "product_changed";
+			message = "Produto " + change.getProductId() + (change.isDeleted() ? " excluído" : " alterado");
+			metadata.put("productId", change.getProductId());
+		} else {
+			return;
+		}
+		ActionLogger.log("INFO", action, message, event.getActorName(), event.getActorId(), event.getClientIp(),
+				new String(JsonCodec.getInstance().write(metadata), StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,32 @@
+package com.sistema.pedidos.event;
+
+import com.sistema.pedidos.model.Order;
+
+/**
+ * Mensagem nova no chat de um pedido
+ */
+public final class ChatMessageAdded extends DomainEvent {
+
+	public static final String TYPE = "chat.message";
+
+	private final String orderId;
+	private final Order.ChatMessage message;
+
+	public ChatMessageAdded(String orderId, Order.ChatMessage message) {
+		this.orderId = orderId;
+		this.message = message;
+	}
+
+	@Override
+	public String getType() {
+		return TYPE;
+	}
+
+	public String getOrderId() {
+		return orderId;
+	}
+
+	public Order.ChatMessage getMessage() {
+		return message;
+	}
+}
@@ -0,0 +1,52 @@
+package com.sistema.pedidos.event;
+
+import com.sistema.pedidos.context.RequestContext;
+import com.sistema.pedidos.model.User;
+
+/**
+ * Fato já gravado no banco, publicado no {@link EventBus} para os
+ * consumidores (notificações, métricas, auditoria). Quem e de onde vem
+ * do {@link RequestContext} no momento da criação, já que os consumidores
+ * rodam em outras threads.
+ */
+public abstract class DomainEvent {
+
+	private final long occurredAt = System.currentTimeMillis();
+	private final String requestId;
+	private final String actorName;
+	private final Long actorId;
+	private final String clientIp;
+
+	protected DomainEvent() {
+		User user = RequestContext.getAuthenticatedUser();
+		this.requestId = RequestContext.getRequestId();
+		this.actorName = user != null ? user.getName() : null;
+		this.actorId = user != null ? user.getId() : null;
+		this.clientIp = RequestContext.getClientIp();
+	}
+
+	/**
+	 * Nome do evento, usado em logs e métricas (ex.: order.created)
+	 */
+	public abstract String getType();
+
+	public long getOccurredAt() {
+		return occurredAt;
+	}
+
+	public String getRequestId() {
+		return requestId;
+	}
+
+	public String getActorName() {
+		return actorName;
+	}
+
+	public Long getActorId() {
+		return actorId;
+	}
+
+	public String getClientIp() {
+		return clientIp;
+	}
+}
@@ -0,0 +1,202 @@
+package com.sistema.pedidos.event;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import com.sistema.pedidos.config.ServerConfig;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Barramento de eventos em processo. Os handlers publicam o fato depois de
+ * gravar no banco e respondem assim que o evento entra no anel; notificações,
+ * métricas e auditoria acontecem nas threads dos consumidores, cada uma no
+ * próprio ritmo.
+ * <p>
+ * Com o anel cheio (um consumidor muito atrasado) o produtor espera até
+ * {@link #MAX_PUBLISH_WAIT_MS}; depois disso o evento é descartado e contado,
+ * para que um consumidor travado não prenda as requisições.
+ */
+@Slf4j
+public final class EventBus {
+
+	static final long MAX_PUBLISH_WAIT_MS = 1000;
+	private static final int SPINS_BEFORE_PARK = 100;
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+	private final int capacity;
+	private final List<EventConsumer> consumers = new ArrayList<>();
+	private volatile EventRing ring;
+	private volatile Worker[] workers = new Worker[0];
+
+	private final LongAdder published = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder producerWaits = new LongAdder();
+
+	EventBus(int capacity) {
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Registra um consumidor; deve ser chamado antes de {@link #start()}
+	 */
+	public synchronized void subscribe(EventConsumer consumer) {
+		if (ring != null) {
+			throw new IllegalStateException("Barramento já iniciado");
+		}
+		consumers.add(consumer);
+	}
+
+	/**
+	 * Cria o anel e inicia uma thread por consumidor
+	 */
+	public synchronized void start() {
+		if (ring != null) {
+			return;
+		}
+		EventRing newRing = new EventRing(capacity, consumers.size());
+		Worker[] newWorkers = new Worker[consumers.size()];
+		for (int i = 0; i < newWorkers.length; i++) {
+			newWorkers[i] = new Worker(newRing, i, consumers.get(i));
+		}
+		workers = newWorkers;
+		ring = newRing;
+		for (Worker worker : newWorkers) {
+			worker.thread.start();
+		}
+		log.info("Barramento de eventos iniciado: {} posições, consumidores {}", newRing.capacity(),
+				consumers.stream().map(EventConsumer::getName).toArray());
+	}
+
+	/**
+	 * Enfileira o evento para todos os consumidores, sem esperar por eles
+	 */
+	public void publish(DomainEvent event) {
+		EventRing current = ring;
+		if (current == null) {
+			dropped.increment();
+			log.debug("Evento {} descartado: barramento não iniciado", event.getType());
+			return;
+		}
+		long sequence = current.tryClaim();
+		if (sequence < 0) {
+			sequence = awaitSlot(current);
+			if (sequence < 0) {
+				dropped.increment();
+				log.warn("Evento {} descartado: anel cheio por mais de {}ms", event.getType(), MAX_PUBLISH_WAIT_MS);
+				return;
+			}
+		}
+		current.publish(sequence, event);
+		published.increment();
+		for (Worker worker : workers) {
+			if (worker.idle) {
+				LockSupport.unpark(worker.thread);
+			}
+		}
+	}
+
+	private long awaitSlot(EventRing current) {
+		producerWaits.increment();
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_PUBLISH_WAIT_MS);
+		long sequence;
+		while ((sequence = current.tryClaim()) < 0) {
+			if (System.nanoTime() > deadline) {
+				return -1;
+			}
+			LockSupport.parkNanos(FULL_PARK_NANOS);
+		}
+		return sequence;
+	}
+
+	/**
+	 * Eventos publicados, descartados e, por consumidor, processados, falhas e
+	 * atraso (eventos ainda não processados)
+	 */
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		EventRing current = ring;
+		stats.put("capacity", current != null ? current.capacity() : capacity);
+		stats.put("published", published.sum());
+		stats.put("dropped", dropped.sum());
+		stats.put("producerWaits", producerWaits.sum());
+		Map<String, Object> perConsumer = new LinkedHashMap<>();
+		for (Worker worker : workers) {
+			Map<String, Object> consumerStats = new LinkedHashMap<>();
+			consumerStats.put("processed", worker.processed.sum());
+			consumerStats.put("errors", worker.errors.sum());
+			consumerStats.put("lag", current.lag(worker.index));
+			consumerStats.putAll(worker.consumer.getStats());
+			perConsumer.put(worker.consumer.getName(), consumerStats);
+		}
+		stats.put("consumers", perConsumer);
+		return stats;
+	}
+
+	/**
+	 * Thread de um consumidor: processa em ordem a partir do próprio cursor e,
+	 * sem eventos, gira um pouco e depois dorme até o próximo publish
+	 */
+	private static final class Worker implements Runnable {
+		private final EventRing ring;
+		private final int index;
+		private final EventConsumer consumer;
+		private final Thread thread;
+		private final LongAdder processed = new LongAdder();
+		private final LongAdder errors = new LongAdder();
+		private volatile boolean idle;
+
+		Worker(EventRing ring, int index, EventConsumer consumer) {
+			this.ring = ring;
+			this.index = index;
+			this.consumer = consumer;
+			this.thread = new Thread(this, "event-" + consumer.getName());
+			this.thread.setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			int spins = 0;
+			while (true) {
+				DomainEvent event = ring.peek(index);
+				if (event == null) {
+					if (++spins < SPINS_BEFORE_PARK) {
+						Thread.onSpinWait();
+						continue;
+					}
+					idle = true;
+					// Confere de novo depois de marcar: um publish entre a leitura e a
+					// marcação não é perdido
+					if (ring.peek(index) == null) {
+						LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+					}
+					idle = false;
+					spins = 0;
+					continue;
+				}
+				try {
+					consumer.onEvent(event);
+					processed.increment();
+				} catch (Exception e) {
+					errors.increment();
+					log.warn("Consumidor {} falhou ao processar {}", consumer.getName(), event.getType(), e);
+				}
+				ring.advance(index);
+			}
+		}
+	}
+
+	public static EventBus getInstance() {
+		return SingletonHolder.INSTANCE;
+	}
+
+	private static class SingletonHolder {
+		private static final EventBus INSTANCE = new EventBus(ServerConfig.getInstance().getEventBusCapacity());
+	}
+}
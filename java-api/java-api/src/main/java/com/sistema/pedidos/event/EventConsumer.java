@@ -0,0 +1,26 @@
+package com.sistema.pedidos.event;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Consumidor do {@link EventBus}. Cada consumidor tem a própria thread e o
+ * próprio cursor no anel, então um consumidor lento (ex.: auditoria no banco)
+ * não atrasa os demais; os eventos chegam na ordem de publicação.
+ */
+public interface EventConsumer {
+
+	/**
+	 * Nome curto, usado na thread e nas métricas
+	 */
+	String getName();
+
+	void onEvent(DomainEvent event) throws Exception;
+
+	/**
+	 * Métricas próprias do consumidor, incluídas nas do barramento
+	 */
+	default Map<String, Object> getStats() {
+		return Collections.emptyMap();
+	}
+}
@@ -0,0 +1,59 @@
+package com.sistema.pedidos.event;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de negócio alimentados pelos eventos: quantos de cada tipo,
+ * transições de status e o atraso entre a gravação e o processamento
+ */
+public final class EventMetricsConsumer implements EventConsumer {
+
+	private final Map<String, LongAdder> byType = new ConcurrentHashMap<>();
+	private final Map<String, LongAdder> statusTransitions = new ConcurrentHashMap<>();
+	private final LongAdder delaySamples = new LongAdder();
+	private final LongAdder delayTotalMs = new LongAdder();
+	private volatile long maxDelayMs;
+
+	@Override
+	public String getName() {
+		return "metricas";
+	}
+
+	@Override
+	public void onEvent(DomainEvent event) {
+		byType.computeIfAbsent(event.getType(), type -> new LongAdder()).increment();
+		if (event instanceof OrderStatusChanged) {
+			OrderStatusChanged change = (OrderStatusChanged) event;
+			String transition = change.getPreviousStatus() + "->" + change.getOrder().getStatus();
+			statusTransitions.computeIfAbsent(transition, key -> new LongAdder()).increment();
+		}
+		// Só a thread deste consumidor escreve o máximo
+		long delay = System.currentTimeMillis() - event.getOccurredAt();
+		delaySamples.increment();
+		delayTotalMs.add(delay);
+		if (delay > maxDelayMs) {
+			maxDelayMs = delay;
+		}
+	}
+
+	@Override
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("eventsByType", snapshot(byType));
+		stats.put("statusTransitions", snapshot(statusTransitions));
+		long samples = delaySamples.sum();
+		stats.put("delayAvgMs", samples == 0 ? 0.0 : delayTotalMs.sum() / (double) samples);
+		stats.put("delayMaxMs", maxDelayMs);
+		return stats;
+	}
+
+	private static Map<String, Long> snapshot(Map<String, LongAdder> counters) {
+		Map<String, Long> snapshot = new TreeMap<>();
+		counters.forEach((key, counter) -> snapshot.put(key, counter.sum()));
+		return snapshot;
+	}
+}
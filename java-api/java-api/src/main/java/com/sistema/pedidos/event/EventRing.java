@@ -0,0 +1,99 @@
+package com.sistema.pedidos.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Anel de tamanho fixo, sem locks, com vários produtores e um cursor por
+ * consumidor. O produtor reserva a próxima posição com CAS e a publica
+ * gravando o número de sequência na posição; cada consumidor lê em ordem a
+ * partir do próprio cursor. Uma posição só é reaproveitada depois que todos
+ * os consumidores passaram por ela.
+ */
+final class EventRing {
+
+	private final DomainEvent[] slots;
+	/** Sequência publicada em cada posição (-1 antes da primeira volta) */
+	private final AtomicLongArray published;
+	private final int mask;
+	private final AtomicLong claimed = new AtomicLong(-1);
+	/** Última sequência processada por consumidor */
+	private final AtomicLong[] cursors;
+
+	EventRing(int capacity, int consumers) {
+		int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+		this.slots = new DomainEvent[size];
+		this.published = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			published.set(i, -1);
+		}
+		this.mask = size - 1;
+		this.cursors = new AtomicLong[consumers];
+		for (int i = 0; i < consumers; i++) {
+			cursors[i] = new AtomicLong(-1);
+		}
+	}
+
+	/**
+	 * Reserva a próxima sequência, ou retorna -1 se o consumidor mais atrasado
+	 * ainda não liberou a posição
+	 */
+	long tryClaim() {
+		while (true) {
+			long current = claimed.get();
+			long next = current + 1;
+			if (next - slots.length > minCursor()) {
+				return -1;
+			}
+			if (claimed.compareAndSet(current, next)) {
+				return next;
+			}
+		}
+	}
+
+	/**
+	 * Grava o evento na sequência reservada; a escrita volátil em published
+	 * torna o evento visível aos consumidores
+	 */
+	void publish(long sequence, DomainEvent event) {
+		int index = (int) (sequence & mask);
+		slots[index] = event;
+		published.set(index, sequence);
+	}
+
+	/**
+	 * Próximo evento do consumidor, ou null se ainda não foi publicado
+	 */
+	DomainEvent peek(int consumer) {
+		long next = cursors[consumer].get() + 1;
+		int index = (int) (next & mask);
+		return published.get(index) == next ? slots[index] : null;
+	}
+
+	/**
+	 * Libera a posição lida em {@link #peek(int)}
+	 */
+	void advance(int consumer) {
+		AtomicLong cursor = cursors[consumer];
+		cursor.lazySet(cursor.get() + 1);
+	}
+
+	/**
+	 * Eventos publicados que o consumidor ainda não processou
+	 */
+	long lag(int consumer) {
+		return Math.max(0, claimed.get() - cursors[consumer].get());
+	}
+
+	int capacity() {
+		return slots.length;
+	}
+
+	private long minCursor() {
+		long min = Long.MAX_VALUE;
+		for (AtomicLong cursor : cursors) {
+			min = Math.min(min, cursor.get());
+		}
+		return min;
+	}
+}
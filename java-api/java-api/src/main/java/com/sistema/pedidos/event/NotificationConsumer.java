@@ -0,0 +1,50 @@
+package com.sistema.pedidos.event;
+
+import com.sistema.pedidos.model.Order;
+import com.sistema.websocket.NotificacaoWebSocketServer;
+import com.sistema.websocket.NotificationEvent;
+import com.sistema.websocket.Topics;
+
+/**
+ * Converte os eventos em notificações para WebSocket e SSE. A serialização
+ * do JSON acontece aqui, fora da thread da requisição.
+ */
+public final class NotificationConsumer implements EventConsumer {
+
+	@Override
+	public String getName() {
+		return "notificacoes";
+	}
+
+	@Override
+	public void onEvent(DomainEvent event) {
+		if (event instanceof OrderCreated) {
+			Order order = ((OrderCreated) event).getOrder();
+			NotificacaoWebSocketServer.enviarNotificacao(NotificationEvent.orderCreated(order), Topics.PEDIDOS,
+					Topics.pedido(order.getId()), Topics.status(order.getStatus()));
+		} else if (event instanceof OrderStatusChanged) {
+			OrderStatusChanged change = (OrderStatusChanged) event;
+			Order order = change.getOrder();
+			NotificacaoWebSocketServer.enviarNotificacao(NotificationEvent.orderStatus(order), Topics.PEDIDOS,
+					Topics.pedido(order.getId()), Topics.status(order.getStatus()));
+			// A mudança de status também grava uma mensagem no chat do pedido
+			if (change.getChatMessage() != null) {
+				sendChat(order.getId(), change.getChatMessage());
+			}
+		} else if (event instanceof ChatMessageAdded) {
+			ChatMessageAdded chat = (ChatMessageAdded) event;
+			sendChat(chat.getOrderId(), chat.getMessage());
+		} else if (event instanceof ProductChanged) {
+			ProductChanged change = (ProductChanged) event;
+			NotificationEvent notification = change.isDeleted()
+					? NotificationEvent.productDeleted(change.getProductId())
+					: NotificationEvent.productChanged(change.getProduct());
+			NotificacaoWebSocketServer.enviarNotificacao(notification, Topics.PRODUTOS);
+		}
+	}
+
+	private void sendChat(String orderId, Order.ChatMessage message) {
+		NotificacaoWebSocketServer.enviarNotificacao(NotificationEvent.chatMessage(orderId, message), Topics.CHAT,
+				Topics.chat(orderId), Topics.pedido(orderId));
+	}
+}
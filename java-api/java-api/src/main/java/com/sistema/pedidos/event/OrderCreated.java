@@ -0,0 +1,26 @@
+package com.sistema.pedidos.event;
+
+import com.sistema.pedidos.model.Order;
+
+/**
+ * Pedido novo gravado
+ */
+public final class OrderCreated extends DomainEvent {
+
+	public static final String TYPE = "order.created";
+
+	private final Order order;
+
+	public OrderCreated(Order order) {
+		this.order = order;
+	}
+
+	@Override
+	public String getType() {
+		return TYPE;
+	}
+
+	public Order getOrder() {
+		return order;
+	}
+}
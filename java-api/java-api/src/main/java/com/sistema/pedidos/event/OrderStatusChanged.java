@@ -0,0 +1,43 @@
+package com.sistema.pedidos.event;
+
+import com.sistema.pedidos.model.Order;
+
+/**
+ * Status do pedido alterado; o pedido já traz o status novo, e a mensagem de
+ * mudança gravada no chat vem à parte
+ */
+public final class OrderStatusChanged extends DomainEvent {
+
+	public static final String TYPE = "order.status";
+
+	private final Order order;
+	private final String previousStatus;
+	private final Order.ChatMessage chatMessage;
+
+	/**
+	 * @param chatMessage mensagem gravada no chat com a mudança, ou null se a
+	 *                    gravação falhou
+	 */
+	public OrderStatusChanged(Order order, String previousStatus, Order.ChatMessage chatMessage) {
+		this.order = order;
+		this.previousStatus = previousStatus;
+		this.chatMessage = chatMessage;
+	}
+
+	@Override
+	public String getType() {
+		return TYPE;
+	}
+
+	public Order getOrder() {
+		return order;
+	}
+
+	public String getPreviousStatus() {
+		return previousStatus;
+	}
+
+	public Order.ChatMessage getChatMessage() {
+		return chatMessage;
+	}
+}
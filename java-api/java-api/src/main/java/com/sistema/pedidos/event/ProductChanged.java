@@ -0,0 +1,45 @@
+package com.sistema.pedidos.event;
+
+import com.sistema.pedidos.model.Product;
+
+/**
+ * Produto criado, alterado ou excluído (product null e deleted true)
+ */
+public final class ProductChanged extends DomainEvent {
+
+	public static final String TYPE = "product.changed";
+
+	private final Long productId;
+	private final Product product;
+
+	public ProductChanged(Product product) {
+		this.productId = product.getId();
+		this.product = product;
+	}
+
+	private ProductChanged(Long productId) {
+		this.productId = productId;
+		this.product = null;
+	}
+
+	public static ProductChanged deleted(Long productId) {
+		return new ProductChanged(productId);
+	}
+
+	@Override
+	public String getType() {
+		return TYPE;
+	}
+
+	public Long getProductId() {
+		return productId;
+	}
+
+	public Product getProduct() {
+		return product;
+	}
+
+	public boolean isDeleted() {
+		return product == null;
+	}
+}
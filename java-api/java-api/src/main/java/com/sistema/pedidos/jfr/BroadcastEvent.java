@@ -0,0 +1,31 @@
+package com.sistema.pedidos.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Publicação de uma notificação pela thread da requisição; a entrega às
+ * conexões aparece depois como {@link FanOutEvent}
+ */
+@Name("pedidos.Broadcast")
+@Label("Publicação de notificação")
+@Category({ "Pedidos", "Notificações" })
+@StackTrace(false)
+public class BroadcastEvent extends jdk.jfr.Event {
+
+	@Label("Id da requisição")
+	public String requestId;
+
+	@Label("Tópicos")
+	public String topics;
+
+	@Label("Chave")
+	public String key;
+
+	@Label("Tamanho do evento")
+	@DataAmount
+	public long payloadBytes;
+}
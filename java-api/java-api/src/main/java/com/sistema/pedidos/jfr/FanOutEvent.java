@@ -0,0 +1,26 @@
+package com.sistema.pedidos.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Entrega de um lote de notificações às filas das conexões inscritas, na
+ * thread de fan-out
+ */
+@Name("pedidos.FanOut")
+@Label("Fan-out de notificações")
+@Category({ "Pedidos", "Notificações" })
+@StackTrace(false)
+public class FanOutEvent extends jdk.jfr.Event {
+
+	@Label("Eventos")
+	public int events;
+
+	@Label("Conexões")
+	public int sessions;
+
+	@Label("Quadros")
+	public int frames;
+}
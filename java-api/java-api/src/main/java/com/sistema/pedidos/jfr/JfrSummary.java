@@ -0,0 +1,171 @@
+package com.sistema.pedidos.jfr;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Resumo offline de uma gravação JFR com os eventos pedidos.*: por rota, SQL,
+ * tópicos e relatório (quantidade, tempo total, p50, p99 e máximo) e as
+ * requisições mais lentas com o tempo gasto nas consultas de cada uma,
+ * cruzado pelo id da requisição.
+ * <p>
+ * Uso: {@code java -cp build/classes com.sistema.pedidos.jfr.JfrSummary gravacao.jfr [top]}
+ */
+public final class JfrSummary {
+
+	private static final Map<String, String> TITLES = new LinkedHashMap<>();
+
+	static {
+		TITLES.put("pedidos.Request", "Requisições por rota");
+		TITLES.put("pedidos.Query", "Consultas por SQL");
+		TITLES.put("pedidos.Report", "Relatórios");
+		TITLES.put("pedidos.Broadcast", "Publicações por tópicos");
+		TITLES.put("pedidos.FanOut", "Fan-out de notificações");
+	}
+
+	private final Map<String, Map<String, Group>> groups = new HashMap<>();
+	private final Map<String, RequestTotals> byRequest = new HashMap<>();
+	private final List<RecordedEvent> requests = new ArrayList<>();
+
+	private JfrSummary() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.err.println("Uso: JfrSummary <gravacao.jfr> [top]");
+			System.exit(1);
+		}
+		int top = args.length > 1 ? Integer.parseInt(args[1]) : 15;
+		JfrSummary summary = new JfrSummary();
+		summary.read(Paths.get(args[0]));
+		summary.print(top);
+	}
+
+	private void read(Path file) throws IOException {
+		try (RecordingFile recording = new RecordingFile(file)) {
+			while (recording.hasMoreEvents()) {
+				RecordedEvent event = recording.readEvent();
+				String type = event.getEventType().getName();
+				if (!TITLES.containsKey(type)) {
+					continue;
+				}
+				groups.computeIfAbsent(type, key -> new HashMap<>())
+						.computeIfAbsent(keyOf(type, event), Group::new).add(event.getDuration());
+				if ("pedidos.Request".equals(type)) {
+					requests.add(event);
+				} else if ("pedidos.Query".equals(type) && event.getString("requestId") != null) {
+					byRequest.computeIfAbsent(event.getString("requestId"), key -> new RequestTotals())
+							.add(event.getDuration());
+				}
+			}
+		}
+	}
+
+	private static String keyOf(String type, RecordedEvent event) {
+		switch (type) {
+		case "pedidos.Request":
+			return event.getString("method") + " " + event.getString("route");
+		case "pedidos.Query":
+			return event.getString("sql");
+		case "pedidos.Report":
+			String period = event.getString("period");
+			return event.getString("report") + (period != null ? " (" + period + ")" : "");
+		case "pedidos.Broadcast":
+			return event.getString("topics");
+		default:
+			return "fan-out";
+		}
+	}
+
+	private void print(int top) {
+		for (Map.Entry<String, String> title : TITLES.entrySet()) {
+			Map<String, Group> byKey = groups.get(title.getKey());
+			if (byKey == null) {
+				continue;
+			}
+			System.out.println();
+			System.out.println("== " + title.getValue() + " (" + title.getKey() + ")");
+			System.out.printf("%8s %11s %9s %9s %9s  %s%n", "qtd", "total(ms)", "p50(ms)", "p99(ms)", "max(ms)",
+					"chave");
+			byKey.values().stream().sorted(Comparator.comparingLong((Group group) -> group.totalNanos).reversed())
+					.limit(top).forEach(Group::print);
+		}
+
+		if (requests.isEmpty()) {
+			return;
+		}
+		System.out.println();
+		System.out.println("== Requisições mais lentas");
+		System.out.printf("%9s %6s %9s %11s  %-10s %s%n", "dur(ms)", "status", "consultas", "em SQL(ms)", "id",
+				"rota");
+		requests.sort(Comparator.comparing((RecordedEvent event) -> event.getDuration()).reversed());
+		for (RecordedEvent request : requests.subList(0, Math.min(top, requests.size()))) {
+			RequestTotals totals = byRequest.get(request.getString("requestId"));
+			System.out.printf("%9.2f %6d %9d %11.2f  %-10s %s %s%n", millis(request.getDuration().toNanos()),
+					request.getInt("status"), request.getInt("queries"),
+					totals != null ? millis(totals.nanos) : 0.0, request.getString("requestId"),
+					request.getString("method"), request.getString("route"));
+		}
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1e6;
+	}
+
+	/**
+	 * Durações de uma chave (rota, SQL...)
+	 */
+	private static final class Group {
+		private final String key;
+		private long[] durations = new long[16];
+		private int count;
+		private long totalNanos;
+
+		private Group(String key) {
+			this.key = key;
+		}
+
+		private void add(Duration duration) {
+			if (count == durations.length) {
+				durations = Arrays.copyOf(durations, count * 2);
+			}
+			durations[count++] = duration.toNanos();
+			totalNanos += duration.toNanos();
+		}
+
+		private void print() {
+			long[] sorted = Arrays.copyOf(durations, count);
+			Arrays.sort(sorted);
+			System.out.printf("%8d %11.2f %9.2f %9.2f %9.2f  %s%n", count, millis(totalNanos),
+					millis(percentile(sorted, 50)), millis(percentile(sorted, 99)), millis(sorted[count - 1]), key);
+		}
+
+		private static long percentile(long[] sorted, double percentile) {
+			int index = (int) Math.ceil(sorted.length * percentile / 100.0) - 1;
+			return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+		}
+	}
+
+	/**
+	 * Consultas de uma requisição
+	 */
+	private static final class RequestTotals {
+		private long nanos;
+
+		private void add(Duration duration) {
+			nanos += duration.toNanos();
+		}
+	}
+}
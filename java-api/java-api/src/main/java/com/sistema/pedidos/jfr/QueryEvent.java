@@ -0,0 +1,30 @@
+package com.sistema.pedidos.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Execução de um statement JDBC pela conexão instrumentada do Db
+ */
+@Name("pedidos.Query")
+@Label("Consulta SQL")
+@Category({ "Pedidos", "Banco de dados" })
+@StackTrace(false)
+public class QueryEvent extends jdk.jfr.Event {
+
+	@Label("Id da requisição")
+	public String requestId;
+
+	@Label("SQL")
+	@Description("Template da consulta, com literais trocados por ?")
+	public String sql;
+
+	@Label("Linhas afetadas")
+	public long rows;
+
+	@Label("Falhou")
+	public boolean failed;
+}
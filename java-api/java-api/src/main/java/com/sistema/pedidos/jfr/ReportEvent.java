@@ -0,0 +1,28 @@
+package com.sistema.pedidos.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Montagem do dashboard ou de um relatório no MetricsService
+ */
+@Name("pedidos.Report")
+@Label("Montagem de relatório")
+@Category({ "Pedidos", "Relatórios" })
+@StackTrace(false)
+public class ReportEvent extends jdk.jfr.Event {
+
+	@Label("Id da requisição")
+	public String requestId;
+
+	@Label("Relatório")
+	public String report;
+
+	@Label("Período")
+	public String period;
+
+	@Label("Pedidos")
+	public int orders;
+}
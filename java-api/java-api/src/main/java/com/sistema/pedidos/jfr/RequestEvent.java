@@ -0,0 +1,41 @@
+package com.sistema.pedidos.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Requisição HTTP tratada pelo BaseHandler, do início ao fim do handle
+ */
+@Name("pedidos.Request")
+@Label("Requisição HTTP")
+@Category({ "Pedidos", "HTTP" })
+@StackTrace(false)
+public class RequestEvent extends jdk.jfr.Event {
+
+	@Label("Id da requisição")
+	public String requestId;
+
+	@Label("Método")
+	public String method;
+
+	@Label("Rota")
+	@Description("Template da rota, ex.: /api/orders/{id}")
+	public String route;
+
+	@Label("Status")
+	public int status;
+
+	@Label("Bytes da resposta")
+	@DataAmount
+	public long responseBytes;
+
+	@Label("Consultas SQL")
+	public int queries;
+
+	@Label("Conexões")
+	public int connections;
+}
@@ -0,0 +1,119 @@
+package com.sistema.pedidos.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas HTTP por rota (template) e método: requisições em andamento,
+ * bytes enviados e um {@link LatencyHistogram} por classe de status. O
+ * BaseHandler chama {@link #begin(String, String)} no início e
+ * {@link RouteMetrics#end(int, long, long)} no fim; nada é agregado no caminho
+ * da requisição, só na exposição.
+ */
+public final class HttpMetrics {
+
+	/** Rótulos das classes de status; o índice 0 cobre respostas não enviadas */
+	static final String[] STATUS_CLASSES = { "other", "1xx", "2xx", "3xx", "4xx", "5xx" };
+
+	private final ConcurrentMap<String, ConcurrentMap<String, RouteMetrics>> routes = new ConcurrentHashMap<>();
+
+	private HttpMetrics() {
+	}
+
+	public static HttpMetrics getInstance() {
+		return SingletonHolder.INSTANCE;
+	}
+
+	private static class SingletonHolder {
+		private static final HttpMetrics INSTANCE = new HttpMetrics();
+	}
+
+	/**
+	 * Marca o início de uma requisição na rota e retorna o registro onde o fim
+	 * deve ser gravado
+	 */
+	public RouteMetrics begin(String method, String route) {
+		ConcurrentMap<String, RouteMetrics> byMethod = routes.get(route);
+		if (byMethod == null) {
+			byMethod = routes.computeIfAbsent(route, key -> new ConcurrentHashMap<>());
+		}
+		RouteMetrics metrics = byMethod.get(method);
+		if (metrics == null) {
+			metrics = byMethod.computeIfAbsent(method, key -> new RouteMetrics(method, route));
+		}
+		metrics.inFlight.increment();
+		return metrics;
+	}
+
+	/**
+	 * Rotas já chamadas, ordenadas por template e método
+	 */
+	public List<RouteMetrics> getRoutes() {
+		List<RouteMetrics> all = new ArrayList<>();
+		routes.values().forEach(byMethod -> all.addAll(byMethod.values()));
+		all.sort(Comparator.comparing(RouteMetrics::getRoute).thenComparing(RouteMetrics::getMethod));
+		return all;
+	}
+
+	/**
+	 * Contadores de um par método + rota
+	 */
+	public static final class RouteMetrics {
+		private final String method;
+		private final String route;
+		private final LongAdder inFlight = new LongAdder();
+		private final LongAdder responseBytes = new LongAdder();
+		private final AtomicReferenceArray<LatencyHistogram> latencies = new AtomicReferenceArray<>(
+				STATUS_CLASSES.length);
+
+		private RouteMetrics(String method, String route) {
+			this.method = method;
+			this.route = route;
+		}
+
+		/**
+		 * Grava o fim da requisição: status enviado (-1 se nenhum), duração e
+		 * bytes do corpo
+		 */
+		public void end(int status, long micros, long bytes) {
+			inFlight.decrement();
+			responseBytes.add(bytes);
+			int statusClass = status >= 100 && status < 600 ? status / 100 : 0;
+			LatencyHistogram histogram = latencies.get(statusClass);
+			if (histogram == null) {
+				latencies.compareAndSet(statusClass, null, new LatencyHistogram());
+				histogram = latencies.get(statusClass);
+			}
+			histogram.record(micros);
+		}
+
+		public String getMethod() {
+			return method;
+		}
+
+		public String getRoute() {
+			return route;
+		}
+
+		public long getInFlight() {
+			return inFlight.sum();
+		}
+
+		public long getResponseBytes() {
+			return responseBytes.sum();
+		}
+
+		/**
+		 * Histograma da classe de status (índice de {@link #STATUS_CLASSES}),
+		 * ou null se nenhuma resposta dessa classe foi registrada
+		 */
+		LatencyHistogram getLatency(int statusClass) {
+			return latencies.get(statusClass);
+		}
+	}
+}
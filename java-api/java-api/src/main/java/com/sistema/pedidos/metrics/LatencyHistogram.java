@@ -0,0 +1,127 @@
+package com.sistema.pedidos.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latência em microssegundos no estilo HDR: cada potência de 2
+ * é dividida em {@value #SUB_BUCKETS} faixas lineares, o que mantém o erro
+ * relativo abaixo de ~3% de 1µs a ~19h com pouco mais de mil contadores. Gravar
+ * é um cálculo de índice com numberOfLeadingZeros e um incremento atômico.
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 5;
+	static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int MAX_EXPONENT = 36;
+	private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+	private static final int BUCKET_COUNT = SUB_BUCKETS * (MAX_EXPONENT - SUB_BUCKET_BITS + 2);
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final LongAdder sum = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	public void record(long micros) {
+		long value = Math.max(0, Math.min(micros, MAX_VALUE));
+		counts.incrementAndGet(indexOf(value));
+		sum.add(value);
+		long current = max.get();
+		while (value > current && !max.compareAndSet(current, value)) {
+			current = max.get();
+		}
+	}
+
+	static int indexOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+		return SUB_BUCKETS * (shift + 1) + (int) (value >>> shift) - SUB_BUCKETS;
+	}
+
+	/**
+	 * Maior valor que cai na faixa do índice
+	 */
+	static long upperBoundOf(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int shift = index / SUB_BUCKETS - 1;
+		long sub = index % SUB_BUCKETS;
+		return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+	}
+
+	/**
+	 * Cópia dos contadores para leitura; a gravação continua enquanto isso
+	 */
+	public Snapshot snapshot() {
+		long[] copy = new long[BUCKET_COUNT];
+		long count = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			copy[i] = counts.get(i);
+			count += copy[i];
+		}
+		return new Snapshot(copy, count, sum.sum(), max.get());
+	}
+
+	/**
+	 * Estado do histograma num instante; count é a soma das faixas, para que
+	 * bata com o último bucket cumulativo
+	 */
+	public static final class Snapshot {
+		private final long[] counts;
+		private final long count;
+		private final long sumMicros;
+		private final long maxMicros;
+
+		private Snapshot(long[] counts, long count, long sumMicros, long maxMicros) {
+			this.counts = counts;
+			this.count = count;
+			this.sumMicros = sumMicros;
+			this.maxMicros = maxMicros;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public long getSumMicros() {
+			return sumMicros;
+		}
+
+		public long getMaxMicros() {
+			return maxMicros;
+		}
+
+		/**
+		 * Quantidade de valores até o limite informado, contando as faixas
+		 * que terminam até ele
+		 */
+		public long countAtOrBelow(long micros) {
+			long total = 0;
+			for (int i = 0; i < counts.length && upperBoundOf(i) <= micros; i++) {
+				total += counts[i];
+			}
+			return total;
+		}
+
+		/**
+		 * Valor no percentil (0 a 100), pelo limite superior da faixa
+		 */
+		public long valueAtPercentile(double percentile) {
+			if (count == 0) {
+				return 0;
+			}
+			long target = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+			long seen = 0;
+			for (int i = 0; i < counts.length; i++) {
+				seen += counts[i];
+				if (seen >= target) {
+					return Math.min(upperBoundOf(i), maxMicros);
+				}
+			}
+			return maxMicros;
+		}
+	}
+}
@@ -0,0 +1,251 @@
+package com.sistema.pedidos.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Exposição das métricas no formato texto do Prometheus (versão 0.0.4): as
+ * métricas HTTP do {@link HttpMetrics} e as estatísticas dos componentes
+ * registrados (compressão, WebSocket, barramento de eventos...), cujos
+ * valores numéricos viram séries app_&lt;componente&gt;_&lt;chave&gt;.
+ */
+@Slf4j
+public final class PrometheusExporter {
+
+	/** Limites dos buckets cumulativos, em microssegundos (1ms a 10s) */
+	private static final long[] BUCKET_BOUNDS_MICROS = { 1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000,
+			250_000, 500_000, 1_000_000, 2_500_000, 5_000_000, 10_000_000 };
+	private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+	private final HttpMetrics httpMetrics;
+	private final Map<String, Supplier<Map<String, Object>>> components = new ConcurrentSkipListMap<>();
+
+	private PrometheusExporter(HttpMetrics httpMetrics) {
+		this.httpMetrics = httpMetrics;
+	}
+
+	public static PrometheusExporter getInstance() {
+		return SingletonHolder.INSTANCE;
+	}
+
+	private static class SingletonHolder {
+		private static final PrometheusExporter INSTANCE = new PrometheusExporter(HttpMetrics.getInstance());
+	}
+
+	/**
+	 * Inclui as estatísticas de um componente na exposição; o nome vira o
+	 * prefixo das séries (ex.: event_bus → app_event_bus_published)
+	 */
+	public void register(String component, Supplier<Map<String, Object>> stats) {
+		components.put(component, stats);
+	}
+
+	/**
+	 * Texto completo para uma coleta
+	 */
+	public String scrape() {
+		StringBuilder out = new StringBuilder(16 * 1024);
+		writeHttpMetrics(out);
+		writeComponents(out);
+		return out.toString();
+	}
+
+	private void writeHttpMetrics(StringBuilder out) {
+		List<HttpMetrics.RouteMetrics> routes = httpMetrics.getRoutes();
+
+		header(out, "http_server_requests_in_flight", "gauge", "Requisições em andamento");
+		for (HttpMetrics.RouteMetrics route : routes) {
+			sample(out, "http_server_requests_in_flight", routeLabels(route, null), route.getInFlight());
+		}
+
+		header(out, "http_server_response_bytes_total", "counter", "Bytes enviados no corpo das respostas");
+		for (HttpMetrics.RouteMetrics route : routes) {
+			sample(out, "http_server_response_bytes_total", routeLabels(route, null), route.getResponseBytes());
+		}
+
+		// Uma cópia por série, usada nas três famílias abaixo
+		Map<String, LatencyHistogram.Snapshot> snapshots = new LinkedHashMap<>();
+		for (HttpMetrics.RouteMetrics route : routes) {
+			for (int i = 0; i < HttpMetrics.STATUS_CLASSES.length; i++) {
+				LatencyHistogram histogram = route.getLatency(i);
+				if (histogram != null) {
+					snapshots.put(routeLabels(route, HttpMetrics.STATUS_CLASSES[i]), histogram.snapshot());
+				}
+			}
+		}
+
+		header(out, "http_server_requests_total", "counter", "Requisições concluídas");
+		snapshots.forEach((labels, snapshot) -> sample(out, "http_server_requests_total", labels, snapshot.getCount()));
+
+		header(out, "http_server_request_duration_seconds", "histogram", "Duração das requisições");
+		snapshots.forEach((labels, snapshot) -> {
+			for (long bound : BUCKET_BOUNDS_MICROS) {
+				sample(out, "http_server_request_duration_seconds_bucket",
+						withLabel(labels, "le", formatDouble(bound / 1e6)), snapshot.countAtOrBelow(bound));
+			}
+			sample(out, "http_server_request_duration_seconds_bucket", withLabel(labels, "le", "+Inf"),
+					snapshot.getCount());
+			sample(out, "http_server_request_duration_seconds_sum", labels, snapshot.getSumMicros() / 1e6);
+			sample(out, "http_server_request_duration_seconds_count", labels, snapshot.getCount());
+		});
+
+		header(out, "http_server_request_latency_seconds", "summary",
+				"Percentis da duração das requisições (histograma HDR, erro relativo ~3%)");
+		snapshots.forEach((labels, snapshot) -> {
+			for (double quantile : QUANTILES) {
+				sample(out, "http_server_request_latency_seconds",
+						withLabel(labels, "quantile", formatDouble(quantile)),
+						snapshot.valueAtPercentile(quantile * 100) / 1e6);
+			}
+			sample(out, "http_server_request_latency_seconds_sum", labels, snapshot.getSumMicros() / 1e6);
+			sample(out, "http_server_request_latency_seconds_count", labels, snapshot.getCount());
+		});
+
+		header(out, "http_server_request_duration_max_seconds", "gauge", "Maior duração registrada");
+		snapshots.forEach((labels, snapshot) -> sample(out, "http_server_request_duration_max_seconds", labels,
+				snapshot.getMaxMicros() / 1e6));
+	}
+
+	private void writeComponents(StringBuilder out) {
+		for (Map.Entry<String, Supplier<Map<String, Object>>> component : components.entrySet()) {
+			Map<String, Object> stats;
+			try {
+				stats = component.getValue().get();
+			} catch (RuntimeException e) {
+				log.warn("Falha ao coletar métricas de {}", component.getKey(), e);
+				continue;
+			}
+			// Séries da mesma família precisam sair juntas
+			Map<String, List<String>> families = new LinkedHashMap<>();
+			flatten(families, "app_" + sanitize(component.getKey()), "", stats);
+			families.forEach((name, lines) -> {
+				out.append("# TYPE ").append(name).append(" untyped\n");
+				lines.forEach(out::append);
+			});
+		}
+	}
+
+	/**
+	 * Valores numéricos e booleanos viram séries; mapas aninhados acrescentam
+	 * a chave ao nome e cada entrada vira o rótulo name, quando é um grupo
+	 * (ex.: consumidores), ou key, quando é um contador (ex.: eventos por tipo)
+	 */
+	private static void flatten(Map<String, List<String>> families, String prefix, String labels,
+			Map<?, ?> stats) {
+		for (Map.Entry<?, ?> entry : stats.entrySet()) {
+			String key = String.valueOf(entry.getKey());
+			Object value = entry.getValue();
+			if (value instanceof Map) {
+				Map<?, ?> nested = (Map<?, ?>) value;
+				boolean groups = !nested.isEmpty() && nested.values().stream().allMatch(v -> v instanceof Map);
+				String name = prefix + "_" + sanitize(key);
+				if (groups) {
+					for (Map.Entry<?, ?> group : nested.entrySet()) {
+						flatten(families, name, withLabel(labels, "name", String.valueOf(group.getKey())),
+								(Map<?, ?>) group.getValue());
+					}
+				} else {
+					for (Map.Entry<?, ?> item : nested.entrySet()) {
+						Double number = toNumber(item.getValue());
+						if (number != null) {
+							addLine(families, name, withLabel(labels, "key", String.valueOf(item.getKey())), number);
+						}
+					}
+				}
+				continue;
+			}
+			Double number = toNumber(value);
+			if (number != null) {
+				addLine(families, prefix + "_" + sanitize(key), labels, number);
+			}
+		}
+	}
+
+	private static void addLine(Map<String, List<String>> families, String name, String labels, double value) {
+		StringBuilder line = new StringBuilder();
+		sample(line, name, labels, value);
+		families.computeIfAbsent(name, key -> new ArrayList<>()).add(line.toString());
+	}
+
+	private static Double toNumber(Object value) {
+		if (value instanceof Number) {
+			return ((Number) value).doubleValue();
+		}
+		if (value instanceof Boolean) {
+			return ((Boolean) value) ? 1.0 : 0.0;
+		}
+		return null;
+	}
+
+	private static void header(StringBuilder out, String name, String type, String help) {
+		out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+
+	private static void sample(StringBuilder out, String name, String labels, double value) {
+		out.append(name);
+		if (!labels.isEmpty()) {
+			out.append('{').append(labels).append('}');
+		}
+		out.append(' ').append(formatDouble(value)).append('\n');
+	}
+
+	private static String routeLabels(HttpMetrics.RouteMetrics route, String statusClass) {
+		String labels = withLabel(withLabel("", "method", route.getMethod()), "route", route.getRoute());
+		return statusClass != null ? withLabel(labels, "status", statusClass) : labels;
+	}
+
+	private static String withLabel(String labels, String name, String value) {
+		StringBuilder out = new StringBuilder(labels.length() + name.length() + value.length() + 4);
+		out.append(labels);
+		if (!labels.isEmpty()) {
+			out.append(',');
+		}
+		out.append(name).append("=\"");
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '\\' || c == '"') {
+				out.append('\\').append(c);
+			} else if (c == '\n') {
+				out.append("\\n");
+			} else {
+				out.append(c);
+			}
+		}
+		return out.append('"').toString();
+	}
+
+	private static String formatDouble(double value) {
+		if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+			return Long.toString((long) value);
+		}
+		return Double.toString(value);
+	}
+
+	/**
+	 * camelCase e caracteres inválidos para snake_case
+	 */
+	private static String sanitize(String key) {
+		StringBuilder out = new StringBuilder(key.length() + 4);
+		for (int i = 0; i < key.length(); i++) {
+			char c = key.charAt(i);
+			if (Character.isUpperCase(c)) {
+				if (i > 0) {
+					out.append('_');
+				}
+				out.append(Character.toLowerCase(c));
+			} else if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '_') {
+				out.append(c);
+			} else {
+				out.append('_');
+			}
+		}
+		return out.toString();
+	}
+}
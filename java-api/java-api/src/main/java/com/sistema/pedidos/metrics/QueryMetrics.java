@@ -0,0 +1,270 @@
+package com.sistema.pedidos.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import com.sistema.pedidos.config.ServerConfig;
+import com.sistema.pedidos.context.RequestContext;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Métricas das consultas JDBC por template de SQL (literais trocados por ?,
+ * listas de ? resumidas): histograma de latência, linhas, falhas, além do
+ * tempo para obter conexões. Consultas acima de DB_SLOW_QUERY_MS vão para o
+ * log com o id da requisição. Cada execução e conexão também é contada no
+ * {@link RequestContext}, para o limite por requisição e a detecção de N+1.
+ */
+@Slf4j
+public final class QueryMetrics {
+
+	private static final int MAX_CACHED_TEMPLATES = 1024;
+	private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+	private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+	private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+	private static final Pattern REPEATED_LISTS = Pattern.compile("\\(\\?\\.\\.\\.\\)(?:\\s*,\\s*\\(\\?\\.\\.\\.\\))+");
+
+	private final long slowQueryMicros;
+	private final int requestQueryBudget;
+	private final int repeatedQueryThreshold;
+	private final ConcurrentMap<String, String> templates = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, QueryStats> queries = new ConcurrentHashMap<>();
+	private final LatencyHistogram acquire = new LatencyHistogram();
+	private final LongAdder acquireFailures = new LongAdder();
+	private final AtomicInteger openConnections = new AtomicInteger();
+	private final AtomicInteger peakOpenConnections = new AtomicInteger();
+	private final LongAdder slowQueries = new LongAdder();
+	private final LongAdder repeatedQueryWarnings = new LongAdder();
+	private final LongAdder overBudgetRequests = new LongAdder();
+
+	private QueryMetrics(ServerConfig config) {
+		this.slowQueryMicros = config.getDbSlowQueryMs() * 1000;
+		this.requestQueryBudget = config.getDbRequestQueryBudget();
+		this.repeatedQueryThreshold = config.getDbRepeatedQueryThreshold();
+	}
+
+	public static QueryMetrics getInstance() {
+		return SingletonHolder.INSTANCE;
+	}
+
+	private static class SingletonHolder {
+		private static final QueryMetrics INSTANCE = new QueryMetrics(ServerConfig.getInstance());
+	}
+
+	/**
+	 * Template do SQL, calculado uma vez por texto (as consultas dos services
+	 * são constantes)
+	 */
+	public String templateOf(String sql) {
+		String template = templates.get(sql);
+		if (template != null) {
+			return template;
+		}
+		template = normalize(sql);
+		if (templates.size() < MAX_CACHED_TEMPLATES) {
+			templates.putIfAbsent(sql, template);
+		}
+		return template;
+	}
+
+	static String normalize(String sql) {
+		String template = STRING_LITERAL.matcher(sql).replaceAll("?");
+		template = NUMBER_LITERAL.matcher(template).replaceAll("?");
+		template = WHITESPACE.matcher(template).replaceAll(" ").trim();
+		template = PLACEHOLDER_LIST.matcher(template).replaceAll("(?...)");
+		return REPEATED_LISTS.matcher(template).replaceAll("(?...)");
+	}
+
+	/**
+	 * Estatísticas do template, criadas na primeira execução
+	 */
+	public QueryStats statsFor(String template) {
+		QueryStats stats = queries.get(template);
+		return stats != null ? stats : queries.computeIfAbsent(template, QueryStats::new);
+	}
+
+	/**
+	 * Grava uma execução; rows é o total afetado (updates) ou 0 para
+	 * consultas, cujas linhas são contadas na leitura do ResultSet. O mesmo
+	 * template passando de DB_REPEATED_QUERY_THRESHOLD execuções na requisição
+	 * gera um aviso de N+1 (uma vez por template)
+	 */
+	public void recordExecution(QueryStats stats, long micros, long rows, boolean failed) {
+		if (RequestContext.recordQuery(stats.template) == repeatedQueryThreshold + 1) {
+			repeatedQueryWarnings.increment();
+			log.warn("Possível N+1 na requisição {} ({} {}): mais de {} execuções de {}", RequestContext.getRequestId(),
+					RequestContext.getMethod(), RequestContext.getRoute(), repeatedQueryThreshold, stats.template);
+		}
+		stats.latency.record(micros);
+		stats.rows.add(rows);
+		if (failed) {
+			stats.errors.increment();
+		}
+		if (micros >= slowQueryMicros) {
+			slowQueries.increment();
+			log.warn("Consulta lenta ({}ms) na requisição {}: {}", micros / 1000, RequestContext.getRequestId(),
+					stats.template);
+		}
+	}
+
+	public void recordAcquire(long micros, boolean failed) {
+		RequestContext.recordConnection();
+		acquire.record(micros);
+		if (failed) {
+			acquireFailures.increment();
+		}
+	}
+
+	/**
+	 * Conexão entregue pelo Db; até o close ela conta como aberta
+	 */
+	public void connectionOpened() {
+		int open = openConnections.incrementAndGet();
+		int peak = peakOpenConnections.get();
+		while (open > peak && !peakOpenConnections.compareAndSet(peak, open)) {
+			peak = peakOpenConnections.get();
+		}
+	}
+
+	public void connectionClosed() {
+		openConnections.decrementAndGet();
+	}
+
+	/**
+	 * Estado das conexões: não há pool (cada getConnection abre uma conexão
+	 * no DriverManager), então "abertas" são as entregues e ainda não
+	 * fechadas; um valor que só cresce indica vazamento
+	 */
+	public Map<String, Object> getConnectionStats() {
+		LatencyHistogram.Snapshot acquired = acquire.snapshot();
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("pool", "DriverManager");
+		stats.put("openConnections", openConnections.get());
+		stats.put("peakOpenConnections", peakOpenConnections.get());
+		stats.put("connectionsAcquired", acquired.getCount());
+		stats.put("connectionAcquireFailures", acquireFailures.sum());
+		stats.put("connectionAcquireP99Ms", acquired.valueAtPercentile(99) / 1000.0);
+		return stats;
+	}
+
+	/**
+	 * Chamado no fim da requisição: avisa quando ela passou de
+	 * DB_REQUEST_QUERY_BUDGET execuções de SQL
+	 */
+	public void checkRequestBudget() {
+		int queries = RequestContext.getQueryCount();
+		if (queries > requestQueryBudget) {
+			overBudgetRequests.increment();
+			log.warn("Requisição {} ({} {}) executou {} consultas em {} conexões, acima do limite de {}",
+					RequestContext.getRequestId(), RequestContext.getMethod(), RequestContext.getRoute(), queries,
+					RequestContext.getConnectionCount(), requestQueryBudget);
+		}
+	}
+
+	/**
+	 * Templates com maior custo, pela ordenação pedida: total (tempo somado),
+	 * p99, max ou count
+	 */
+	public List<Map<String, Object>> getTop(int limit, String sort) {
+		List<Map<String, Object>> all = new ArrayList<>();
+		for (QueryStats stats : queries.values()) {
+			all.add(stats.toMap());
+		}
+		String key;
+		switch (sort == null ? "total" : sort) {
+		case "p99":
+			key = "p99Ms";
+			break;
+		case "max":
+			key = "maxMs";
+			break;
+		case "count":
+			key = "count";
+			break;
+		default:
+			key = "totalMs";
+		}
+		all.sort(Comparator.comparingDouble((Map<String, Object> stats) -> ((Number) stats.get(key)).doubleValue())
+				.reversed());
+		return all.subList(0, Math.min(Math.max(0, limit), all.size()));
+	}
+
+	/**
+	 * Totais para a exposição: conexões obtidas, consultas, falhas e lentas
+	 */
+	public Map<String, Object> getStats() {
+		LatencyHistogram.Snapshot acquired = acquire.snapshot();
+		long executions = 0;
+		long errors = 0;
+		for (QueryStats stats : queries.values()) {
+			executions += stats.latency.snapshot().getCount();
+			errors += stats.errors.sum();
+		}
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("connectionsAcquired", acquired.getCount());
+		stats.put("connectionAcquireFailures", acquireFailures.sum());
+		stats.put("openConnections", openConnections.get());
+		stats.put("connectionAcquireAvgMs",
+				acquired.getCount() == 0 ? 0.0 : acquired.getSumMicros() / 1000.0 / acquired.getCount());
+		stats.put("connectionAcquireP99Ms", acquired.valueAtPercentile(99) / 1000.0);
+		stats.put("connectionAcquireMaxMs", acquired.getMaxMicros() / 1000.0);
+		stats.put("queries", executions);
+		stats.put("queryErrors", errors);
+		stats.put("slowQueries", slowQueries.sum());
+		stats.put("repeatedQueryWarnings", repeatedQueryWarnings.sum());
+		stats.put("overBudgetRequests", overBudgetRequests.sum());
+		stats.put("templates", queries.size());
+		return stats;
+	}
+
+	/**
+	 * Contadores de um template de SQL
+	 */
+	public static final class QueryStats {
+		private final String template;
+		private final LatencyHistogram latency = new LatencyHistogram();
+		private final LongAdder rows = new LongAdder();
+		private final LongAdder errors = new LongAdder();
+
+		private QueryStats(String template) {
+			this.template = template;
+		}
+
+		public String getTemplate() {
+			return template;
+		}
+
+		/**
+		 * Linha lida do ResultSet de uma consulta deste template
+		 */
+		public void addRow() {
+			rows.increment();
+		}
+
+		Map<String, Object> toMap() {
+			LatencyHistogram.Snapshot snapshot = latency.snapshot();
+			long count = snapshot.getCount();
+			Map<String, Object> map = new LinkedHashMap<>();
+			map.put("sql", template);
+			map.put("count", count);
+			map.put("errors", errors.sum());
+			map.put("rows", rows.sum());
+			map.put("avgRows", count == 0 ? 0.0 : rows.sum() / (double) count);
+			map.put("totalMs", snapshot.getSumMicros() / 1000.0);
+			map.put("avgMs", count == 0 ? 0.0 : snapshot.getSumMicros() / 1000.0 / count);
+			map.put("p50Ms", snapshot.valueAtPercentile(50) / 1000.0);
+			map.put("p99Ms", snapshot.valueAtPercentile(99) / 1000.0);
+			map.put("maxMs", snapshot.getMaxMicros() / 1000.0);
+			return map;
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package com.sistema.pedidos.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.RuntimeMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import com.sistema.websocket.NotificacaoWebSocketServer;
+
+/**
+ * Estado do processo para /internal/health: pools de threads registrados
+ * (fila, threads ativas, tarefas concluídas), coletas do GC, heap, threads da
+ * JVM, conexões com o banco e clientes de notificação. Só lê contadores já
+ * mantidos pela JVM e pela aplicação, então pode ser coletado a cada poucos
+ * segundos.
+ */
+public final class RuntimeStats {
+
+	private final Map<String, ThreadPoolExecutor> executors = new ConcurrentSkipListMap<>();
+	private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+	private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+	private final RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+	private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+	private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+	private RuntimeStats() {
+	}
+
+	public static RuntimeStats getInstance() {
+		return SingletonHolder.INSTANCE;
+	}
+
+	private static class SingletonHolder {
+		private static final RuntimeStats INSTANCE = new RuntimeStats();
+	}
+
+	/**
+	 * Inclui um pool de threads no relatório (ex.: o executor HTTP)
+	 */
+	public void registerExecutor(String name, ThreadPoolExecutor executor) {
+		executors.put(name, executor);
+	}
+
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("uptimeMs", runtime.getUptime());
+		stats.put("availableProcessors", os.getAvailableProcessors());
+		stats.put("systemLoadAverage", os.getSystemLoadAverage());
+		stats.put("executors", getExecutorStats());
+		stats.put("gc", getGcStats());
+		stats.put("heap", usage(memory.getHeapMemoryUsage()));
+		stats.put("nonHeap", usage(memory.getNonHeapMemoryUsage()));
+
+		Map<String, Object> jvmThreads = new LinkedHashMap<>();
+		jvmThreads.put("live", threads.getThreadCount());
+		jvmThreads.put("daemon", threads.getDaemonThreadCount());
+		jvmThreads.put("peak", threads.getPeakThreadCount());
+		stats.put("threads", jvmThreads);
+
+		stats.put("database", QueryMetrics.getInstance().getConnectionStats());
+
+		Map<String, Object> notifications = new LinkedHashMap<>();
+		notifications.put("webSocketClients", NotificacaoWebSocketServer.getConnectedClients());
+		notifications.put("sseClients", NotificacaoWebSocketServer.getSseClients());
+		stats.put("notifications", notifications);
+		return stats;
+	}
+
+	private Map<String, Object> getExecutorStats() {
+		Map<String, Object> all = new LinkedHashMap<>();
+		executors.forEach((name, executor) -> {
+			Map<String, Object> pool = new LinkedHashMap<>();
+			pool.put("poolSize", executor.getPoolSize());
+			pool.put("maxPoolSize", executor.getMaximumPoolSize());
+			pool.put("activeThreads", executor.getActiveCount());
+			pool.put("largestPoolSize", executor.getLargestPoolSize());
+			pool.put("queueSize", executor.getQueue().size());
+			pool.put("completedTasks", executor.getCompletedTaskCount());
+			all.put(name, pool);
+		});
+		return all;
+	}
+
+	/**
+	 * Coletas e tempo acumulado por coletor; lastDurationMs quando a JVM expõe
+	 * a última coleta (HotSpot)
+	 */
+	private Map<String, Object> getGcStats() {
+		Map<String, Object> all = new LinkedHashMap<>();
+		for (GarbageCollectorMXBean collector : collectors) {
+			Map<String, Object> gc = new LinkedHashMap<>();
+			gc.put("collections", collector.getCollectionCount());
+			gc.put("timeMs", collector.getCollectionTime());
+			if (collector instanceof com.sun.management.GarbageCollectorMXBean) {
+				com.sun.management.GcInfo last = ((com.sun.management.GarbageCollectorMXBean) collector)
+						.getLastGcInfo();
+				gc.put("lastDurationMs", last != null ? last.getDuration() : 0);
+			}
+			all.put(collector.getName(), gc);
+		}
+		return all;
+	}
+
+	private static Map<String, Object> usage(MemoryUsage usage) {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("usedBytes", usage.getUsed());
+		map.put("committedBytes", usage.getCommitted());
+		map.put("maxBytes", usage.getMax());
+		return map;
+	}
+}
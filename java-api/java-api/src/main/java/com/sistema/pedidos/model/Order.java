@@ -225,6 +225,7 @@ public class Order {
 
     // Classe interna para mensagens do chat
     public static class ChatMessage {
+        private Long id;
         private String message;
         private String sender;
         private LocalDateTime time;
@@ -238,6 +239,14 @@ public class Order {
         }
 
         // Getters e Setters
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
         public String getMessage() {
             return message;
         }
@@ -265,7 +274,8 @@ public class Order {
         @Override
         public String toString() {
             return "ChatMessage{" +
-                    "message='" + message + '\'' +
+                    "id=" + id +
+                    ", message='" + message + '\'' +
                     ", sender='" + sender + '\'' +
                     ", time=" + time +
                     '}';
@@ -3,8 +3,6 @@ package com.sistema.pedidos.model;
 import java.time.LocalDateTime;
 import java.util.Map;
 
-import org.java_websocket.WebSocket;
-
 /**
  * Modelo de dados para Usuário
  */
@@ -21,8 +19,6 @@ public class User {
 	private LocalDateTime createdAt;
 	private LocalDateTime updatedAt;
 
-	private WebSocket webSocket;
-
 	// Construtores
 	public User() {
 		this.active = true;
@@ -146,12 +142,4 @@ public class User {
 		return "User{" + "id=" + id + ", name='" + name + '\'' + ", username='" + username + '\'' + ", profileId="
 				+ profileId + ", active=" + active + ", createdAt=" + createdAt + '}';
 	}
-
-	public WebSocket getWebSocket() {
-		return webSocket;
-	}
-
-	public void setWebSocket(WebSocket webSocket) {
-		this.webSocket = webSocket;
-	}
 }
@@ -0,0 +1,166 @@
+package com.sistema.pedidos.server;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+import com.sun.net.httpserver.Headers;
+
+/**
+ * Requisição HTTP/1.1 lida do buffer da conexão pelo {@link UnifiedServer}
+ */
+final class HttpRequest {
+
+	private final String method;
+	private final String uri;
+	private final String protocol;
+	private final Headers headers;
+	private final byte[] body;
+	private final int consumedBytes;
+
+	private HttpRequest(String method, String uri, String protocol, Headers headers, byte[] body, int consumedBytes) {
+		this.method = method;
+		this.uri = uri;
+		this.protocol = protocol;
+		this.headers = headers;
+		this.body = body;
+		this.consumedBytes = consumedBytes;
+	}
+
+	/**
+	 * Erro de protocolo respondido com o status e a conexão fechada
+	 */
+	static final class BadRequestException extends Exception {
+		private static final long serialVersionUID = 1L;
+		private final int status;
+
+		BadRequestException(int status, String message) {
+			super(message);
+			this.status = status;
+		}
+
+		int getStatus() {
+			return status;
+		}
+	}
+
+	/**
+	 * Lê a primeira requisição completa do buffer, ou retorna null se ainda
+	 * faltam bytes
+	 */
+	static HttpRequest parse(byte[] buffer, int length, int maxHeaderBytes, int maxBodyBytes)
+			throws BadRequestException {
+		int headerEnd = indexOfHeaderEnd(buffer, length);
+		if (headerEnd < 0) {
+			if (length > maxHeaderBytes) {
+				throw new BadRequestException(431, "Cabeçalhos muito grandes");
+			}
+			return null;
+		}
+
+		String[] lines = new String(buffer, 0, headerEnd, StandardCharsets.ISO_8859_1).split("\r\n");
+		String[] requestLine = lines[0].split(" ");
+		if (requestLine.length != 3 || !requestLine[2].startsWith("HTTP/")) {
+			throw new BadRequestException(400, "Linha de requisição inválida");
+		}
+		Headers headers = new Headers();
+		for (int i = 1; i < lines.length; i++) {
+			int colon = lines[i].indexOf(':');
+			if (colon <= 0) {
+				throw new BadRequestException(400, "Cabeçalho inválido");
+			}
+			headers.add(lines[i].substring(0, colon).trim(), lines[i].substring(colon + 1).trim());
+		}
+
+		String transferEncoding = headers.getFirst("Transfer-Encoding");
+		if (transferEncoding != null && !"identity".equalsIgnoreCase(transferEncoding)) {
+			throw new BadRequestException(501, "Transfer-Encoding não suportado");
+		}
+		int contentLength = 0;
+		String declaredLength = headers.getFirst("Content-Length");
+		if (declaredLength != null) {
+			try {
+				contentLength = Integer.parseInt(declaredLength.trim());
+			} catch (NumberFormatException e) {
+				throw new BadRequestException(400, "Content-Length inválido");
+			}
+			if (contentLength < 0) {
+				throw new BadRequestException(400, "Content-Length inválido");
+			}
+			if (contentLength > maxBodyBytes) {
+				throw new BadRequestException(413, "Corpo da requisição muito grande");
+			}
+		}
+
+		int bodyStart = headerEnd + 4;
+		if (length - bodyStart < contentLength) {
+			return null;
+		}
+		byte[] body = Arrays.copyOfRange(buffer, bodyStart, bodyStart + contentLength);
+		return new HttpRequest(requestLine[0], requestLine[1], requestLine[2], headers, body,
+				bodyStart + contentLength);
+	}
+
+	/**
+	 * Cabeçalhos completos com Expect: 100-continue (o cliente espera a
+	 * confirmação antes de enviar o corpo)
+	 */
+	static boolean expectsContinue(byte[] buffer, int length) {
+		int headerEnd = indexOfHeaderEnd(buffer, length);
+		return headerEnd >= 0 && new String(buffer, 0, headerEnd, StandardCharsets.ISO_8859_1)
+				.toLowerCase(Locale.ROOT).contains("\r\nexpect: 100-continue");
+	}
+
+	static boolean hasCompleteHeaders(byte[] buffer, int length) {
+		return indexOfHeaderEnd(buffer, length) >= 0;
+	}
+
+	private static int indexOfHeaderEnd(byte[] buffer, int length) {
+		for (int i = 0; i + 3 < length; i++) {
+			if (buffer[i] == '\r' && buffer[i + 1] == '\n' && buffer[i + 2] == '\r' && buffer[i + 3] == '\n') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	boolean isWebSocketUpgrade() {
+		String upgrade = headers.getFirst("Upgrade");
+		return "GET".equals(method) && upgrade != null && "websocket".equalsIgnoreCase(upgrade.trim());
+	}
+
+	/**
+	 * HTTP/1.1 mantém a conexão por padrão; HTTP/1.0 só com Connection: keep-alive
+	 */
+	boolean isKeepAlive() {
+		String connection = headers.getFirst("Connection");
+		if ("HTTP/1.0".equals(protocol)) {
+			return connection != null && "keep-alive".equalsIgnoreCase(connection.trim());
+		}
+		return connection == null || !"close".equalsIgnoreCase(connection.trim());
+	}
+
+	String getMethod() {
+		return method;
+	}
+
+	String getUri() {
+		return uri;
+	}
+
+	String getProtocol() {
+		return protocol;
+	}
+
+	Headers getHeaders() {
+		return headers;
+	}
+
+	byte[] getBody() {
+		return body;
+	}
+
+	int getConsumedBytes() {
+		return consumedBytes;
+	}
+}
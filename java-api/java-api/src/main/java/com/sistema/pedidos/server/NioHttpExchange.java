@@ -0,0 +1,330 @@
+package com.sistema.pedidos.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+
+/**
+ * HttpExchange do {@link UnifiedServer}, para que os handlers funcionem sem
+ * alteração nos dois modos. A escrita nunca bloqueia a thread do handler: os
+ * bytes vão para a fila da conexão a cada flush() (ou no close()) e o
+ * seletor os envia conforme o socket aceita. Com tamanho 0 em
+ * sendResponseHeaders a resposta segue em chunked, como no HttpServer.
+ * Como no HttpServer, a resposta com cabeçalhos já enviados só termina no
+ * close(), o que permite streams longos como o SSE.
+ */
+final class NioHttpExchange extends HttpExchange implements StreamingExchange {
+
+	private static final byte[] CRLF = { '\r', '\n' };
+	private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+	private final UnifiedServer server;
+	private final UnifiedServer.HttpConnection connection;
+	private final HttpRequest request;
+	private final URI uri;
+	private final boolean keepAlive;
+	private final Headers responseHeaders = new Headers();
+	private final Map<String, Object> attributes = new HashMap<>();
+	private final InetSocketAddress localAddress;
+	private final InetSocketAddress remoteAddress;
+	private InputStream requestBody;
+	private OutputStream responseBody;
+	private final ResponseStream responseStream = new ResponseStream();
+	private int responseCode = -1;
+
+	NioHttpExchange(UnifiedServer server, UnifiedServer.HttpConnection connection, HttpRequest request) {
+		this.server = server;
+		this.connection = connection;
+		this.request = request;
+		this.uri = URI.create(request.getUri());
+		this.keepAlive = request.isKeepAlive();
+		this.localAddress = (InetSocketAddress) connection.getChannel().socket().getLocalSocketAddress();
+		this.remoteAddress = (InetSocketAddress) connection.getChannel().socket().getRemoteSocketAddress();
+		this.requestBody = new ByteArrayInputStream(request.getBody());
+		this.responseBody = responseStream;
+	}
+
+	@Override
+	public Headers getRequestHeaders() {
+		return request.getHeaders();
+	}
+
+	@Override
+	public Headers getResponseHeaders() {
+		return responseHeaders;
+	}
+
+	@Override
+	public URI getRequestURI() {
+		return uri;
+	}
+
+	@Override
+	public String getRequestMethod() {
+		return request.getMethod();
+	}
+
+	@Override
+	public HttpContext getHttpContext() {
+		return null;
+	}
+
+	@Override
+	public void close() {
+		if (responseCode == -1) {
+			abort();
+			return;
+		}
+		try {
+			responseBody.close();
+		} catch (IOException e) {
+			abort();
+		}
+	}
+
+	/**
+	 * Fim do handler: sem cabeçalhos enviados responde 500; uma resposta já
+	 * iniciada continua aberta até o close()
+	 */
+	void finish() {
+		if (responseCode == -1) {
+			abort();
+		}
+	}
+
+	@Override
+	public int getPendingWrites() {
+		return connection.getPendingWrites();
+	}
+
+	@Override
+	public boolean isConnectionOpen() {
+		return connection.getChannel().isOpen();
+	}
+
+	/**
+	 * Handler falhou: responde 500 se ainda não enviou cabeçalhos, senão fecha a
+	 * conexão
+	 */
+	void abort() {
+		if (responseCode == -1) {
+			responseCode = 500;
+			responseStream.closed = true;
+			byte[] head = head(500, -1, true);
+			server.write(connection, ByteBuffer.wrap(head));
+			server.complete(connection, true);
+		} else if (!responseStream.closed) {
+			responseStream.closed = true;
+			server.abort(connection);
+		}
+	}
+
+	@Override
+	public InputStream getRequestBody() {
+		return requestBody;
+	}
+
+	@Override
+	public OutputStream getResponseBody() {
+		return responseBody;
+	}
+
+	@Override
+	public void sendResponseHeaders(int code, long length) throws IOException {
+		if (responseCode != -1) {
+			throw new IOException("Cabeçalhos já enviados");
+		}
+		responseCode = code;
+		boolean noBody = length == -1 || code == 204 || code == 304 || code < 200;
+		responseStream.discard = noBody || "HEAD".equals(request.getMethod());
+		responseStream.chunked = length == 0 && !responseStream.discard;
+		responseStream.pendingHead = head(code, noBody ? -1 : length, false);
+		if (noBody) {
+			responseStream.close();
+		}
+	}
+
+	private byte[] head(int code, long length, boolean forceClose) {
+		StringBuilder head = new StringBuilder(256).append("HTTP/1.1 ").append(code).append(' ')
+				.append(reasonPhrase(code)).append("\r\n");
+		responseHeaders.set("Date", DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC)));
+		if (length > 0) {
+			responseHeaders.set("Content-Length", Long.toString(length));
+		} else if (length == 0) {
+			responseHeaders.set("Transfer-Encoding", "chunked");
+		} else if (code >= 200 && code != 204 && code != 304) {
+			responseHeaders.set("Content-Length", "0");
+		}
+		if (!keepAlive || forceClose) {
+			responseHeaders.set("Connection", "close");
+		}
+		for (Map.Entry<String, List<String>> header : responseHeaders.entrySet()) {
+			for (String value : header.getValue()) {
+				head.append(header.getKey()).append(": ").append(value).append("\r\n");
+			}
+		}
+		return head.append("\r\n").toString().getBytes(StandardCharsets.ISO_8859_1);
+	}
+
+	@Override
+	public InetSocketAddress getRemoteAddress() {
+		return remoteAddress;
+	}
+
+	@Override
+	public int getResponseCode() {
+		return responseCode;
+	}
+
+	@Override
+	public InetSocketAddress getLocalAddress() {
+		return localAddress;
+	}
+
+	@Override
+	public String getProtocol() {
+		return request.getProtocol();
+	}
+
+	@Override
+	public Object getAttribute(String name) {
+		return attributes.get(name);
+	}
+
+	@Override
+	public void setAttribute(String name, Object value) {
+		attributes.put(name, value);
+	}
+
+	@Override
+	public void setStreams(InputStream input, OutputStream output) {
+		if (input != null) {
+			requestBody = input;
+		}
+		if (output != null) {
+			responseBody = output;
+		}
+	}
+
+	@Override
+	public HttpPrincipal getPrincipal() {
+		return null;
+	}
+
+	static String reasonPhrase(int code) {
+		switch (code) {
+		case 100: return "Continue";
+		case 200: return "OK";
+		case 201: return "Created";
+		case 204: return "No Content";
+		case 304: return "Not Modified";
+		case 400: return "Bad Request";
+		case 401: return "Unauthorized";
+		case 403: return "Forbidden";
+		case 404: return "Not Found";
+		case 405: return "Method Not Allowed";
+		case 409: return "Conflict";
+		case 413: return "Payload Too Large";
+		case 429: return "Too Many Requests";
+		case 431: return "Request Header Fields Too Large";
+		case 500: return "Internal Server Error";
+		case 501: return "Not Implemented";
+		case 503: return "Service Unavailable";
+		default: return "";
+		}
+	}
+
+	/**
+	 * Acumula o que o handler escreve e repassa à conexão no flush/close
+	 */
+	private final class ResponseStream extends OutputStream {
+		private final ByteArrayOutputStream pending = new ByteArrayOutputStream(512);
+		private byte[] pendingHead;
+		private boolean chunked;
+		private boolean discard;
+		private boolean closed;
+
+		@Override
+		public void write(int b) throws IOException {
+			ensureOpen();
+			if (!discard) {
+				pending.write(b);
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			ensureOpen();
+			if (!discard) {
+				pending.write(b, off, len);
+			}
+		}
+
+		private void ensureOpen() throws IOException {
+			if (responseCode == -1) {
+				throw new IOException("sendResponseHeaders não foi chamado");
+			}
+			if (closed) {
+				throw new IOException("Resposta já encerrada");
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (!closed) {
+				emit(false);
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (closed) {
+				return;
+			}
+			emit(true);
+			closed = true;
+			server.complete(connection, !keepAlive);
+		}
+
+		private void emit(boolean last) throws IOException {
+			int bodyLength = pending.size();
+			if (bodyLength == 0 && pendingHead == null && !(last && chunked)) {
+				return;
+			}
+			ByteArrayOutputStream frame = new ByteArrayOutputStream(bodyLength + 64);
+			if (pendingHead != null) {
+				frame.writeBytes(pendingHead);
+				pendingHead = null;
+			}
+			if (chunked && bodyLength > 0) {
+				frame.writeBytes((Integer.toHexString(bodyLength) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+				pending.writeTo(frame);
+				frame.writeBytes(CRLF);
+			} else {
+				pending.writeTo(frame);
+			}
+			if (last && chunked) {
+				frame.writeBytes(LAST_CHUNK);
+			}
+			pending.reset();
+			server.write(connection, ByteBuffer.wrap(frame.toByteArray()));
+		}
+	}
+}
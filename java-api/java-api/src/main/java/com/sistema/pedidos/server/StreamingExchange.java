@@ -0,0 +1,16 @@
+package com.sistema.pedidos.server;
+
+/**
+ * Exchange cuja resposta é escrita sem bloquear: cada flush() apenas enfileira
+ * os bytes, e o seletor os envia conforme o socket aceita. Quem mantém a
+ * resposta aberta (SSE) usa a fila pendente como contrapressão.
+ */
+public interface StreamingExchange {
+
+	/**
+	 * Trechos da resposta ainda aguardando o socket
+	 */
+	int getPendingWrites();
+
+	boolean isConnectionOpen();
+}
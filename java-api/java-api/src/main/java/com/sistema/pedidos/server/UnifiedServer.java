@@ -0,0 +1,523 @@
+package com.sistema.pedidos.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.java_websocket.SocketChannelIOHelper;
+import org.java_websocket.WebSocketImpl;
+
+import com.sistema.pedidos.config.ServerConfig;
+import com.sistema.websocket.WebSocketBridge;
+import com.sun.net.httpserver.HttpHandler;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Servidor HTTP e WebSocket na mesma porta (SERVER_MODE=unified). Uma única
+ * thread com um seletor NIO aceita as conexões, lê e escreve; nada bloqueia
+ * nela. Requisições HTTP viram {@link NioHttpExchange} e rodam nos handlers de
+ * sempre, no pool de workers. Pedidos de upgrade passam ao WebSocketImpl da
+ * biblioteca, cuja decodificação também roda no pool, em ordem por conexão.
+ * <p>
+ * Suporta HTTP/1.1 com keep-alive e corpo por Content-Length; corpo em
+ * chunked na requisição não é aceito (501).
+ * <p>
+ * Uma vez por segundo o seletor fecha as conexões HTTP que não completaram os
+ * cabeçalhos em SERVER_HEADER_TIMEOUT_SECONDS (contados do primeiro byte da
+ * requisição, mesmo que o cliente envie aos poucos) e as que ficaram sem
+ * tráfego por SERVER_IDLE_TIMEOUT_SECONDS fora de um handler; 0 desativa.
+ */
+@Slf4j
+public final class UnifiedServer {
+
+	private static final int READ_BUFFER_SIZE = 16 * 1024;
+	private static final int MAX_HEADER_BYTES = 16 * 1024;
+	private static final int MAX_BODY_BYTES = 10 * 1024 * 1024;
+	private static final long SWEEP_INTERVAL_MS = 1000;
+
+	private final InetSocketAddress address;
+	private final HttpHandler handler;
+	private final ExecutorService workers;
+	private final WebSocketBridge webSocket;
+	private final long headerTimeoutNanos;
+	private final long idleTimeoutNanos;
+	private final Queue<Runnable> loopTasks = new ConcurrentLinkedQueue<>();
+	/** Usado só na thread do seletor */
+	private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+
+	private Selector selector;
+	private ServerSocketChannel serverChannel;
+	private volatile boolean running;
+
+	/**
+	 * @param handler raiz das rotas HTTP (o mesmo registrado no HttpServer)
+	 * @param workers pool compartilhado por requisições HTTP e mensagens WebSocket
+	 */
+	public UnifiedServer(InetSocketAddress address, HttpHandler handler, ExecutorService workers) {
+		this.address = address;
+		this.handler = handler;
+		this.workers = workers;
+		ServerConfig config = ServerConfig.getInstance();
+		this.headerTimeoutNanos = TimeUnit.SECONDS.toNanos(config.getServerHeaderTimeoutSeconds());
+		this.idleTimeoutNanos = TimeUnit.SECONDS.toNanos(config.getServerIdleTimeoutSeconds());
+		this.webSocket = new WebSocketBridge(connection -> requestWrite(connection.getSelectionKey()));
+	}
+
+	public void start() throws IOException {
+		selector = Selector.open();
+		serverChannel = ServerSocketChannel.open();
+		serverChannel.configureBlocking(false);
+		serverChannel.socket().setReuseAddress(true);
+		serverChannel.bind(address);
+		serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+		running = true;
+
+		Thread loop = new Thread(this::run, "unified-selector");
+		loop.start();
+	}
+
+	public void stop() {
+		running = false;
+		selector.wakeup();
+	}
+
+	public int getPort() {
+		return serverChannel.socket().getLocalPort();
+	}
+
+	private void run() {
+		long nextSweep = System.nanoTime();
+		while (running) {
+			try {
+				selector.select(SWEEP_INTERVAL_MS);
+				Runnable task;
+				while ((task = loopTasks.poll()) != null) {
+					task.run();
+				}
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					handle(key);
+				}
+				long now = System.nanoTime();
+				if (now - nextSweep >= 0) {
+					closeExpired(now);
+					nextSweep = now + TimeUnit.MILLISECONDS.toNanos(SWEEP_INTERVAL_MS);
+				}
+			} catch (Exception e) {
+				log.error("Erro no seletor do servidor unificado", e);
+			}
+		}
+		closeAll();
+	}
+
+	/**
+	 * Fecha conexões HTTP lentas demais para enviar os cabeçalhos ou paradas;
+	 * as que esperam um handler ficam, a menos que a resposta já esteja
+	 * completa e o cliente tenha parado de ler
+	 */
+	private void closeExpired(long now) {
+		for (SelectionKey key : selector.keys()) {
+			Object attachment = key.attachment();
+			if (!key.isValid() || !(attachment instanceof HttpConnection)) {
+				continue;
+			}
+			HttpConnection connection = (HttpConnection) attachment;
+			if (connection.inFlight && !connection.responseComplete) {
+				continue;
+			}
+			boolean headersLate = headerTimeoutNanos > 0 && !connection.inFlight && connection.length > 0
+					&& now - connection.requestStartedAt > headerTimeoutNanos
+					&& !HttpRequest.hasCompleteHeaders(connection.buffer, connection.length);
+			boolean idle = idleTimeoutNanos > 0 && now - connection.lastActivity > idleTimeoutNanos;
+			if (headersLate || idle) {
+				log.debug("Fechando conexão {} ({})", connection.channel.socket().getRemoteSocketAddress(),
+						headersLate ? "cabeçalhos incompletos" : "ociosa");
+				close(key);
+			}
+		}
+	}
+
+	private void handle(SelectionKey key) {
+		try {
+			if (!key.isValid()) {
+				return;
+			}
+			if (key.isAcceptable()) {
+				accept();
+				return;
+			}
+			Object attachment = key.attachment();
+			if (attachment instanceof WebSocketConnection) {
+				WebSocketConnection connection = (WebSocketConnection) attachment;
+				if (key.isReadable()) {
+					readWebSocket(connection);
+				}
+				if (key.isValid() && key.isWritable()) {
+					writeWebSocket(connection);
+				}
+			} else {
+				HttpConnection connection = (HttpConnection) attachment;
+				if (key.isReadable()) {
+					readHttp(connection);
+				}
+				if (key.isValid() && key.isWritable()) {
+					writeHttp(connection);
+				}
+			}
+		} catch (CancelledKeyException e) {
+			// Conexão fechada por outra thread
+		} catch (IOException e) {
+			close(key);
+		}
+	}
+
+	private void accept() throws IOException {
+		SocketChannel channel;
+		while ((channel = serverChannel.accept()) != null) {
+			channel.configureBlocking(false);
+			channel.socket().setTcpNoDelay(true);
+			SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+			key.attach(new HttpConnection(channel, key));
+		}
+	}
+
+	// --- HTTP ---
+
+	private void readHttp(HttpConnection connection) throws IOException {
+		readBuffer.clear();
+		int read = connection.channel.read(readBuffer);
+		if (read < 0) {
+			close(connection.key);
+			return;
+		}
+		readBuffer.flip();
+		connection.lastActivity = System.nanoTime();
+		if (connection.length == 0) {
+			connection.requestStartedAt = connection.lastActivity;
+		}
+		connection.append(readBuffer);
+		processRequest(connection);
+	}
+
+	/**
+	 * Interpreta a próxima requisição acumulada. Enquanto ela é atendida a
+	 * conexão para de ler; requisições em pipeline esperam no buffer.
+	 */
+	private void processRequest(HttpConnection connection) {
+		if (connection.inFlight) {
+			return;
+		}
+		HttpRequest request;
+		try {
+			request = HttpRequest.parse(connection.buffer, connection.length, MAX_HEADER_BYTES, MAX_BODY_BYTES);
+		} catch (HttpRequest.BadRequestException e) {
+			connection.inFlight = true;
+			connection.key.interestOps(0);
+			sendError(connection, e.getStatus(), e.getMessage());
+			return;
+		}
+		if (request == null) {
+			if (connection.awaitsContinue()) {
+				connection.continueSent = true;
+				write(connection, ByteBuffer.wrap("HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.US_ASCII)));
+			}
+			return;
+		}
+
+		if (request.isWebSocketUpgrade()) {
+			upgrade(connection);
+			return;
+		}
+
+		connection.consume(request.getConsumedBytes());
+		// Requisição seguinte já no buffer (pipeline): o prazo conta a partir daqui
+		connection.requestStartedAt = System.nanoTime();
+		connection.inFlight = true;
+		connection.continueSent = false;
+		connection.key.interestOps(0);
+		NioHttpExchange exchange = new NioHttpExchange(this, connection, request);
+		workers.execute(() -> {
+			try {
+				handler.handle(exchange);
+			} catch (Throwable e) {
+				log.error("Erro ao processar {} {}", request.getMethod(), request.getUri(), e);
+				exchange.abort();
+			} finally {
+				exchange.finish();
+			}
+		});
+	}
+
+	private void sendError(HttpConnection connection, int status, String message) {
+		byte[] body = message.getBytes(StandardCharsets.UTF_8);
+		String head = "HTTP/1.1 " + status + " " + NioHttpExchange.reasonPhrase(status) + "\r\n"
+				+ "Content-Type: text/plain; charset=utf-8\r\nContent-Length: " + body.length
+				+ "\r\nConnection: close\r\n\r\n";
+		byte[] headBytes = head.getBytes(StandardCharsets.US_ASCII);
+		ByteBuffer response = ByteBuffer.allocate(headBytes.length + body.length).put(headBytes).put(body);
+		response.flip();
+		write(connection, response);
+		complete(connection, true);
+	}
+
+	/**
+	 * Bytes de resposta de qualquer thread; a escrita acontece no seletor
+	 */
+	void write(HttpConnection connection, ByteBuffer data) {
+		connection.out.add(data);
+		requestWrite(connection.key);
+	}
+
+	/**
+	 * Marca a resposta como completa depois dos bytes já enfileirados
+	 */
+	void complete(HttpConnection connection, boolean closeAfter) {
+		loopTasks.add(() -> {
+			connection.responseComplete = true;
+			connection.closeAfterResponse |= closeAfter;
+			if (connection.key.isValid()) {
+				connection.key.interestOps(SelectionKey.OP_WRITE);
+			}
+		});
+		selector.wakeup();
+	}
+
+	/**
+	 * Fecha a conexão sem resposta, como o HttpServer faz quando o handler não
+	 * envia os cabeçalhos
+	 */
+	void abort(HttpConnection connection) {
+		loopTasks.add(() -> close(connection.key));
+		selector.wakeup();
+	}
+
+	private void writeHttp(HttpConnection connection) throws IOException {
+		ByteBuffer next;
+		while ((next = connection.out.peek()) != null) {
+			if (connection.channel.write(next) > 0) {
+				connection.lastActivity = System.nanoTime();
+			}
+			if (next.hasRemaining()) {
+				return;
+			}
+			connection.out.poll();
+		}
+		if (!connection.responseComplete) {
+			// Resposta em andamento (streaming) aguarda mais bytes do handler; antes
+			// da requisição completa (100 Continue) volta a ler o corpo
+			connection.key.interestOps(connection.inFlight ? 0 : SelectionKey.OP_READ);
+			return;
+		}
+		if (connection.closeAfterResponse) {
+			close(connection.key);
+			return;
+		}
+		connection.inFlight = false;
+		connection.responseComplete = false;
+		connection.lastActivity = System.nanoTime();
+		connection.key.interestOps(SelectionKey.OP_READ);
+		processRequest(connection);
+	}
+
+	private void requestWrite(SelectionKey key) {
+		loopTasks.add(() -> {
+			if (key.isValid()) {
+				key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+			}
+		});
+		selector.wakeup();
+	}
+
+	// --- WebSocket ---
+
+	private void upgrade(HttpConnection http) {
+		WebSocketImpl socket = webSocket.newConnection(http.channel, http.key);
+		WebSocketConnection connection = new WebSocketConnection(socket);
+		http.key.attach(connection);
+		// A biblioteca refaz a leitura do handshake a partir dos bytes brutos
+		connection.submit(ByteBuffer.wrap(Arrays.copyOf(http.buffer, http.length)));
+	}
+
+	/**
+	 * Lê no buffer da conexão e o entrega ao decodificador; a leitura fica
+	 * suspensa até ele devolver o buffer, o que também limita o que um cliente
+	 * acumula à frente de um decodificador lento
+	 */
+	private void readWebSocket(WebSocketConnection connection) throws IOException {
+		SelectionKey key = connection.socket.getSelectionKey();
+		ByteBuffer data = connection.readBuffer;
+		data.clear();
+		int read = ((SocketChannel) connection.socket.getChannel()).read(data);
+		if (read < 0) {
+			key.interestOps(0);
+			connection.submit(WebSocketConnection.END_OF_STREAM);
+			return;
+		}
+		if (read == 0) {
+			return;
+		}
+		data.flip();
+		connection.readPaused = true;
+		key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+		connection.submit(data);
+	}
+
+	private void resumeWebSocketRead(WebSocketConnection connection) {
+		loopTasks.add(() -> {
+			connection.readPaused = false;
+			SelectionKey key = connection.socket.getSelectionKey();
+			if (key.isValid()) {
+				key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+			}
+		});
+		selector.wakeup();
+	}
+
+	private void writeWebSocket(WebSocketConnection connection) throws IOException {
+		SelectionKey key = connection.socket.getSelectionKey();
+		if (SocketChannelIOHelper.batch(connection.socket, connection.socket.getChannel()) && key.isValid()) {
+			key.interestOps(connection.readPaused ? 0 : SelectionKey.OP_READ);
+		}
+	}
+
+	private void close(SelectionKey key) {
+		Object attachment = key.attachment();
+		if (attachment instanceof WebSocketConnection) {
+			((WebSocketConnection) attachment).submit(WebSocketConnection.END_OF_STREAM);
+			return;
+		}
+		key.cancel();
+		try {
+			key.channel().close();
+		} catch (IOException e) {
+			log.debug("Falha ao fechar conexão", e);
+		}
+	}
+
+	private void closeAll() {
+		for (SelectionKey key : selector.keys()) {
+			close(key);
+		}
+		try {
+			serverChannel.close();
+			selector.close();
+		} catch (IOException e) {
+			log.debug("Falha ao fechar o seletor", e);
+		}
+	}
+
+	/**
+	 * Estado de uma conexão HTTP; os campos não voláteis são usados só na thread
+	 * do seletor
+	 */
+	static final class HttpConnection {
+		private final SocketChannel channel;
+		private final SelectionKey key;
+		private final Queue<ByteBuffer> out = new ConcurrentLinkedQueue<>();
+		private byte[] buffer = new byte[1024];
+		private int length;
+		private boolean inFlight;
+		private boolean continueSent;
+		private boolean responseComplete;
+		private boolean closeAfterResponse;
+		private long lastActivity = System.nanoTime();
+		private long requestStartedAt;
+
+		HttpConnection(SocketChannel channel, SelectionKey key) {
+			this.channel = channel;
+			this.key = key;
+		}
+
+		SocketChannel getChannel() {
+			return channel;
+		}
+
+		int getPendingWrites() {
+			return out.size();
+		}
+
+		private void append(ByteBuffer data) {
+			int needed = length + data.remaining();
+			if (needed > buffer.length) {
+				buffer = Arrays.copyOf(buffer, Math.max(needed, buffer.length * 2));
+			}
+			data.get(buffer, length, data.remaining());
+			length = needed;
+		}
+
+		private void consume(int bytes) {
+			System.arraycopy(buffer, bytes, buffer, 0, length - bytes);
+			length -= bytes;
+		}
+
+		private boolean awaitsContinue() {
+			return !continueSent && HttpRequest.expectsContinue(buffer, length);
+		}
+	}
+
+	/**
+	 * Conexão após o upgrade. Os bytes lidos pelo seletor são decodificados no
+	 * pool de workers, um lote por vez e na ordem de chegada.
+	 */
+	private final class WebSocketConnection {
+		private static final ByteBuffer END_OF_STREAM = ByteBuffer.allocate(0);
+
+		private final WebSocketImpl socket;
+		private final Queue<ByteBuffer> inbound = new ConcurrentLinkedQueue<>();
+		private final AtomicBoolean decoding = new AtomicBoolean();
+		/** Reaproveitado a cada leitura; com readPaused, está com o decodificador */
+		private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+		/** Usado só na thread do seletor */
+		private boolean readPaused;
+
+		WebSocketConnection(WebSocketImpl socket) {
+			this.socket = socket;
+		}
+
+		void submit(ByteBuffer data) {
+			inbound.add(data);
+			if (decoding.compareAndSet(false, true)) {
+				workers.execute(this::decode);
+			}
+		}
+
+		private void decode() {
+			do {
+				ByteBuffer data;
+				while ((data = inbound.poll()) != null) {
+					try {
+						if (data == END_OF_STREAM) {
+							socket.eot();
+						} else {
+							socket.decode(data);
+						}
+					} catch (RuntimeException e) {
+						log.warn("Falha ao decodificar mensagem WebSocket", e);
+						socket.eot();
+					} finally {
+						if (data == readBuffer) {
+							resumeWebSocketRead(this);
+						}
+					}
+				}
+				decoding.set(false);
+			} while (!inbound.isEmpty() && decoding.compareAndSet(false, true));
+		}
+	}
+}
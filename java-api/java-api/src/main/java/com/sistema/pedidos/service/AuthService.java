@@ -7,6 +7,7 @@ import com.sistema.pedidos.dto.LoginRequest;
 import com.sistema.pedidos.dto.LoginResponse;
 import com.sistema.pedidos.model.Profile;
 import com.sistema.pedidos.model.User;
+import com.sistema.pedidos.tracing.Tracer;
 import com.sistema.pedidos.util.JwtUtil;
 
 /**
@@ -16,6 +17,7 @@ public class AuthService {
 
 	private final UserService userService;
 	private final ProfileService profileService;
+	private final Tracer tracer = Tracer.getInstance();
 
 	// Cache de tokens ativos
 	private final Map<String, String> activeTokens = new HashMap<>();
@@ -79,6 +81,10 @@ public class AuthService {
 	 * Valida um token JWT
 	 */
 	public boolean validateToken(String token) {
+		return tracer.inSpan("AuthService.validateToken", () -> doValidateToken(token));
+	}
+
+	private boolean doValidateToken(String token) {
 		if (token == null || token.trim().isEmpty()) {
 			return false;
 		}
@@ -101,6 +107,10 @@ public class AuthService {
 	 * Obtém o usuário a partir do token
 	 */
 	public User getUserFromToken(String token) {
+		return tracer.inSpan("AuthService.getUserFromToken", () -> doGetUserFromToken(token));
+	}
+
+	private User doGetUserFromToken(String token) {
 		if (!validateToken(token)) {
 			return null;
 		}
@@ -12,10 +12,13 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import com.sistema.pedidos.context.RequestContext;
 import com.sistema.pedidos.enums.Permissions;
+import com.sistema.pedidos.jfr.ReportEvent;
 import com.sistema.pedidos.model.Order;
 import com.sistema.pedidos.model.Product;
 import com.sistema.pedidos.model.User;
+import com.sistema.pedidos.tracing.Tracer;
 
 /**
  * Serviço de métricas e relatórios
@@ -24,6 +27,7 @@ public class MetricsService {
 
 	private final OrderService orderService;
 	private final ProductService productService;
+	private final Tracer tracer = Tracer.getInstance();
 
 	public MetricsService(OrderService orderService, ProductService productService) {
 		this.orderService = orderService;
@@ -34,6 +38,12 @@ public class MetricsService {
 	 * Obtém métricas do dashboard
 	 */
 	public Map<String, Object> getDashboardMetrics() {
+		return tracer.inSpan("MetricsService.getDashboardMetrics", this::doGetDashboardMetrics);
+	}
+
+	private Map<String, Object> doGetDashboardMetrics() {
+		ReportEvent event = new ReportEvent();
+		event.begin();
 		Map<String, Object> metrics = new HashMap<>();
 
 		List<Order> allOrders = null;
@@ -68,6 +78,7 @@ public class MetricsService {
 		metrics.put("pedidosPorStatus", pedidosPorStatus);
 		metrics.put("faturamentoMensal", faturamentoMensal);
 
+		commitReportEvent(event, "dashboard", null, allOrders.size());
 		return metrics;
 	}
 
@@ -75,6 +86,12 @@ public class MetricsService {
 	 * Obtém relatórios detalhados
 	 */
 	public Map<String, Object> getReports(String period) {
+		return tracer.inSpan("MetricsService.getReports", () -> doGetReports(period));
+	}
+
+	private Map<String, Object> doGetReports(String period) {
+		ReportEvent event = new ReportEvent();
+		event.begin();
 		Map<String, Object> reports = new HashMap<>();
 
 		LocalDateTime endDate = LocalDateTime.now();
@@ -122,14 +139,33 @@ public class MetricsService {
 		reports.put("topProdutos", getTopProductsTable(finishedOrders));
 		reports.put("resumoPorCategoria", getCategorySummary(finishedOrders));
 
+		commitReportEvent(event, "reports", period, ordersInPeriod.size() + previousOrders.size());
 		return reports;
 	}
 
+	/**
+	 * Evento JFR com o tempo de montagem do relatório
+	 */
+	private void commitReportEvent(ReportEvent event, String report, String period, int orders) {
+		event.end();
+		if (event.shouldCommit()) {
+			event.requestId = RequestContext.getRequestId();
+			event.report = report;
+			event.period = period;
+			event.orders = orders;
+			event.commit();
+		}
+	}
+
 	/**
 	 * Calcula faturamento mensal
 	 */
 
 	public List<BigDecimal> calculateMonthlyRevenue(int months) {
+		return tracer.inSpan("MetricsService.calculateMonthlyRevenue", () -> doCalculateMonthlyRevenue(months));
+	}
+
+	private List<BigDecimal> doCalculateMonthlyRevenue(int months) {
 		List<BigDecimal> revenue = new ArrayList<>();
 		Map<Integer, BigDecimal> monthlyData = new HashMap<>(); // Mês (1-12) -> Revenue
 		LocalDateTime now = LocalDateTime.now();
@@ -292,6 +328,10 @@ public class MetricsService {
 	 * Gera dados para gráfico de vendas
 	 */
 	private Map<String, Object> generateSalesChart(String period, LocalDateTime startDate, LocalDateTime endDate) {
+		return tracer.inSpan("MetricsService.generateSalesChart", () -> doGenerateSalesChart(period, startDate, endDate));
+	}
+
+	private Map<String, Object> doGenerateSalesChart(String period, LocalDateTime startDate, LocalDateTime endDate) {
 		Map<String, Object> chartData = new HashMap<>();
 		List<String> labels = new ArrayList<>();
 		List<BigDecimal> values = new ArrayList<>();
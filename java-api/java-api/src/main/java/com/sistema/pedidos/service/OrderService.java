@@ -5,19 +5,23 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.sistema.pedidos.model.Order;
 import com.sistema.pedidos.model.Order.ChatMessage;
 import com.sistema.pedidos.model.Order.OrderItem;
 import com.sistema.pedidos.model.Product;
+import com.sistema.pedidos.tracing.Tracer;
 import com.sistema.pedidos.util.Db;
 
 /**
@@ -25,9 +29,17 @@ import com.sistema.pedidos.util.Db;
  */
 public class OrderService {
 
+	/** Pedidos por consulta de itens e de chat (tamanho da lista IN) */
+	private static final int DETAIL_BATCH_SIZE = 500;
+
 	private final ProductService productService;
+	private final Tracer tracer = Tracer.getInstance();
 	private int orderCounter = 1;
 
+	/** Versão do quadro de pedidos, incrementada a cada escrita (base para ETags) */
+	private final AtomicLong orderBoardVersion = new AtomicLong();
+	private final long versionEpoch = System.currentTimeMillis();
+
 	public OrderService(ProductService productService) {
 		this.productService = productService;
 		initializeOrderCounter();
@@ -114,10 +126,21 @@ public class OrderService {
 		return timestamp + String.format("%04d", orderCounter++);
 	}
 
+	/**
+	 * Versão atual do quadro de pedidos
+	 */
+	public String getOrderBoardVersion() {
+		return Long.toString(versionEpoch, 36) + "-" + orderBoardVersion.get();
+	}
+
 	/**
 	 * Busca todos os pedidos
 	 */
 	public List<Order> findAll() {
+		return tracer.inSpan("OrderService.findAll", this::doFindAll);
+	}
+
+	private List<Order> doFindAll() {
 		List<Order> orders = new ArrayList<>();
 		String sql = "SELECT * FROM orders ORDER BY created_at DESC";
 
@@ -126,11 +149,9 @@ public class OrderService {
 				ResultSet rs = stmt.executeQuery()) {
 
 			while (rs.next()) {
-				Order order = mapResultSetToOrder(rs);
-				order.setItems(findOrderItems(order.getId()));
-				order.setChat(findOrderChatMessages(order.getId()));
-				orders.add(order);
+				orders.add(mapResultSetToOrder(rs));
 			}
+			loadDetails(conn, orders);
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
@@ -142,6 +163,10 @@ public class OrderService {
 	 * Busca pedido por ID
 	 */
 	public Order findById(String id) {
+		return tracer.inSpan("OrderService.findById", () -> doFindById(id));
+	}
+
+	private Order doFindById(String id) {
 		String sql = "SELECT * FROM orders WHERE id = ?";
 
 		try (Connection conn = Db.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -150,8 +175,7 @@ public class OrderService {
 			try (ResultSet rs = stmt.executeQuery()) {
 				if (rs.next()) {
 					Order order = mapResultSetToOrder(rs);
-					order.setItems(findOrderItems(id));
-					order.setChat(findOrderChatMessages(id));
+					loadDetails(conn, Collections.singletonList(order));
 					return order;
 				}
 			}
@@ -174,12 +198,10 @@ public class OrderService {
 			stmt.setString(1, status);
 			try (ResultSet rs = stmt.executeQuery()) {
 				while (rs.next()) {
-					Order order = mapResultSetToOrder(rs);
-					order.setItems(findOrderItems(order.getId()));
-					order.setChat(findOrderChatMessages(order.getId()));
-					orders.add(order);
+					orders.add(mapResultSetToOrder(rs));
 				}
 			}
+			loadDetails(conn, orders);
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
@@ -199,12 +221,10 @@ public class OrderService {
 			stmt.setString(1, type);
 			try (ResultSet rs = stmt.executeQuery()) {
 				while (rs.next()) {
-					Order order = mapResultSetToOrder(rs);
-					order.setItems(findOrderItems(order.getId()));
-					order.setChat(findOrderChatMessages(order.getId()));
-					orders.add(order);
+					orders.add(mapResultSetToOrder(rs));
 				}
 			}
+			loadDetails(conn, orders);
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
@@ -224,12 +244,10 @@ public class OrderService {
 			stmt.setString(1, "%" + customer.toLowerCase() + "%");
 			try (ResultSet rs = stmt.executeQuery()) {
 				while (rs.next()) {
-					Order order = mapResultSetToOrder(rs);
-					order.setItems(findOrderItems(order.getId()));
-					order.setChat(findOrderChatMessages(order.getId()));
-					orders.add(order);
+					orders.add(mapResultSetToOrder(rs));
 				}
 			}
+			loadDetails(conn, orders);
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
@@ -241,6 +259,10 @@ public class OrderService {
 	 * Busca pedidos por período
 	 */
 	public List<Order> findByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+		return tracer.inSpan("OrderService.findByDateRange", () -> doFindByDateRange(startDate, endDate));
+	}
+
+	private List<Order> doFindByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
 		List<Order> orders = new ArrayList<>();
 		String sql = "SELECT * FROM orders WHERE created_at >= ? AND created_at <= ? ORDER BY created_at DESC";
 
@@ -251,12 +273,10 @@ public class OrderService {
 
 			try (ResultSet rs = stmt.executeQuery()) {
 				while (rs.next()) {
-					Order order = mapResultSetToOrder(rs);
-					order.setItems(findOrderItems(order.getId()));
-					order.setChat(findOrderChatMessages(order.getId()));
-					orders.add(order);
+					orders.add(mapResultSetToOrder(rs));
 				}
 			}
+			loadDetails(conn, orders);
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
@@ -268,6 +288,10 @@ public class OrderService {
 	 * Cria um novo pedido
 	 */
 	public Order create(Order order) {
+		return tracer.inSpan("OrderService.create", () -> doCreate(order));
+	}
+
+	private Order doCreate(Order order) {
 		// Validar dados
 		validateOrder(order);
 
@@ -290,6 +314,7 @@ public class OrderService {
 
 		// Salvar no banco
 		saveOrderToDatabase(order);
+		orderBoardVersion.incrementAndGet();
 
 		return order;
 	}
@@ -326,14 +351,41 @@ public class OrderService {
 
 		// Atualizar no banco
 		updateOrderInDatabase(existingOrder);
+		orderBoardVersion.incrementAndGet();
 
 		return existingOrder;
 	}
 
+	/**
+	 * Resultado de {@link #updateStatus}: o pedido com o status novo e a mensagem
+	 * de chat gravada com a mudança (null se a gravação falhou)
+	 */
+	public static final class StatusUpdate {
+		private final Order order;
+		private final ChatMessage chatMessage;
+
+		private StatusUpdate(Order order, ChatMessage chatMessage) {
+			this.order = order;
+			this.chatMessage = chatMessage;
+		}
+
+		public Order getOrder() {
+			return order;
+		}
+
+		public ChatMessage getChatMessage() {
+			return chatMessage;
+		}
+	}
+
 	/**
 	 * Atualiza o status de um pedido
 	 */
-	public Order updateStatus(String id, String newStatus) {
+	public StatusUpdate updateStatus(String id, String newStatus) {
+		return tracer.inSpan("OrderService.updateStatus", () -> doUpdateStatus(id, newStatus));
+	}
+
+	private StatusUpdate doUpdateStatus(String id, String newStatus) {
 		Order order = findById(id);
 		if (order == null) {
 			throw new IllegalArgumentException("Pedido não encontrado");
@@ -349,32 +401,37 @@ public class OrderService {
 
 		// Atualizar no banco
 		updateOrderStatusInDatabase(id, newStatus);
+		orderBoardVersion.incrementAndGet();
 
 		// Adicionar mensagem automática no chat
 		String message = String.format("Status alterado de '%s' para '%s'", getStatusName(oldStatus),
 				getStatusName(newStatus));
-		addChatMessage(id, message, "system");
+		ChatMessage statusMessage = addChatMessage(id, message, "system");
+		if (statusMessage != null) {
+			order.getChat().add(statusMessage);
+		}
 
-		return order;
+		return new StatusUpdate(order, statusMessage);
 	}
 
 	/**
-	 * Adiciona mensagem ao chat do pedido
+	 * Adiciona mensagem ao chat do pedido e retorna a mensagem gravada, com o id
+	 * gerado pelo banco (null se a gravação falhou)
 	 */
-	public Order addChatMessage(String orderId, String message, String sender) {
+	public Order.ChatMessage addChatMessage(String orderId, String message, String sender) {
 		Order order = findById(orderId);
 		if (order == null) {
 			throw new IllegalArgumentException("Pedido não encontrado");
 		}
 
 		// Salvar mensagem no banco
-		saveChatMessage(orderId, message, sender);
+		Order.ChatMessage saved = saveChatMessage(orderId, message, sender);
 
 		// Atualizar updated_at do pedido
 		updateOrderTimestamp(orderId);
+		orderBoardVersion.incrementAndGet();
 
-		// Recarregar order com as mensagens atualizadas
-		return findById(orderId);
+		return saved;
 	}
 
 	/**
@@ -397,6 +454,9 @@ public class OrderService {
 
 			stmt.setString(1, id);
 			int rowsAffected = stmt.executeUpdate();
+			if (rowsAffected > 0) {
+				orderBoardVersion.incrementAndGet();
+			}
 			return rowsAffected > 0;
 
 		} catch (SQLException e) {
@@ -459,6 +519,11 @@ public class OrderService {
 	 */
 	public List<Order> findWithFilters(String customer, String status, String type, LocalDateTime startDate,
 			LocalDateTime endDate) {
+		return tracer.inSpan("OrderService.findWithFilters", () -> doFindWithFilters(customer, status, type, startDate, endDate));
+	}
+
+	private List<Order> doFindWithFilters(String customer, String status, String type, LocalDateTime startDate,
+			LocalDateTime endDate) {
 		List<Order> orders = new ArrayList<>();
 		StringBuilder sql = new StringBuilder("SELECT * FROM orders WHERE 1=1");
 		List<Object> params = new ArrayList<>();
@@ -498,12 +563,10 @@ public class OrderService {
 
 			try (ResultSet rs = stmt.executeQuery()) {
 				while (rs.next()) {
-					Order order = mapResultSetToOrder(rs);
-					order.setItems(findOrderItems(order.getId()));
-					order.setChat(findOrderChatMessages(order.getId()));
-					orders.add(order);
+					orders.add(mapResultSetToOrder(rs));
 				}
 			}
+			loadDetails(conn, orders);
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
@@ -631,66 +694,82 @@ public class OrderService {
 		}
 	}
 
-	private List<OrderItem> findOrderItems(String orderId) {
-		List<OrderItem> items = new ArrayList<>();
-		String sql = "SELECT * FROM order_items WHERE order_id = ?";
-
-		try (Connection conn = Db.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+	/**
+	 * Preenche itens e chat dos pedidos na mesma conexão: uma consulta por
+	 * tabela a cada DETAIL_BATCH_SIZE pedidos, em vez de duas por pedido
+	 */
+	private void loadDetails(Connection conn, List<Order> orders) throws SQLException {
+		Map<String, Order> byId = new HashMap<>();
+		for (Order order : orders) {
+			order.setItems(new ArrayList<>());
+			order.setChat(new ArrayList<>());
+			byId.put(order.getId(), order);
+		}
+		for (int start = 0; start < orders.size(); start += DETAIL_BATCH_SIZE) {
+			List<Order> batch = orders.subList(start, Math.min(orders.size(), start + DETAIL_BATCH_SIZE));
+			String placeholders = String.join(", ", Collections.nCopies(batch.size(), "?"));
+
+			String itemsSql = "SELECT * FROM order_items WHERE order_id IN (" + placeholders + ")";
+			try (PreparedStatement stmt = conn.prepareStatement(itemsSql)) {
+				bindOrderIds(stmt, batch);
+				try (ResultSet rs = stmt.executeQuery()) {
+					while (rs.next()) {
+						OrderItem item = new OrderItem();
+						item.setProductId(rs.getLong("product_id"));
+						item.setProductName(rs.getString("product_name"));
+						item.setQuantity(rs.getInt("quantity"));
+						item.setPrice(rs.getBigDecimal("unit_price"));
+						byId.get(rs.getString("order_id")).getItems().add(item);
+					}
+				}
+			}
 
-			stmt.setString(1, orderId);
-			try (ResultSet rs = stmt.executeQuery()) {
-				while (rs.next()) {
-					OrderItem item = new OrderItem();
-					item.setProductId(rs.getLong("product_id"));
-					item.setProductName(rs.getString("product_name"));
-					item.setQuantity(rs.getInt("quantity"));
-					item.setPrice(rs.getBigDecimal("unit_price"));
-					items.add(item);
+			String chatSql = "SELECT * FROM order_chat_messages WHERE order_id IN (" + placeholders
+					+ ") ORDER BY created_at ASC, id ASC";
+			try (PreparedStatement stmt = conn.prepareStatement(chatSql)) {
+				bindOrderIds(stmt, batch);
+				try (ResultSet rs = stmt.executeQuery()) {
+					while (rs.next()) {
+						ChatMessage message = new ChatMessage(rs.getString("message"), rs.getString("sender"),
+								rs.getTimestamp("created_at").toLocalDateTime());
+						message.setId(rs.getLong("id"));
+						byId.get(rs.getString("order_id")).getChat().add(message);
+					}
 				}
 			}
-		} catch (SQLException e) {
-			e.printStackTrace();
 		}
+	}
 
-		return items;
+	private void bindOrderIds(PreparedStatement stmt, List<Order> orders) throws SQLException {
+		for (int i = 0; i < orders.size(); i++) {
+			stmt.setString(i + 1, orders.get(i).getId());
+		}
 	}
 
-	private void saveChatMessage(String orderId, String message, String sender) {
+	private ChatMessage saveChatMessage(String orderId, String message, String sender) {
 		String sql = "INSERT INTO order_chat_messages (order_id, sender, message, created_at) VALUES (?, ?, ?, ?)";
+		ChatMessage saved = new ChatMessage(message, sender, LocalDateTime.now());
 
-		try (Connection conn = Db.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+		try (Connection conn = Db.getConnection();
+				PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
 			stmt.setString(1, orderId);
 			stmt.setString(2, sender);
 			stmt.setString(3, message);
-			stmt.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+			stmt.setTimestamp(4, Timestamp.valueOf(saved.getTime()));
 
 			stmt.executeUpdate();
 
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-	}
-
-	private List<ChatMessage> findOrderChatMessages(String orderId) {
-		List<ChatMessage> messages = new ArrayList<>();
-		String sql = "SELECT * FROM order_chat_messages WHERE order_id = ? ORDER BY created_at ASC";
-
-		try (Connection conn = Db.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-			stmt.setString(1, orderId);
-			try (ResultSet rs = stmt.executeQuery()) {
-				while (rs.next()) {
-					ChatMessage message = new ChatMessage(rs.getString("message"), rs.getString("sender"),
-							rs.getTimestamp("created_at").toLocalDateTime());
-					messages.add(message);
+			try (ResultSet keys = stmt.getGeneratedKeys()) {
+				if (keys.next()) {
+					saved.setId(keys.getLong(1));
 				}
 			}
+			return saved;
 		} catch (SQLException e) {
 			e.printStackTrace();
+			return null;
 		}
-
-		return messages;
 	}
 
 	private Order mapResultSetToOrder(ResultSet rs) throws SQLException {
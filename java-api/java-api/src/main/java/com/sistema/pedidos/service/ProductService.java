@@ -9,12 +9,21 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.sistema.pedidos.model.Product;
 import com.sistema.pedidos.util.Db;
 
 public class ProductService {
 
+	/** Versão do cardápio, incrementada a cada escrita (base para ETags) */
+	private final AtomicLong catalogVersion = new AtomicLong();
+	private final long versionEpoch = System.currentTimeMillis();
+
+	public String getCatalogVersion() {
+		return Long.toString(versionEpoch, 36) + "-" + catalogVersion.get();
+	}
+
 	/** CREATE */
 	public Product create(Product product) throws Exception {
 		validateProduct(product);
@@ -40,6 +49,7 @@ public class ProductService {
 				}
 			}
 		}
+		catalogVersion.incrementAndGet();
 
 		return findById(product.getId()); // retorna com createdAt/updatedAt preenchidos
 	}
@@ -153,6 +163,7 @@ public class ProductService {
 			stmt.setLong(6, id);
 			stmt.executeUpdate();
 		}
+		catalogVersion.incrementAndGet();
 
 		return findById(id);
 	}
@@ -163,7 +174,11 @@ public class ProductService {
 		try (Connection conn = Db.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
 
 			stmt.setLong(1, id);
-			return stmt.executeUpdate() > 0;
+			boolean deleted = stmt.executeUpdate() > 0;
+			if (deleted) {
+				catalogVersion.incrementAndGet();
+			}
+			return deleted;
 		}
 	}
 
@@ -180,6 +195,7 @@ public class ProductService {
 			stmt.setLong(2, id);
 			stmt.executeUpdate();
 		}
+		catalogVersion.incrementAndGet();
 
 		return findById(id);
 	}
@@ -9,13 +9,20 @@ import java.util.List;
 import java.util.Map;
 
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.sistema.pedidos.model.Profile;
 import com.sistema.pedidos.util.Db; // sua classe de conexão
+import com.sistema.pedidos.util.JsonCodec;
 
 public class ProfileService {
 
-	private final ObjectMapper objectMapper = new ObjectMapper();
+	private static final ObjectReader PERMISSIONS_READER = JsonCodec.getInstance().getMapper()
+			.readerFor(new TypeReference<Map<String, Boolean>>() {
+			});
+	private static final ObjectWriter PERMISSIONS_WRITER = JsonCodec.getInstance().getMapper()
+			.writerFor(new TypeReference<Map<String, Boolean>>() {
+			});
 
 	/** CREATE */
 	public Profile create(Profile profile) throws Exception {
@@ -31,7 +38,7 @@ public class ProfileService {
 
 			stmt.setString(1, profile.getName());
 			stmt.setString(2, profile.getDescription());
-			stmt.setString(3, objectMapper.writeValueAsString(profile.getPermissions()));
+			stmt.setString(3, PERMISSIONS_WRITER.writeValueAsString(profile.getPermissions()));
 			stmt.setString(4, profile.getDefaultUsername());
 			stmt.executeUpdate();
 
@@ -104,7 +111,7 @@ public class ProfileService {
 
 			stmt.setString(1, updatedProfile.getName());
 			stmt.setString(2, updatedProfile.getDescription());
-			stmt.setString(3, objectMapper.writeValueAsString(updatedProfile.getPermissions()));
+			stmt.setString(3, PERMISSIONS_WRITER.writeValueAsString(updatedProfile.getPermissions()));
 			stmt.setString(4, updatedProfile.getDefaultUsername());
 			stmt.setLong(5, id);
 			stmt.executeUpdate();
@@ -137,8 +144,7 @@ public class ProfileService {
 		profile.setDescription(rs.getString("description"));
 		profile.setDefaultUsername(rs.getString("default_username"));
 		String permJson = rs.getString("permissions");
-		Map<String, Boolean> permissions = objectMapper.readValue(permJson, new TypeReference<Map<String, Boolean>>() {
-		});
+		Map<String, Boolean> permissions = PERMISSIONS_READER.readValue(permJson);
 		profile.setPermissions(permissions);
 		profile.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
 		profile.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
@@ -0,0 +1,100 @@
+package com.sistema.pedidos.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Trecho de uma requisição: nome, ids do trace, do próprio span e do pai,
+ * início e duração. Usado em try-with-resources; ao fechar, volta a ser
+ * corrente o span pai e o span vai para o buffer do {@link Tracer}.
+ */
+public final class Span implements AutoCloseable {
+
+	/** Span retornado fora de uma requisição ou com o tracing desligado */
+	static final Span NOOP = new Span(null, null, null, null, null, null);
+
+	private final Tracer tracer;
+	private final String traceId;
+	private final String spanId;
+	private final String parentId;
+	private final String name;
+	private final Span parent;
+	private final long startEpochMicros;
+	private final long startNanos;
+	private long durationMicros = -1;
+	private Map<String, Object> attributes;
+
+	Span(Tracer tracer, String traceId, String spanId, String parentId, String name, Span parent) {
+		this.tracer = tracer;
+		this.traceId = traceId;
+		this.spanId = spanId;
+		this.parentId = parentId;
+		this.name = name;
+		this.parent = parent;
+		this.startEpochMicros = System.currentTimeMillis() * 1000;
+		this.startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Acrescenta um atributo (ex.: sql, http.status); ignorado no span vazio
+	 */
+	public Span setAttribute(String key, Object value) {
+		if (tracer == null) {
+			return this;
+		}
+		if (attributes == null) {
+			attributes = new LinkedHashMap<>(4);
+		}
+		attributes.put(key, value);
+		return this;
+	}
+
+	@Override
+	public void close() {
+		if (tracer == null || durationMicros >= 0) {
+			return;
+		}
+		durationMicros = (System.nanoTime() - startNanos) / 1000;
+		tracer.finish(this);
+	}
+
+	public String getTraceId() {
+		return traceId;
+	}
+
+	public String getSpanId() {
+		return spanId;
+	}
+
+	public String getParentId() {
+		return parentId;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Span pai no mesmo processo; null na raiz da requisição, mesmo quando o
+	 * trace veio de outro serviço pelo traceparent
+	 */
+	Span getParent() {
+		return parent;
+	}
+
+	public long getStartEpochMicros() {
+		return startEpochMicros;
+	}
+
+	long getStartNanos() {
+		return startNanos;
+	}
+
+	public long getDurationMicros() {
+		return durationMicros;
+	}
+
+	Map<String, Object> getAttributes() {
+		return attributes;
+	}
+}
@@ -0,0 +1,231 @@
+package com.sistema.pedidos.tracing;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.sistema.pedidos.config.ServerConfig;
+import com.sistema.pedidos.context.RequestContext;
+
+/**
+ * Tracing em memória no formato dos traces distribuídos: o BaseHandler abre o
+ * span raiz de cada requisição (continuando o trace do cabeçalho traceparent,
+ * quando presente) e os services e a camada de banco abrem spans filhos do
+ * span corrente, guardado no {@link RequestContext}. Spans encerrados vão para
+ * um buffer circular de TRACE_BUFFER_SIZE posições, lido por /internal/traces.
+ */
+public final class Tracer {
+
+	private static final Pattern TRACEPARENT = Pattern.compile("00-([0-9a-f]{32})-([0-9a-f]{16})-[0-9a-f]{2}");
+	private static final String INVALID_TRACE_ID = "00000000000000000000000000000000";
+
+	private final boolean enabled;
+	private final AtomicReferenceArray<Span> buffer;
+	private final int mask;
+	private final AtomicLong recorded = new AtomicLong();
+
+	private Tracer(ServerConfig config) {
+		this.enabled = config.isTracingEnabled();
+		int capacity = Integer.highestOneBit(Math.max(2, config.getTraceBufferSize() - 1)) << 1;
+		this.buffer = new AtomicReferenceArray<>(capacity);
+		this.mask = capacity - 1;
+	}
+
+	public static Tracer getInstance() {
+		return SingletonHolder.INSTANCE;
+	}
+
+	private static class SingletonHolder {
+		private static final Tracer INSTANCE = new Tracer(ServerConfig.getInstance());
+	}
+
+	/**
+	 * Abre o span raiz da requisição atual; o RequestContext já deve estar
+	 * inicializado
+	 */
+	public Span startRequest(String name, String traceparent) {
+		if (!enabled) {
+			return Span.NOOP;
+		}
+		String traceId = null;
+		String parentId = null;
+		if (traceparent != null) {
+			Matcher matcher = TRACEPARENT.matcher(traceparent.trim());
+			if (matcher.matches() && !INVALID_TRACE_ID.equals(matcher.group(1))) {
+				traceId = matcher.group(1);
+				parentId = matcher.group(2);
+			}
+		}
+		if (traceId == null) {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			traceId = hex(random.nextLong()) + hex(random.nextLong());
+		}
+		Span span = new Span(this, traceId, newSpanId(), parentId, name, null);
+		RequestContext.setCurrentSpan(span);
+		return span;
+	}
+
+	/**
+	 * Abre um span filho do span corrente; fora de uma requisição (threads de
+	 * fundo) retorna um span vazio, que não é gravado
+	 */
+	public Span startSpan(String name) {
+		Span parent = RequestContext.getCurrentSpan();
+		if (parent == null) {
+			return Span.NOOP;
+		}
+		Span span = new Span(this, parent.getTraceId(), newSpanId(), parent.getSpanId(), name, parent);
+		RequestContext.setCurrentSpan(span);
+		return span;
+	}
+
+	/**
+	 * Executa o trecho dentro de um span filho do corrente, fechado mesmo
+	 * quando o trecho lança exceção
+	 */
+	public <T> T inSpan(String name, Supplier<T> body) {
+		Span span = startSpan(name);
+		try {
+			return body.get();
+		} finally {
+			span.close();
+		}
+	}
+
+	void finish(Span span) {
+		if (RequestContext.getCurrentSpan() == span) {
+			RequestContext.setCurrentSpan(span.getParent());
+		}
+		buffer.set((int) (recorded.getAndIncrement() & mask), span);
+	}
+
+	/**
+	 * Requisições mais recentes ainda no buffer, com pelo menos minMicros de
+	 * duração
+	 */
+	public List<Map<String, Object>> getTraces(int limit, long minMicros) {
+		List<Span> spans = snapshot();
+		Map<String, Integer> spanCounts = new HashMap<>();
+		List<Span> roots = new ArrayList<>();
+		for (Span span : spans) {
+			spanCounts.merge(span.getTraceId(), 1, Integer::sum);
+			if (span.getParent() == null && span.getDurationMicros() >= minMicros) {
+				roots.add(span);
+			}
+		}
+		roots.sort(Comparator.comparingLong(Span::getStartEpochMicros).reversed());
+
+		List<Map<String, Object>> traces = new ArrayList<>();
+		for (Span root : roots.subList(0, Math.min(Math.max(0, limit), roots.size()))) {
+			Map<String, Object> trace = new LinkedHashMap<>();
+			trace.put("traceId", root.getTraceId());
+			trace.put("name", root.getName());
+			trace.put("startedAt", Instant.ofEpochMilli(root.getStartEpochMicros() / 1000).toString());
+			trace.put("durationMs", root.getDurationMicros() / 1000.0);
+			trace.put("spans", spanCounts.get(root.getTraceId()));
+			if (root.getAttributes() != null) {
+				trace.put("attributes", root.getAttributes());
+			}
+			traces.add(trace);
+		}
+		return traces;
+	}
+
+	/**
+	 * Árvore de spans de um trace, ou null se ele não está mais no buffer.
+	 * selfMs é o tempo do span fora dos filhos.
+	 */
+	public Map<String, Object> getTrace(String traceId) {
+		List<Span> spans = new ArrayList<>();
+		for (Span span : snapshot()) {
+			if (span.getTraceId().equals(traceId)) {
+				spans.add(span);
+			}
+		}
+		if (spans.isEmpty()) {
+			return null;
+		}
+		spans.sort(Comparator.comparingLong(Span::getStartNanos));
+		long origin = spans.get(0).getStartNanos();
+
+		Map<String, Map<String, Object>> nodes = new HashMap<>();
+		for (Span span : spans) {
+			Map<String, Object> node = new LinkedHashMap<>();
+			node.put("name", span.getName());
+			node.put("spanId", span.getSpanId());
+			node.put("parentId", span.getParentId());
+			node.put("startOffsetMs", (span.getStartNanos() - origin) / 1e6);
+			node.put("durationMs", span.getDurationMicros() / 1000.0);
+			node.put("selfMs", span.getDurationMicros());
+			if (span.getAttributes() != null) {
+				node.put("attributes", span.getAttributes());
+			}
+			node.put("children", new ArrayList<Map<String, Object>>());
+			nodes.put(span.getSpanId(), node);
+		}
+
+		List<Map<String, Object>> roots = new ArrayList<>();
+		for (Span span : spans) {
+			Map<String, Object> node = nodes.get(span.getSpanId());
+			Map<String, Object> parent = span.getParentId() != null ? nodes.get(span.getParentId()) : null;
+			if (parent == null) {
+				roots.add(node);
+				continue;
+			}
+			children(parent).add(node);
+			parent.put("selfMs", (Long) parent.get("selfMs") - span.getDurationMicros());
+		}
+		// selfMs foi acumulado em microssegundos
+		for (Map<String, Object> node : nodes.values()) {
+			node.put("selfMs", (Long) node.get("selfMs") / 1000.0);
+		}
+
+		Map<String, Object> trace = new LinkedHashMap<>();
+		trace.put("traceId", traceId);
+		trace.put("spans", roots);
+		return trace;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Map<String, Object>> children(Map<String, Object> node) {
+		return (List<Map<String, Object>>) node.get("children");
+	}
+
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("enabled", enabled);
+		stats.put("capacity", buffer.length());
+		stats.put("recordedSpans", recorded.get());
+		return stats;
+	}
+
+	private List<Span> snapshot() {
+		List<Span> spans = new ArrayList<>(buffer.length());
+		for (int i = 0; i < buffer.length(); i++) {
+			Span span = buffer.get(i);
+			if (span != null) {
+				spans.add(span);
+			}
+		}
+		return spans;
+	}
+
+	private static String newSpanId() {
+		return hex(ThreadLocalRandom.current().nextLong());
+	}
+
+	private static String hex(long value) {
+		String digits = Long.toHexString(value);
+		return digits.length() == 16 ? digits : "0000000000000000".substring(digits.length()) + digits;
+	}
+}
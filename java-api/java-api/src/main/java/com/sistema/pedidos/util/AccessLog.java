@@ -0,0 +1,108 @@
+package com.sistema.pedidos.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Log de acesso estruturado: uma linha JSON por requisição no logger
+ * "access", que o logback.xml grava por um AsyncAppender para não prender a
+ * thread da requisição no disco. A linha é montada num StringBuilder
+ * reaproveitado por thread, sem mapas nem serialização via Jackson.
+ */
+public final class AccessLog {
+
+	private static final Logger ACCESS = LoggerFactory.getLogger("access");
+	private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private AccessLog() {
+	}
+
+	public static boolean isEnabled() {
+		return ACCESS.isInfoEnabled();
+	}
+
+	/**
+	 * Registra a requisição concluída; route é o template da rota, não o
+	 * caminho, para que as linhas possam ser agrupadas
+	 */
+	public static void log(String requestId, String method, String route, int status, long bytes,
+			long latencyMicros, Long userId, String clientIp) {
+		StringBuilder line = BUFFER.get();
+		line.setLength(0);
+		line.append("{\"ts\":").append(System.currentTimeMillis());
+		appendField(line, "requestId", requestId);
+		appendField(line, "method", method);
+		appendField(line, "route", route);
+		line.append(",\"status\":").append(status);
+		line.append(",\"bytes\":").append(bytes);
+		line.append(",\"latencyUs\":").append(latencyMicros);
+		line.append(",\"userId\":");
+		if (userId != null) {
+			line.append(userId.longValue());
+		} else {
+			line.append("null");
+		}
+		appendField(line, "ip", clientIp);
+		line.append('}');
+		ACCESS.info(line.toString());
+	}
+
+	private static void appendField(StringBuilder line, String name, String value) {
+		line.append(",\"").append(name).append("\":");
+		if (value == null) {
+			line.append("null");
+			return;
+		}
+		line.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				line.append('\\').append(c);
+			} else if (c < 0x20) {
+				line.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xf]);
+			} else {
+				line.append(c);
+			}
+		}
+		line.append('"');
+	}
+
+	/**
+	 * Corpo da resposta que conta os bytes escritos (já comprimidos, quando
+	 * for o caso), instalado com HttpExchange.setStreams
+	 */
+	public static final class CountingOutputStream extends FilterOutputStream {
+		private long count;
+
+		public CountingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
+
+		@Override
+		public void close() throws IOException {
+			// Sem o flush do FilterOutputStream: antes dos cabeçalhos ele falharia
+			out.close();
+		}
+	}
+}
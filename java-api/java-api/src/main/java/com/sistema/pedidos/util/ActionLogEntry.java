@@ -0,0 +1,33 @@
+package com.sistema.pedidos.util;
+
+/**
+ * Linha de system_logs aguardando gravação. O horário é o da chamada, não o
+ * da gravação em lote.
+ */
+final class ActionLogEntry {
+
+	final long createdAt;
+	final String level;
+	final String action;
+	final String message;
+	final String actorUsername;
+	final Long actorUserId;
+	final String ip;
+	final String metadata;
+
+	ActionLogEntry(long createdAt, String level, String action, String message, String actorUsername, Long actorUserId,
+			String ip, String metadata) {
+		this.createdAt = createdAt;
+		this.level = level;
+		this.action = action;
+		this.message = message;
+		this.actorUsername = actorUsername;
+		this.actorUserId = actorUserId;
+		this.ip = ip;
+		this.metadata = metadata;
+	}
+
+	boolean isInfo() {
+		return "INFO".equalsIgnoreCase(level) || "DEBUG".equalsIgnoreCase(level);
+	}
+}
@@ -0,0 +1,469 @@
+package com.sistema.pedidos.util;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Transbordo local de system_logs: segmentos append-only mapeados em memória,
+ * usados quando o banco não dá conta ou está fora. A escrita é uma cópia para
+ * o mapeamento (sobrevive a uma queda do processo sem esperar o disco) e os
+ * registros são reenviados ao banco na ordem em que entraram.
+ * <p>
+ * Cada segmento começa com um cabeçalho (marca e posição já reenviada) seguido
+ * de registros [tamanho][crc32][dados]; tamanho 0 marca o fim do que foi
+ * escrito, e um registro com CRC inválido (escrita interrompida) também.
+ * <p>
+ * Um segmento só é apagado depois de desmapeado: no Windows o arquivo de um
+ * mapeamento ativo não pode ser removido. Os já reenviados saem da fila na
+ * hora e são desmapeados e apagados no próximo {@link #force()}, que é quem
+ * ainda pode estar usando o mapeamento.
+ */
+@Slf4j
+final class ActionLogWal {
+
+	private static final int MAGIC = 0x534c5731; // "SLW1"
+	private static final int HEADER_BYTES = 16;
+	private static final int READ_OFFSET_POSITION = 8;
+	private static final int RECORD_HEADER_BYTES = 8;
+	private static final String SEGMENT_PREFIX = "segment-";
+	private static final String SEGMENT_SUFFIX = ".wal";
+	/** Unsafe.invokeCleaner, para liberar o mapeamento sem esperar o GC; null se indisponível */
+	private static final Method INVOKE_CLEANER;
+	private static final Object UNSAFE;
+
+	static {
+		Method invokeCleaner = null;
+		Object unsafe = null;
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Field field = unsafeClass.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			unsafe = field.get(null);
+			invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			log.warn("Desmapeamento explícito indisponível; segmentos só serão liberados pelo GC", e);
+		}
+		INVOKE_CLEANER = invokeCleaner;
+		UNSAFE = unsafe;
+	}
+
+	private final Path directory;
+	private final int segmentBytes;
+	private final int maxSegments;
+	/** Segmentos do mais antigo (sendo reenviado) ao mais novo (recebendo escritas) */
+	private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+	/** Já reenviados, fora da fila, esperando o próximo force() para serem apagados */
+	private final List<Segment> retired = new ArrayList<>();
+	private final Object forceLock = new Object();
+	private long nextSegmentId;
+	private long pendingRecords;
+	private boolean dirty;
+
+	private ActionLogWal(Path directory, int segmentBytes, int maxSegments) {
+		this.directory = directory;
+		this.segmentBytes = Math.max(64 * 1024, segmentBytes);
+		this.maxSegments = Math.max(1, maxSegments);
+	}
+
+	/**
+	 * Abre o diretório e recupera os segmentos de uma execução anterior, com o
+	 * que ainda não foi reenviado
+	 */
+	static ActionLogWal open(Path directory, int segmentBytes, int maxSegments) throws IOException {
+		ActionLogWal wal = new ActionLogWal(directory, segmentBytes, maxSegments);
+		wal.recover();
+		return wal;
+	}
+
+	private void recover() throws IOException {
+		Files.createDirectories(directory);
+		List<Path> files = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+				SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+			for (Path file : stream) {
+				files.add(file);
+			}
+		}
+		Collections.sort(files);
+		for (Path file : files) {
+			Segment segment;
+			try {
+				segment = Segment.recover(file, segmentId(file));
+			} catch (IOException e) {
+				log.warn("Segmento de transbordo ilegível ignorado: {}", file, e);
+				continue;
+			}
+			if (segment == null) {
+				log.warn("Segmento de transbordo inválido ignorado: {}", file);
+				continue;
+			}
+			nextSegmentId = Math.max(nextSegmentId, segment.id + 1);
+			if (segment.isFullyRead()) {
+				// Se não der para apagar agora, é reaberto e apagado na próxima partida
+				segment.delete();
+				continue;
+			}
+			segments.addLast(segment);
+			pendingRecords += segment.pendingRecords;
+		}
+		if (pendingRecords > 0) {
+			log.info("Transbordo de system_logs com {} entradas pendentes em {} segmentos", pendingRecords,
+					segments.size());
+		}
+	}
+
+	private static long segmentId(Path file) {
+		String name = file.getFileName().toString();
+		try {
+			return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Acrescenta as entradas ao fim do arquivo e retorna quantas couberam
+	 * (o restante só falha com o limite de segmentos atingido)
+	 */
+	synchronized int append(List<ActionLogEntry> entries) {
+		int appended = 0;
+		for (ActionLogEntry entry : entries) {
+			byte[] record = encode(entry);
+			Segment active = segments.peekLast();
+			if (active == null || active.remaining() < RECORD_HEADER_BYTES + record.length) {
+				active = roll(record.length);
+				if (active == null) {
+					break;
+				}
+			}
+			active.write(record);
+			appended++;
+		}
+		pendingRecords += appended;
+		dirty |= appended > 0;
+		return appended;
+	}
+
+	private Segment roll(int recordLength) {
+		dropConsumed();
+		if (segments.size() >= maxSegments) {
+			return null;
+		}
+		int size = Math.max(segmentBytes, HEADER_BYTES + RECORD_HEADER_BYTES + recordLength);
+		Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSegmentId, SEGMENT_SUFFIX));
+		try {
+			Segment segment = Segment.create(file, nextSegmentId, size);
+			nextSegmentId++;
+			segments.addLast(segment);
+			return segment;
+		} catch (IOException e) {
+			log.error("Falha ao criar segmento de transbordo {}", file, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Próximas entradas pendentes, na ordem de escrita, sem marcá-las como
+	 * reenviadas
+	 */
+	synchronized Pending peek(int max) {
+		dropConsumed();
+		Segment oldest = segments.peekFirst();
+		if (oldest == null || oldest.isFullyRead()) {
+			return null;
+		}
+		List<ActionLogEntry> entries = new ArrayList<>(Math.min(max, 256));
+		List<Integer> endOffsets = new ArrayList<>(Math.min(max, 256));
+		int offset = oldest.readOffset;
+		while (entries.size() < max && offset < oldest.writeOffset) {
+			ByteBuffer view = oldest.buffer.duplicate();
+			int length = view.getInt(offset);
+			view.position(offset + RECORD_HEADER_BYTES).limit(offset + RECORD_HEADER_BYTES + length);
+			entries.add(decode(view.slice()));
+			offset += RECORD_HEADER_BYTES + length;
+			endOffsets.add(offset);
+		}
+		return new Pending(oldest, entries, endOffsets);
+	}
+
+	/**
+	 * Marca como reenviadas as primeiras {@code count} entradas lidas em
+	 * {@link #peek(int)}; o segmento reenviado por inteiro é apagado no
+	 * próximo {@link #force()}
+	 */
+	synchronized void commit(Pending pending, int count) {
+		if (count <= 0) {
+			return;
+		}
+		Segment segment = pending.segment;
+		segment.setReadOffset(pending.endOffsets.get(count - 1));
+		pendingRecords -= count;
+		dirty = true;
+		dropConsumed();
+	}
+
+	/**
+	 * Tira da fila os segmentos antigos já reenviados por inteiro; o último
+	 * fica recebendo escritas
+	 */
+	private void dropConsumed() {
+		while (segments.size() > 1 && segments.peekFirst().isFullyRead()) {
+			retired.add(segments.removeFirst());
+		}
+	}
+
+	/**
+	 * Leva ao disco o que foi escrito desde a última chamada e apaga os
+	 * segmentos já reenviados. As chamadas não se sobrepõem: um segmento
+	 * retirado da fila durante um force() só é desmapeado no seguinte.
+	 */
+	void force() {
+		synchronized (forceLock) {
+			List<Segment> toForce;
+			List<Segment> toDelete;
+			synchronized (this) {
+				if (!dirty && retired.isEmpty()) {
+					return;
+				}
+				toForce = dirty ? new ArrayList<>(segments) : Collections.emptyList();
+				toDelete = new ArrayList<>(retired);
+				retired.clear();
+				dirty = false;
+			}
+			for (Segment segment : toForce) {
+				segment.buffer.force();
+			}
+			for (Segment segment : toDelete) {
+				segment.delete();
+			}
+		}
+	}
+
+	/**
+	 * Libera o mapeamento já, em vez de esperar o GC coletar o buffer
+	 */
+	private static void unmap(MappedByteBuffer buffer) {
+		if (INVOKE_CLEANER == null) {
+			return;
+		}
+		try {
+			INVOKE_CLEANER.invoke(UNSAFE, buffer);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			log.warn("Falha ao desmapear segmento de transbordo", e);
+		}
+	}
+
+	synchronized long getPendingRecords() {
+		return pendingRecords;
+	}
+
+	synchronized int getSegmentCount() {
+		return segments.size();
+	}
+
+	private static byte[] encode(ActionLogEntry entry) {
+		byte[][] strings = { bytes(entry.level), bytes(entry.action), bytes(entry.message),
+				bytes(entry.actorUsername), bytes(entry.ip), bytes(entry.metadata) };
+		int size = 8 + 1 + 8;
+		for (byte[] value : strings) {
+			size += 4 + (value != null ? value.length : 0);
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+		buffer.putLong(entry.createdAt);
+		buffer.put((byte) (entry.actorUserId != null ? 1 : 0));
+		buffer.putLong(entry.actorUserId != null ? entry.actorUserId : 0L);
+		for (byte[] value : strings) {
+			buffer.putInt(value != null ? value.length : -1);
+			if (value != null) {
+				buffer.put(value);
+			}
+		}
+		return buffer.array();
+	}
+
+	private static ActionLogEntry decode(ByteBuffer buffer) {
+		long createdAt = buffer.getLong();
+		boolean hasUserId = buffer.get() == 1;
+		long userId = buffer.getLong();
+		String level = string(buffer);
+		String action = string(buffer);
+		String message = string(buffer);
+		String actorUsername = string(buffer);
+		String ip = string(buffer);
+		String metadata = string(buffer);
+		return new ActionLogEntry(createdAt, level, action, message, actorUsername, hasUserId ? userId : null, ip,
+				metadata);
+	}
+
+	private static byte[] bytes(String value) {
+		return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+	}
+
+	private static String string(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] value = new byte[length];
+		buffer.get(value);
+		return new String(value, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Entradas lidas de um segmento e a posição final de cada uma
+	 */
+	static final class Pending {
+		private final Segment segment;
+		private final List<ActionLogEntry> entries;
+		private final List<Integer> endOffsets;
+
+		private Pending(Segment segment, List<ActionLogEntry> entries, List<Integer> endOffsets) {
+			this.segment = segment;
+			this.entries = entries;
+			this.endOffsets = endOffsets;
+		}
+
+		List<ActionLogEntry> getEntries() {
+			return entries;
+		}
+	}
+
+	private static final class Segment {
+		private final long id;
+		private final Path path;
+		/** null depois de desmapeado */
+		private MappedByteBuffer buffer;
+		private int readOffset;
+		private int writeOffset;
+		private long pendingRecords;
+
+		private Segment(long id, Path path, MappedByteBuffer buffer) {
+			this.id = id;
+			this.path = path;
+			this.buffer = buffer;
+		}
+
+		static Segment create(Path path, long id, int size) throws IOException {
+			Segment segment = new Segment(id, path, map(path, size));
+			segment.buffer.putInt(0, MAGIC);
+			segment.setReadOffset(HEADER_BYTES);
+			segment.writeOffset = HEADER_BYTES;
+			return segment;
+		}
+
+		/**
+		 * Reabre um segmento existente e encontra o fim do que foi escrito
+		 * conferindo o CRC de cada registro
+		 */
+		static Segment recover(Path path, long id) throws IOException {
+			long size = Files.size(path);
+			if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+				return null;
+			}
+			Segment segment = new Segment(id, path, map(path, (int) size));
+			if (segment.buffer.getInt(0) != MAGIC) {
+				segment.release();
+				return null;
+			}
+			int readOffset = (int) segment.buffer.getLong(READ_OFFSET_POSITION);
+			int offset = HEADER_BYTES;
+			long pending = 0;
+			while (offset + RECORD_HEADER_BYTES <= size) {
+				int length = segment.buffer.getInt(offset);
+				if (length <= 0 || offset + RECORD_HEADER_BYTES + length > size
+						|| segment.buffer.getInt(offset + 4) != crc(segment.buffer, offset + RECORD_HEADER_BYTES, length)) {
+					break;
+				}
+				offset += RECORD_HEADER_BYTES + length;
+				if (offset > readOffset) {
+					pending++;
+				}
+			}
+			segment.readOffset = Math.min(Math.max(readOffset, HEADER_BYTES), offset);
+			segment.writeOffset = offset;
+			segment.pendingRecords = pending;
+			return segment;
+		}
+
+		private static MappedByteBuffer map(Path path, int size) throws IOException {
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+					StandardOpenOption.WRITE)) {
+				return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			}
+		}
+
+		/**
+		 * Desmapeia o segmento; nenhum acesso ao buffer pode vir depois
+		 */
+		void release() {
+			MappedByteBuffer mapped = buffer;
+			buffer = null;
+			if (mapped != null) {
+				unmap(mapped);
+			}
+		}
+
+		/**
+		 * Desmapeia e apaga o arquivo; uma falha fica no log e o arquivo é
+		 * recuperado (e apagado de novo) na próxima abertura
+		 */
+		void delete() {
+			release();
+			try {
+				Files.deleteIfExists(path);
+			} catch (IOException e) {
+				log.warn("Falha ao apagar segmento de transbordo {}", path, e);
+			}
+		}
+
+		int remaining() {
+			return buffer.capacity() - writeOffset;
+		}
+
+		/**
+		 * Dados e CRC primeiro, tamanho por último: na leitura, um registro
+		 * só existe depois de completo
+		 */
+		void write(byte[] record) {
+			ByteBuffer view = buffer.duplicate();
+			view.position(writeOffset + RECORD_HEADER_BYTES);
+			view.put(record);
+			buffer.putInt(writeOffset + 4, crc(buffer, writeOffset + RECORD_HEADER_BYTES, record.length));
+			buffer.putInt(writeOffset, record.length);
+			writeOffset += RECORD_HEADER_BYTES + record.length;
+		}
+
+		void setReadOffset(int offset) {
+			readOffset = offset;
+			buffer.putLong(READ_OFFSET_POSITION, offset);
+		}
+
+		boolean isFullyRead() {
+			return readOffset >= writeOffset;
+		}
+
+		private static int crc(MappedByteBuffer buffer, int offset, int length) {
+			ByteBuffer view = buffer.duplicate();
+			view.position(offset).limit(offset + length);
+			CRC32 crc = new CRC32();
+			crc.update(view);
+			return (int) crc.getValue();
+		}
+	}
+}
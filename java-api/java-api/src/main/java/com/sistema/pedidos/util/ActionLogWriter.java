@@ -0,0 +1,484 @@
+package com.sistema.pedidos.util;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import com.sistema.pedidos.config.ServerConfig;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fila limitada e sem locks entre as requisições e o banco: o
+ * {@link ActionLogger} só enfileira, e uma thread grava em lotes com um INSERT
+ * de várias linhas. Com a fila cheia vale a política configurada em
+ * ACTION_LOG_OVERFLOW.
+ * <p>
+ * Se o banco estiver fora, os lotes vão para o {@link ActionLogWal} e são
+ * reenviados quando ele voltar. Enquanto houver transbordo pendente as
+ * entradas novas entram atrás dele, para chegarem ao banco na ordem.
+ * <p>
+ * Quem escreve no transbordo é só a thread do gravador: com a fila cheia e a
+ * política SPILL, as requisições deixam a entrada numa fila sem limite e sem
+ * locks, que a thread leva ao transbordo depois do que já estava na fila. No
+ * desligamento essa fila recebe tudo o que chegar e é esvaziada por
+ * {@link #shutdown()}, depois que a thread termina.
+ */
+@Slf4j
+final class ActionLogWriter implements Runnable {
+
+	/**
+	 * O que fazer com uma entrada que não cabe na fila
+	 */
+	enum OverflowPolicy {
+		/** Descarta a entrada nova */
+		DROP,
+		/** Acima de metade da fila mantém só 1 a cada N entradas INFO; cheia, descarta */
+		SAMPLE,
+		/** Grava a entrada no transbordo local */
+		SPILL;
+
+		static OverflowPolicy fromName(String name) {
+			if ("sample".equalsIgnoreCase(name)) {
+				return SAMPLE;
+			}
+			return "spill".equalsIgnoreCase(name) ? SPILL : DROP;
+		}
+	}
+
+	private static final String INSERT_PREFIX = "INSERT INTO system_logs "
+			+ "(level, action, message, actor_username, actor_user_id, ip, metadata, created_at) VALUES ";
+	private static final String ROW_PLACEHOLDERS = "(?,?,?,?,?,?,?,?)";
+	private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+	private static final long MIN_RETRY_MS = 1000;
+	private static final long MAX_RETRY_MS = 30000;
+
+	private final Queue<ActionLogEntry> queue = new ConcurrentLinkedQueue<>();
+	/** Entradas que não couberam na fila (política SPILL) ou chegaram no desligamento, a caminho do transbordo */
+	private final Queue<ActionLogEntry> overflowQueue = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger depth = new AtomicInteger();
+	private final int capacity;
+	private final int batchSize;
+	private final long flushIntervalNanos;
+	private final OverflowPolicy policy;
+	private final int sampleRate;
+	private final ActionLogWal wal;
+	private final String fullBatchSql;
+	private final Thread thread;
+	private volatile boolean running = true;
+	private volatile boolean waiting;
+
+	// Estado do banco, usado só pela thread do gravador
+	private boolean databaseDown;
+	private long retryDelayMs;
+	private long nextRetryAt;
+
+	private final AtomicLong sampleCounter = new AtomicLong();
+	private final AtomicBoolean overflowing = new AtomicBoolean();
+	private final LongAdder enqueued = new LongAdder();
+	private final LongAdder written = new LongAdder();
+	private final LongAdder batches = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder sampledOut = new LongAdder();
+	private final LongAdder spilled = new LongAdder();
+	private final LongAdder replayed = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private volatile long lastBatchMillis;
+
+	private ActionLogWriter(ServerConfig config, ActionLogWal wal) {
+		this.capacity = Math.max(1, config.getActionLogQueueCapacity());
+		this.batchSize = Math.max(1, config.getActionLogBatchSize());
+		this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, config.getActionLogFlushIntervalMs()));
+		this.policy = OverflowPolicy.fromName(config.getActionLogOverflow());
+		this.sampleRate = Math.max(1, config.getActionLogSampleRate());
+		this.wal = wal;
+		this.fullBatchSql = insertSql(batchSize);
+		this.thread = new Thread(this, "action-logger");
+		this.thread.setDaemon(true);
+	}
+
+	/**
+	 * Abre o transbordo, cria o gravador, inicia a thread e registra o
+	 * esvaziamento da fila no desligamento da JVM
+	 */
+	static ActionLogWriter start(ServerConfig config) {
+		ActionLogWal wal = null;
+		try {
+			wal = ActionLogWal.open(Paths.get(config.getActionLogWalDir()), config.getActionLogWalSegmentBytes(),
+					config.getActionLogWalMaxSegments());
+		} catch (IOException e) {
+			log.error("Transbordo de system_logs indisponível em {}", config.getActionLogWalDir(), e);
+		}
+		ActionLogWriter writer = new ActionLogWriter(config, wal);
+		writer.thread.start();
+		Runtime.getRuntime().addShutdownHook(new Thread(writer::shutdown, "action-logger-shutdown"));
+		return writer;
+	}
+
+	/**
+	 * Enfileira a entrada sem bloquear; nunca lança exceção para quem chama
+	 */
+	void offer(ActionLogEntry entry) {
+		if (!running) {
+			// Depois do desligamento não há mais thread para esvaziar a fila;
+			// shutdown() leva ao transbordo o que ficar aqui
+			overflowQueue.offer(entry);
+			return;
+		}
+		int current = depth.get();
+		if (policy == OverflowPolicy.SAMPLE && entry.isInfo() && current >= capacity / 2
+				&& sampleCounter.incrementAndGet() % sampleRate != 0) {
+			sampledOut.increment();
+			return;
+		}
+		if (policy == OverflowPolicy.SPILL && !overflowQueue.isEmpty()) {
+			// Atrás das que já transbordaram, para manter a ordem
+			overflow(entry);
+			return;
+		}
+		if (!reserve()) {
+			overflow(entry);
+			return;
+		}
+		queue.offer(entry);
+		enqueued.increment();
+		if (waiting && current + 1 >= batchSize) {
+			LockSupport.unpark(thread);
+		}
+	}
+
+	private boolean reserve() {
+		while (true) {
+			int current = depth.get();
+			if (current >= capacity) {
+				return false;
+			}
+			if (depth.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	private void overflow(ActionLogEntry entry) {
+		if (overflowing.compareAndSet(false, true)) {
+			log.warn("Fila de system_logs cheia ({} entradas), política {}", capacity, policy);
+		}
+		if (policy == OverflowPolicy.SPILL) {
+			overflowQueue.offer(entry);
+			if (waiting) {
+				LockSupport.unpark(thread);
+			}
+		} else {
+			dropped.increment();
+		}
+	}
+
+	@Override
+	public void run() {
+		List<ActionLogEntry> batch = new ArrayList<>(batchSize);
+		while (true) {
+			// Espera completar um lote ou o intervalo de gravação, o que vier antes
+			if (running && depth.get() < batchSize && overflowQueue.isEmpty() && !replayDue()) {
+				waiting = true;
+				if (depth.get() < batchSize && overflowQueue.isEmpty()) {
+					LockSupport.parkNanos(this, flushIntervalNanos);
+				}
+				waiting = false;
+			}
+			ActionLogEntry entry;
+			while (batch.size() < batchSize && (entry = queue.poll()) != null) {
+				batch.add(entry);
+			}
+			if (batch.isEmpty() && !running) {
+				return;
+			}
+			try {
+				if (!batch.isEmpty()) {
+					depth.addAndGet(-batch.size());
+					if (depth.get() < capacity / 2) {
+						overflowing.set(false);
+					}
+					write(batch);
+				}
+				if (!overflowQueue.isEmpty()) {
+					spillBacklog();
+				}
+				if (replayDue()) {
+					replay();
+				}
+				if (wal != null) {
+					wal.force();
+				}
+			} catch (RuntimeException e) {
+				log.error("Falha inesperada ao gravar {} entradas de system_logs", batch.size(), e);
+			}
+			batch.clear();
+		}
+	}
+
+	/**
+	 * Grava o lote no banco, ou no transbordo se ainda houver entradas mais
+	 * antigas esperando lá
+	 */
+	private void write(List<ActionLogEntry> batch) {
+		if (wal != null && wal.getPendingRecords() > 0) {
+			spill(batch);
+			return;
+		}
+		int handled = insertAll(batch);
+		if (handled < batch.size()) {
+			spill(batch.subList(handled, batch.size()));
+		}
+	}
+
+	/**
+	 * A fila encheu: o que ainda está nela e depois o que transbordou vão para
+	 * o transbordo, nessa ordem. Daí em diante os lotes seguem atrás (ver
+	 * {@link #write(List)}) e chegam ao banco pelo reenvio.
+	 */
+	private void spillBacklog() {
+		List<ActionLogEntry> entries = new ArrayList<>(batchSize);
+		ActionLogEntry entry;
+		while ((entry = queue.poll()) != null) {
+			entries.add(entry);
+			if (entries.size() == batchSize) {
+				depth.addAndGet(-entries.size());
+				spill(entries);
+				entries.clear();
+			}
+		}
+		depth.addAndGet(-entries.size());
+		while ((entry = overflowQueue.poll()) != null) {
+			entries.add(entry);
+			if (entries.size() == batchSize) {
+				spill(entries);
+				entries.clear();
+			}
+		}
+		if (!entries.isEmpty()) {
+			spill(entries);
+		}
+		overflowing.set(false);
+	}
+
+	private boolean replayDue() {
+		return running && wal != null && wal.getPendingRecords() > 0 && System.currentTimeMillis() >= nextRetryAt;
+	}
+
+	/**
+	 * Reenvia um lote do transbordo e confirma só o que chegou ao banco
+	 */
+	private void replay() {
+		ActionLogWal.Pending pending = wal.peek(batchSize);
+		if (pending == null) {
+			return;
+		}
+		int handled = insertAll(pending.getEntries());
+		wal.commit(pending, handled);
+		replayed.add(handled);
+		if (!databaseDown && wal.getPendingRecords() == 0) {
+			log.info("Transbordo de system_logs reenviado por completo");
+		}
+	}
+
+	/**
+	 * Grava as entradas em um único INSERT; se o banco recusar alguma linha,
+	 * tenta uma a uma para não perder as demais. Retorna quantas, do início da
+	 * lista, foram resolvidas (gravadas ou recusadas pelo banco); as restantes
+	 * ficaram sem conexão
+	 */
+	private int insertAll(List<ActionLogEntry> rows) {
+		long start = System.nanoTime();
+		Connection conn;
+		try {
+			conn = Db.getConnection();
+		} catch (SQLException e) {
+			databaseUnavailable(e);
+			return 0;
+		}
+		try {
+			try {
+				insert(conn, rows);
+				written.add(rows.size());
+				databaseAvailable();
+				return rows.size();
+			} catch (SQLException e) {
+				if (isConnectionError(e)) {
+					databaseUnavailable(e);
+					return 0;
+				}
+			}
+			for (int i = 0; i < rows.size(); i++) {
+				ActionLogEntry row = rows.get(i);
+				try {
+					insert(conn, Collections.singletonList(row));
+					written.increment();
+				} catch (SQLException e) {
+					if (isConnectionError(e)) {
+						databaseUnavailable(e);
+						return i;
+					}
+					failed.increment();
+					// fallback: imprimir no console
+					System.err.println("[LOG ERROR] " + row.action + ": " + e.getMessage());
+				}
+			}
+			databaseAvailable();
+			return rows.size();
+		} finally {
+			Db.closeQuietly(conn);
+			batches.increment();
+			lastBatchMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		}
+	}
+
+	private void insert(Connection conn, List<ActionLogEntry> rows) throws SQLException {
+		String sql = rows.size() == batchSize ? fullBatchSql : insertSql(rows.size());
+		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+			int i = 1;
+			for (ActionLogEntry row : rows) {
+				ps.setString(i++, row.level);
+				ps.setString(i++, row.action);
+				ps.setString(i++, row.message);
+				ps.setString(i++, row.actorUsername);
+				if (row.actorUserId == null) {
+					ps.setNull(i++, Types.BIGINT);
+				} else {
+					ps.setLong(i++, row.actorUserId);
+				}
+				ps.setString(i++, row.ip);
+				ps.setString(i++, row.metadata); // Grava como string (JSON válido ou null)
+				ps.setTimestamp(i++, new Timestamp(row.createdAt));
+			}
+			ps.executeUpdate();
+		}
+	}
+
+	private static String insertSql(int rows) {
+		StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDERS.length() + 1));
+		sql.append(INSERT_PREFIX);
+		for (int i = 0; i < rows; i++) {
+			if (i > 0) {
+				sql.append(',');
+			}
+			sql.append(ROW_PLACEHOLDERS);
+		}
+		return sql.toString();
+	}
+
+	/**
+	 * Falha de conexão (tentar de novo depois), em oposição a uma linha
+	 * recusada pelo banco (que nunca vai ser aceita)
+	 */
+	private static boolean isConnectionError(SQLException e) {
+		String state = e.getSQLState();
+		return e instanceof SQLRecoverableException || e instanceof SQLTransientConnectionException
+				|| e instanceof SQLTimeoutException || (state != null && state.startsWith("08"));
+	}
+
+	private void databaseUnavailable(SQLException e) {
+		if (!databaseDown) {
+			log.warn("Banco indisponível para system_logs, usando o transbordo local: {}", e.getMessage());
+		}
+		databaseDown = true;
+		retryDelayMs = Math.min(MAX_RETRY_MS, Math.max(MIN_RETRY_MS, retryDelayMs * 2));
+		nextRetryAt = System.currentTimeMillis() + retryDelayMs;
+	}
+
+	private void databaseAvailable() {
+		if (databaseDown) {
+			log.info("Banco disponível para system_logs; reenviando {} entradas do transbordo",
+					wal != null ? wal.getPendingRecords() : 0);
+		}
+		databaseDown = false;
+		retryDelayMs = 0;
+		nextRetryAt = 0;
+	}
+
+	/**
+	 * Acrescenta as entradas ao transbordo; sem ele (ou com o limite de
+	 * segmentos atingido) só resta o console
+	 */
+	private void spill(List<ActionLogEntry> entries) {
+		int appended = wal != null ? wal.append(entries) : 0;
+		spilled.add(appended);
+		if (appended < entries.size()) {
+			failed.add(entries.size() - appended);
+			for (ActionLogEntry entry : entries.subList(appended, entries.size())) {
+				System.err.println("[LOG ERROR] " + entry.action + ": transbordo indisponível ou cheio");
+			}
+		}
+	}
+
+	/**
+	 * Para de aceitar na fila e grava o que restou, esperando até
+	 * {@link #SHUTDOWN_TIMEOUT_MS}; o que não couber no prazo, e o que chegar
+	 * durante o desligamento, vai para o transbordo
+	 */
+	void shutdown() {
+		running = false;
+		LockSupport.unpark(thread);
+		try {
+			thread.join(SHUTDOWN_TIMEOUT_MS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		List<ActionLogEntry> remaining = new ArrayList<>();
+		ActionLogEntry entry;
+		while ((entry = queue.poll()) != null) {
+			remaining.add(entry);
+		}
+		depth.addAndGet(-remaining.size());
+		while ((entry = overflowQueue.poll()) != null) {
+			remaining.add(entry);
+		}
+		if (!remaining.isEmpty()) {
+			spill(remaining);
+		}
+		if (wal != null) {
+			wal.force();
+		}
+	}
+
+	Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		long batchCount = batches.sum();
+		long writtenCount = written.sum();
+		stats.put("policy", policy.name().toLowerCase());
+		stats.put("capacity", capacity);
+		stats.put("queueDepth", depth.get());
+		stats.put("enqueued", enqueued.sum());
+		stats.put("written", writtenCount);
+		stats.put("batches", batchCount);
+		stats.put("avgBatchSize", batchCount > 0 ? (double) writtenCount / batchCount : 0.0);
+		stats.put("lastBatchMs", lastBatchMillis);
+		stats.put("dropped", dropped.sum());
+		stats.put("sampledOut", sampledOut.sum());
+		stats.put("spilled", spilled.sum());
+		stats.put("replayed", replayed.sum());
+		stats.put("spillPending", wal != null ? wal.getPendingRecords() : 0);
+		stats.put("spillSegments", wal != null ? wal.getSegmentCount() : 0);
+		stats.put("failed", failed.sum());
+		return stats;
+	}
+}
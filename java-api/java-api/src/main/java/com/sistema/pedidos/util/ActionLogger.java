@@ -1,39 +1,31 @@
 package com.sistema.pedidos.util;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
+import java.util.Map;
+
+import com.sistema.pedidos.config.ServerConfig;
 
 /**
- * Logger que persiste logs em banco (system_logs)
+ * Logger que persiste logs em banco (system_logs). A chamada apenas enfileira
+ * a entrada; a gravação acontece em lotes na thread do {@link ActionLogWriter}
  */
 public class ActionLogger {
 
 	public static void log(String level, String action, String message, String actorUsername, Long actorUserId,
 			String ip, String metadataJson) {
-		String sql = "INSERT INTO system_logs (level, action, message, actor_username, actor_user_id, ip, metadata) VALUES (?,?,?,?,?,?,?)";
-		try (Connection conn = Db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-
-			ps.setString(1, level);
-			ps.setString(2, action);
-			ps.setString(3, message);
-			ps.setString(4, actorUsername);
-
-			if (actorUserId == null) {
-				ps.setNull(5, java.sql.Types.BIGINT);
-			} else {
-				ps.setLong(5, actorUserId);
-			}
+		SingletonHolder.WRITER.offer(new ActionLogEntry(System.currentTimeMillis(), level, action, message,
+				actorUsername, actorUserId, ip, metadataJson));
+	}
 
-			ps.setString(6, ip);
-			ps.setString(7, metadataJson); // Grava como string (JSON v�lido ou
-											// null)
+	/**
+	 * Profundidade da fila, lotes gravados e entradas descartadas, amostradas
+	 * ou transbordadas para arquivo
+	 */
+	public static Map<String, Object> getStats() {
+		return SingletonHolder.WRITER.getStats();
+	}
 
-			ps.executeUpdate();
-		} catch (SQLException e) {
-			// fallback: imprimir no console
-			System.err.println("[LOG ERROR] " + action + ": " + e.getMessage());
-		}
+	private static class SingletonHolder {
+		private static final ActionLogWriter WRITER = ActionLogWriter.start(ServerConfig.getInstance());
 	}
 
 }
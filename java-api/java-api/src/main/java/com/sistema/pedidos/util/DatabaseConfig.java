@@ -5,7 +5,7 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
- * Configurao de conexo simples com MySQL usando DriverManager
+ * Configuração de conexão simples com MySQL usando DriverManager
  */
 public class DatabaseConfig {
 
@@ -15,7 +15,7 @@ public class DatabaseConfig {
 
 	static {
 		try {
-			// Carrega o driver do MySQL (opcional nas verses novas do
+			// Carrega o driver do MySQL (opcional nas versões novas do
 			// connector)
 			Class.forName("com.mysql.cj.jdbc.Driver");
 		} catch (ClassNotFoundException e) {
@@ -3,10 +3,39 @@ package com.sistema.pedidos.util;
 import java.sql.Connection;
 import java.sql.SQLException;
 
+import com.sistema.pedidos.config.ServerConfig;
+import com.sistema.pedidos.metrics.QueryMetrics;
+import com.sistema.pedidos.tracing.Span;
+import com.sistema.pedidos.tracing.Tracer;
+
 public class Db {
 
+	private static final boolean INSTRUMENTED = ServerConfig.getInstance().isDbInstrumentationEnabled();
+
+	/**
+	 * Conexão do DriverManager; com DB_INSTRUMENTATION_ENABLED, mede o tempo
+	 * para obtê-la (também como span db.connect) e devolve o proxy que mede as
+	 * consultas
+	 */
 	public static Connection getConnection() throws SQLException {
-		return DatabaseConfig.getConnection();
+		if (!INSTRUMENTED) {
+			return DatabaseConfig.getConnection();
+		}
+		QueryMetrics metrics = QueryMetrics.getInstance();
+		long start = System.nanoTime();
+		Connection connection;
+		Span span = Tracer.getInstance().startSpan("db.connect");
+		try {
+			connection = DatabaseConfig.getConnection();
+		} catch (SQLException e) {
+			span.setAttribute("error", e.getMessage());
+			metrics.recordAcquire((System.nanoTime() - start) / 1000, true);
+			throw e;
+		} finally {
+			span.close();
+		}
+		metrics.recordAcquire((System.nanoTime() - start) / 1000, false);
+		return TimedConnection.wrap(connection);
 	}
 
 	public static void closeQuietly(AutoCloseable c) {
@@ -0,0 +1,110 @@
+package com.sistema.pedidos.util;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.sistema.pedidos.dto.ApiResponse;
+import com.sistema.pedidos.dto.LoginRequest;
+import com.sistema.pedidos.dto.LoginResponse;
+import com.sistema.pedidos.model.Order;
+
+/**
+ * Serialização JSON compartilhada pela aplicação. Mantém o ObjectMapper
+ * configurado (com o módulo Blackbird, que gera acessores de propriedades via
+ * LambdaMetafactory em vez de reflexão) e ObjectReader/ObjectWriter já
+ * resolvidos para os tipos mais usados, evitando a busca do serializador raiz
+ * a cada chamada.
+ */
+public final class JsonCodec {
+
+	private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<Map<String, Object>>() {
+	};
+	private static final TypeReference<List<Order>> ORDER_LIST_TYPE = new TypeReference<List<Order>>() {
+	};
+
+	private final ObjectMapper mapper;
+	private final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+	private final ObjectReader mapReader;
+	private final ObjectWriter orderListWriter;
+
+	private JsonCodec(ObjectMapper mapper) {
+		this.mapper = mapper;
+		this.mapReader = mapper.readerFor(MAP_TYPE);
+		this.orderListWriter = mapper.writerFor(ORDER_LIST_TYPE);
+
+		// Tipos das rotas mais chamadas já resolvidos na inicialização
+		readerFor(Order.class);
+		readerFor(Order.OrderItem.class);
+		readerFor(LoginRequest.class);
+		writerFor(Order.class);
+		writerFor(ApiResponse.class);
+		writerFor(LoginResponse.class);
+	}
+
+	public static JsonCodec getInstance() {
+		return SingletonHolder.INSTANCE;
+	}
+
+	private static class SingletonHolder {
+		private static final JsonCodec INSTANCE = new JsonCodec(createMapper());
+	}
+
+	/**
+	 * ObjectMapper com as configurações padrão da API
+	 */
+	public static ObjectMapper createMapper() {
+		return new ObjectMapper().registerModule(new JavaTimeModule()).registerModule(new BlackbirdModule())
+				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+	}
+
+	public ObjectMapper getMapper() {
+		return mapper;
+	}
+
+	public ObjectReader readerFor(Class<?> type) {
+		return readers.computeIfAbsent(type, mapper::readerFor);
+	}
+
+	public ObjectWriter writerFor(Class<?> type) {
+		return writers.computeIfAbsent(type, mapper::writerFor);
+	}
+
+	public <T> T read(byte[] json, Class<T> type) throws IOException {
+		return readerFor(type).readValue(json);
+	}
+
+	public Map<String, Object> readMap(byte[] json) throws IOException {
+		return mapReader.readValue(json);
+	}
+
+	/**
+	 * Serializa usando o writer do tipo concreto do valor
+	 */
+	public byte[] write(Object value) throws JsonProcessingException {
+		if (value == null) {
+			return mapper.writeValueAsBytes(null);
+		}
+		return writerFor(value.getClass()).writeValueAsBytes(value);
+	}
+
+	/**
+	 * Serializa listas de pedidos com o writer tipado de List&lt;Order&gt;
+	 */
+	public byte[] writeOrders(List<Order> orders) throws JsonProcessingException {
+		return orderListWriter.writeValueAsBytes(orders);
+	}
+}
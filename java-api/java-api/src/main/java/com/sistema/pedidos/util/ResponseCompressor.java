@@ -0,0 +1,237 @@
+package com.sistema.pedidos.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import com.sistema.pedidos.config.ServerConfig;
+
+/**
+ * Compressão gzip/deflate das respostas HTTP negociada via Accept-Encoding.
+ * Reaproveita instâncias de {@link Deflater} (que alocam memória nativa) e
+ * acumula métricas de bytes economizados e tempo de CPU gasto.
+ */
+public final class ResponseCompressor {
+
+	private static final int BUFFER_SIZE = 8192;
+	private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+	/**
+	 * Codificações suportadas, em ordem de preferência
+	 */
+	public enum Encoding {
+		GZIP("gzip"), DEFLATE("deflate");
+
+		private final String token;
+
+		Encoding(String token) {
+			this.token = token;
+		}
+
+		public String getToken() {
+			return token;
+		}
+	}
+
+	private final boolean enabled;
+	private final int minSize;
+	private final int level;
+	private final BlockingQueue<Deflater> gzipPool;
+	private final BlockingQueue<Deflater> deflatePool;
+
+	private final LongAdder compressedResponses = new LongAdder();
+	private final LongAdder skippedResponses = new LongAdder();
+	private final LongAdder bytesIn = new LongAdder();
+	private final LongAdder bytesOut = new LongAdder();
+	private final LongAdder compressionNanos = new LongAdder();
+
+	private ResponseCompressor(ServerConfig config) {
+		this.enabled = config.isCompressionEnabled();
+		this.minSize = config.getCompressionMinSize();
+		this.level = config.getCompressionLevel();
+		int poolSize = Math.max(1, config.getCompressionPoolSize());
+		this.gzipPool = new ArrayBlockingQueue<>(poolSize);
+		this.deflatePool = new ArrayBlockingQueue<>(poolSize);
+	}
+
+	public static ResponseCompressor getInstance() {
+		return SingletonHolder.INSTANCE;
+	}
+
+	private static class SingletonHolder {
+		private static final ResponseCompressor INSTANCE = new ResponseCompressor(ServerConfig.getInstance());
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Indica se uma resposta com o tamanho informado pode sair comprimida, ou
+	 * seja, se o corpo enviado depende do Accept-Encoding
+	 */
+	public boolean isCompressible(int contentLength) {
+		return enabled && contentLength >= minSize;
+	}
+
+	/**
+	 * Escolhe a codificação para uma resposta com o tamanho informado, ou null
+	 * quando a resposta deve seguir sem compressão
+	 */
+	public Encoding negotiate(String acceptEncoding, int contentLength) {
+		if (!enabled || acceptEncoding == null || contentLength < minSize) {
+			if (enabled && acceptEncoding != null) {
+				skippedResponses.increment();
+			}
+			return null;
+		}
+		boolean gzipAccepted = false;
+		boolean gzipRefused = false;
+		boolean deflateAccepted = false;
+		boolean deflateRefused = false;
+		boolean anyAccepted = false;
+		for (String part : acceptEncoding.split(",")) {
+			int semicolon = part.indexOf(';');
+			String token = (semicolon >= 0 ? part.substring(0, semicolon) : part).trim();
+			boolean refused = semicolon >= 0 && isZeroQuality(part.substring(semicolon + 1));
+			if ("gzip".equalsIgnoreCase(token)) {
+				gzipAccepted |= !refused;
+				gzipRefused |= refused;
+			} else if ("deflate".equalsIgnoreCase(token)) {
+				deflateAccepted |= !refused;
+				deflateRefused |= refused;
+			} else if ("*".equals(token)) {
+				anyAccepted |= !refused;
+			}
+		}
+		// "*" vale só para as codificações que não foram recusadas com q=0
+		if (gzipAccepted || (anyAccepted && !gzipRefused)) {
+			return Encoding.GZIP;
+		}
+		if (deflateAccepted || (anyAccepted && !deflateRefused)) {
+			return Encoding.DEFLATE;
+		}
+		return null;
+	}
+
+	private boolean isZeroQuality(String params) {
+		for (String param : params.split(";")) {
+			String value = param.trim();
+			if (!value.startsWith("q=")) {
+				continue;
+			}
+			try {
+				return Double.parseDouble(value.substring(2).trim()) == 0.0;
+			} catch (NumberFormatException e) {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Escreve o corpo comprimido diretamente no stream de saída
+	 */
+	public void compress(byte[] body, Encoding encoding, OutputStream out) throws IOException {
+		long start = System.nanoTime();
+		BlockingQueue<Deflater> pool = encoding == Encoding.GZIP ? gzipPool : deflatePool;
+		Deflater deflater = acquire(pool, encoding);
+		CountingOutputStream counter = new CountingOutputStream(out);
+		try {
+			if (encoding == Encoding.GZIP) {
+				counter.write(GZIP_HEADER);
+			}
+			DeflaterOutputStream deflaterStream = new DeflaterOutputStream(counter, deflater, BUFFER_SIZE);
+			deflaterStream.write(body);
+			deflaterStream.finish();
+			if (encoding == Encoding.GZIP) {
+				writeGzipTrailer(counter, body);
+			}
+			counter.flush();
+		} finally {
+			release(pool, deflater);
+			compressedResponses.increment();
+			bytesIn.add(body.length);
+			bytesOut.add(counter.count);
+			compressionNanos.add(System.nanoTime() - start);
+		}
+	}
+
+	private Deflater acquire(BlockingQueue<Deflater> pool, Encoding encoding) {
+		Deflater deflater = pool.poll();
+		if (deflater == null) {
+			// gzip usa o formato deflate "cru" envolto pelo cabeçalho/trailer próprios
+			deflater = new Deflater(level, encoding == Encoding.GZIP);
+		}
+		return deflater;
+	}
+
+	private void release(BlockingQueue<Deflater> pool, Deflater deflater) {
+		deflater.reset();
+		if (!pool.offer(deflater)) {
+			deflater.end();
+		}
+	}
+
+	private void writeGzipTrailer(OutputStream out, byte[] body) throws IOException {
+		CRC32 crc = new CRC32();
+		crc.update(body);
+		writeIntLE(out, (int) crc.getValue());
+		writeIntLE(out, body.length);
+	}
+
+	private void writeIntLE(OutputStream out, int value) throws IOException {
+		out.write(value & 0xff);
+		out.write((value >> 8) & 0xff);
+		out.write((value >> 16) & 0xff);
+		out.write((value >> 24) & 0xff);
+	}
+
+	/**
+	 * Métricas acumuladas de compressão
+	 */
+	public Map<String, Object> getStats() {
+		long in = bytesIn.sum();
+		long out = bytesOut.sum();
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("compressedResponses", compressedResponses.sum());
+		stats.put("skippedResponses", skippedResponses.sum());
+		stats.put("bytesIn", in);
+		stats.put("bytesOut", out);
+		stats.put("bytesSaved", in - out);
+		stats.put("compressionRatio", in > 0 ? (double) out / in : 1.0);
+		stats.put("cpuTimeMs", compressionNanos.sum() / 1_000_000.0);
+		return stats;
+	}
+
+	/**
+	 * Conta os bytes efetivamente enviados ao cliente
+	 */
+	private static final class CountingOutputStream extends FilterOutputStream {
+		private long count;
+
+		CountingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
+	}
+}
@@ -0,0 +1,170 @@
+package com.sistema.pedidos.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import com.sistema.pedidos.context.RequestContext;
+import com.sistema.pedidos.jfr.QueryEvent;
+import com.sistema.pedidos.metrics.QueryMetrics;
+import com.sistema.pedidos.tracing.Span;
+import com.sistema.pedidos.tracing.Tracer;
+
+/**
+ * Proxy de medição em volta da conexão JDBC: os statements criados por ela
+ * gravam no {@link QueryMetrics} a duração de cada execute*, as linhas
+ * afetadas e as linhas lidas do ResultSet, e emitem um {@link QueryEvent}
+ * para o JFR e um span db.query. Os demais métodos só repassam a chamada.
+ */
+final class TimedConnection {
+
+	private static final QueryMetrics METRICS = QueryMetrics.getInstance();
+	private static final Tracer TRACER = Tracer.getInstance();
+
+	private TimedConnection() {
+	}
+
+	static Connection wrap(Connection connection) {
+		METRICS.connectionOpened();
+		return proxy(Connection.class, new ConnectionHandler(connection));
+	}
+
+	private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+		return type.cast(Proxy.newProxyInstance(TimedConnection.class.getClassLoader(), new Class<?>[] { type },
+				handler));
+	}
+
+	/**
+	 * Chama o objeto real devolvendo a exceção original, não a
+	 * InvocationTargetException
+	 */
+	private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static final class ConnectionHandler implements InvocationHandler {
+		private final Connection target;
+		private boolean closed;
+
+		private ConnectionHandler(Connection target) {
+			this.target = target;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if ("close".equals(method.getName()) && !closed) {
+				closed = true;
+				METRICS.connectionClosed();
+			}
+			Object result = invokeTarget(target, method, args);
+			if (!(result instanceof Statement)) {
+				return result;
+			}
+			// prepareStatement/prepareCall: o SQL é conhecido aqui; createStatement: na execução
+			String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+			QueryMetrics.QueryStats stats = sql != null ? METRICS.statsFor(METRICS.templateOf(sql)) : null;
+			return proxy(method.getReturnType().asSubclass(Statement.class), new StatementHandler((Statement) result,
+					stats));
+		}
+	}
+
+	private static final class StatementHandler implements InvocationHandler {
+		private final Statement target;
+		private final QueryMetrics.QueryStats prepared;
+
+		private StatementHandler(Statement target, QueryMetrics.QueryStats prepared) {
+			this.target = target;
+			this.prepared = prepared;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (!name.startsWith("execute")) {
+				return invokeTarget(target, method, args);
+			}
+			QueryMetrics.QueryStats stats = prepared;
+			if (args != null && args.length > 0 && args[0] instanceof String) {
+				stats = METRICS.statsFor(METRICS.templateOf((String) args[0]));
+			}
+			if (stats == null) {
+				// executeBatch de um Statement comum: os SQLs foram passados no addBatch
+				stats = METRICS.statsFor("(batch)");
+			}
+			QueryEvent event = new QueryEvent();
+			event.begin();
+			Span span = TRACER.startSpan("db.query");
+			long start = System.nanoTime();
+			Object result = null;
+			boolean failed = true;
+			try {
+				result = invokeTarget(target, method, args);
+				failed = false;
+			} finally {
+				long rows = affectedRows(result);
+				METRICS.recordExecution(stats, (System.nanoTime() - start) / 1000, rows, failed);
+				span.setAttribute("sql", stats.getTemplate()).setAttribute("rows", rows);
+				if (failed) {
+					span.setAttribute("error", true);
+				}
+				span.close();
+				event.end();
+				if (event.shouldCommit()) {
+					event.requestId = RequestContext.getRequestId();
+					event.sql = stats.getTemplate();
+					event.rows = rows;
+					event.failed = failed;
+					event.commit();
+				}
+			}
+			if (result instanceof ResultSet) {
+				return proxy(ResultSet.class, new ResultSetHandler((ResultSet) result, stats));
+			}
+			return result;
+		}
+
+		private static long affectedRows(Object result) {
+			if (result instanceof Integer || result instanceof Long) {
+				return Math.max(0, ((Number) result).longValue());
+			}
+			long rows = 0;
+			if (result instanceof int[]) {
+				for (int count : (int[]) result) {
+					rows += Math.max(0, count);
+				}
+			} else if (result instanceof long[]) {
+				for (long count : (long[]) result) {
+					rows += Math.max(0, count);
+				}
+			}
+			return rows;
+		}
+	}
+
+	private static final class ResultSetHandler implements InvocationHandler {
+		private final ResultSet target;
+		private final QueryMetrics.QueryStats stats;
+
+		private ResultSetHandler(ResultSet target, QueryMetrics.QueryStats stats) {
+			this.target = target;
+			this.stats = stats;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			Object result = invokeTarget(target, method, args);
+			if (Boolean.TRUE.equals(result) && "next".equals(method.getName())) {
+				stats.addRow();
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,10 @@
+package com.sistema.websocket;
+
+/**
+ * Transporte que também entrega quadros binários (encoding=binary); só o
+ * WebSocket tem. Sessões sobre outros transportes ficam sempre em JSON.
+ */
+public interface BinarySessionTransport extends SessionTransport {
+
+	void send(byte[] data);
+}
@@ -0,0 +1,256 @@
+package com.sistema.websocket;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * Estado de envio de uma conexão (WebSocket ou SSE): fila de saída limitada,
+ * drenada pelo {@link NotificationDispatcher} apenas enquanto o buffer de
+ * escrita do transporte estiver abaixo do limite. Assim um cliente lento
+ * acumula na própria fila, sem atrasar os demais nem a thread da requisição
+ * HTTP.
+ */
+public final class ClientSession {
+
+	/**
+	 * Comportamento quando chega uma mensagem com a fila cheia ou com outra de
+	 * mesma chave ainda pendente
+	 */
+	public enum QueuePolicy {
+		/** Descarta a mensagem mais antiga quando a fila está cheia */
+		DROP_OLDEST,
+		/** Substitui a mensagem pendente de mesma chave; se cheia, descarta a mais antiga */
+		COALESCE;
+
+		public static QueuePolicy fromName(String name) {
+			return "coalesce".equalsIgnoreCase(name) ? COALESCE : DROP_OLDEST;
+		}
+	}
+
+	/**
+	 * Formato dos eventos pedido pelo cliente no parâmetro encoding
+	 */
+	public enum Encoding {
+		/** Quadros de texto com o JSON do evento */
+		JSON,
+		/** Quadros binários com o JSON comprimido (DEFLATE raw, sem cabeçalho) */
+		BINARY;
+
+		public static Encoding fromName(String name) {
+			return "binary".equalsIgnoreCase(name) ? BINARY : JSON;
+		}
+	}
+
+	private final SessionTransport transport;
+	/** O próprio transporte, quando aceita quadros binários; senão null */
+	private final BinarySessionTransport binaryTransport;
+	private final Long userId;
+	private final String userName;
+	private final Set<String> permissions;
+	private final Set<String> topics = ConcurrentHashMap.newKeySet();
+	private final int capacity;
+	private final QueuePolicy policy;
+	private final Encoding encoding;
+	private final ArrayDeque<Outbound> queue;
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+	private volatile boolean stale;
+	private long backloggedSince;
+
+	private final LongAdder sent = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+
+	public ClientSession(SessionTransport transport, Long userId, String userName, Set<String> permissions, int capacity,
+			QueuePolicy policy, Encoding encoding) {
+		this.transport = transport;
+		this.binaryTransport = transport instanceof BinarySessionTransport ? (BinarySessionTransport) transport
+				: null;
+		this.userId = userId;
+		this.userName = userName;
+		this.permissions = Collections.unmodifiableSet(permissions);
+		this.capacity = Math.max(1, capacity);
+		this.policy = policy;
+		// Sem quadros binários no transporte (SSE), os eventos seguem em JSON
+		this.encoding = binaryTransport != null ? encoding : Encoding.JSON;
+		this.queue = new ArrayDeque<>(Math.min(this.capacity, 64));
+	}
+
+	/**
+	 * Mensagem pendente; a chave identifica mensagens que se substituem (ex.:
+	 * status do mesmo pedido)
+	 */
+	private static final class Outbound {
+		private final String key;
+		private final long enqueuedAt = System.nanoTime();
+		private String text;
+		private byte[] data;
+
+		Outbound(String key, String text, byte[] data) {
+			this.key = key;
+			this.text = text;
+			this.data = data;
+		}
+	}
+
+	public SessionTransport getTransport() {
+		return transport;
+	}
+
+	public Long getUserId() {
+		return userId;
+	}
+
+	public String getUserName() {
+		return userName;
+	}
+
+	/**
+	 * Permissões do usuário no momento da conexão
+	 */
+	public Set<String> getPermissions() {
+		return permissions;
+	}
+
+	public Encoding getEncoding() {
+		return encoding;
+	}
+
+	public Set<String> getTopics() {
+		return Collections.unmodifiableSet(topics);
+	}
+
+	boolean addTopic(String topic) {
+		return topics.add(topic);
+	}
+
+	boolean removeTopic(String topic) {
+		return topics.remove(topic);
+	}
+
+	List<String> clearTopics() {
+		List<String> removed = new ArrayList<>(topics);
+		topics.clear();
+		return removed;
+	}
+
+	/**
+	 * Enfileira a mensagem aplicando a política da fila
+	 */
+	void enqueue(String key, String text) {
+		enqueue(key, text, null);
+	}
+
+	/**
+	 * Enfileira um quadro binário; o array pode ser compartilhado entre conexões
+	 * e não é alterado
+	 */
+	void enqueue(String key, byte[] data) {
+		enqueue(key, null, data);
+	}
+
+	private synchronized void enqueue(String key, String text, byte[] data) {
+		if (policy == QueuePolicy.COALESCE && key != null) {
+			for (Outbound pending : queue) {
+				if (key.equals(pending.key)) {
+					pending.text = text;
+					pending.data = data;
+					coalesced.increment();
+					return;
+				}
+			}
+		}
+		if (queue.size() >= capacity) {
+			queue.pollFirst();
+			dropped.increment();
+		}
+		queue.addLast(new Outbound(key, text, data));
+	}
+
+	/**
+	 * Repassa mensagens à conexão enquanto o buffer de escrita tiver até
+	 * maxPendingFrames quadros. Retorna true se ainda restarem mensagens na fila.
+	 *
+	 * @param sendLatency recebe, em nanossegundos, o tempo de cada mensagem na fila
+	 */
+	boolean drain(int maxPendingFrames, long now, LongConsumer sendLatency) {
+		while (transport.isOpen() && transport.getPendingFrames() < maxPendingFrames) {
+			Outbound next;
+			synchronized (this) {
+				next = queue.pollFirst();
+				if (next == null) {
+					backloggedSince = 0;
+					return false;
+				}
+			}
+			if (next.data != null) {
+				binaryTransport.send(next.data);
+			} else {
+				transport.send(next.text);
+			}
+			sent.increment();
+			sendLatency.accept(System.nanoTime() - next.enqueuedAt);
+		}
+		synchronized (this) {
+			if (queue.isEmpty() || !transport.isOpen()) {
+				backloggedSince = 0;
+				return false;
+			}
+			if (backloggedSince == 0) {
+				backloggedSince = now;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Há quanto tempo a conexão não consegue escoar a fila (0 se está em dia)
+	 */
+	synchronized long getBackloggedMillis(long now) {
+		return backloggedSince == 0 ? 0 : now - backloggedSince;
+	}
+
+	synchronized boolean hasPending() {
+		return !queue.isEmpty();
+	}
+
+	public synchronized int getQueueDepth() {
+		return queue.size();
+	}
+
+	/**
+	 * Marca a conexão vista fechada na varredura; retorna true se já estava
+	 * marcada na varredura anterior
+	 */
+	boolean markStale() {
+		boolean wasStale = stale;
+		stale = true;
+		return wasStale;
+	}
+
+	boolean markScheduled() {
+		return scheduled.compareAndSet(false, true);
+	}
+
+	void clearScheduled() {
+		scheduled.set(false);
+	}
+
+	public long getSent() {
+		return sent.sum();
+	}
+
+	public long getDropped() {
+		return dropped.sum();
+	}
+
+	public long getCoalesced() {
+		return coalesced.sum();
+	}
+}
@@ -0,0 +1,77 @@
+package com.sistema.websocket;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Conexões abertas (WebSocket e SSE), indexadas pelo usuário. Substitui a
+ * referência que ficava no {@link com.sistema.pedidos.model.User}, que vive
+ * só durante a requisição, e limita quantas conexões cada usuário mantém.
+ */
+public final class ConnectionRegistry {
+
+	private final Set<ClientSession> sessions = ConcurrentHashMap.newKeySet();
+	private final Map<Long, Set<ClientSession>> byUser = new ConcurrentHashMap<>();
+	private final int maxPerUser;
+
+	/**
+	 * @param maxPerUser conexões simultâneas por usuário; 0 ou negativo não limita
+	 */
+	public ConnectionRegistry(int maxPerUser) {
+		this.maxPerUser = maxPerUser;
+	}
+
+	/**
+	 * Registra a conexão, ou retorna false se o usuário já atingiu o limite
+	 */
+	public boolean register(ClientSession session) {
+		boolean[] accepted = new boolean[1];
+		byUser.compute(session.getUserId(), (userId, userSessions) -> {
+			if (userSessions == null) {
+				userSessions = ConcurrentHashMap.newKeySet();
+			}
+			if (maxPerUser <= 0 || userSessions.size() < maxPerUser) {
+				userSessions.add(session);
+				accepted[0] = true;
+			}
+			return userSessions.isEmpty() ? null : userSessions;
+		});
+		if (accepted[0]) {
+			sessions.add(session);
+		}
+		return accepted[0];
+	}
+
+	/**
+	 * Remove a conexão; retorna false se já não estava registrada
+	 */
+	public boolean remove(ClientSession session) {
+		if (!sessions.remove(session)) {
+			return false;
+		}
+		byUser.computeIfPresent(session.getUserId(), (userId, userSessions) -> {
+			userSessions.remove(session);
+			return userSessions.isEmpty() ? null : userSessions;
+		});
+		return true;
+	}
+
+	public Collection<ClientSession> getSessions() {
+		return Collections.unmodifiableSet(sessions);
+	}
+
+	public int size() {
+		return sessions.size();
+	}
+
+	public int getConnectedUsers() {
+		return byUser.size();
+	}
+
+	public int getMaxPerUser() {
+		return maxPerUser;
+	}
+}
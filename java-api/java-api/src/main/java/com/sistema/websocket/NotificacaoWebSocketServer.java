@@ -1,114 +1,352 @@
-package com.sistema.websocket;
-
-import java.net.InetSocketAddress;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Set;
-
-import org.java_websocket.WebSocket;
-import org.java_websocket.handshake.ClientHandshake;
-import org.java_websocket.server.WebSocketServer;
-
-import com.sistema.pedidos.controller.ApiController;
-import com.sistema.pedidos.model.User;
-
-public class NotificacaoWebSocketServer extends WebSocketServer {
-
-	private static final Set<WebSocket> clientes = Collections.synchronizedSet(new HashSet<>());
-
-	public NotificacaoWebSocketServer(InetSocketAddress address) {
-		super(address);
-	}
-
-	@Override
-	public void onOpen(WebSocket conn, ClientHandshake handshake) {
-		// 🔥 Passo 1: Obter o token do handshake
-		// O cliente deve enviar o token como um parâmetro na URL, por exemplo:
-		// ws://localhost:8081/api/notificacoes?token=seu_token_aqui
-		String token = getQueryParam(handshake.getResourceDescriptor(), "token");
-
-		// 🔥 Passo 2: Validar o token
-		if (token == null || !validarToken(token)) {
-			System.out.println("Tentativa de conexão com token inválido ou ausente. Fechando conexão.");
-			conn.close(1008, "Token inválido."); // Código 1008 é para violação de política
-			return; // Encerra o método para evitar a adição do cliente
-		}
-		User userFromToken = ApiController.getInstance().getServices().getAuthService().getUserFromToken(token);
-		userFromToken.setWebSocket(conn);
-		clientes.add(conn);
-		System.out.println("Novo cliente conectado: " + conn.getRemoteSocketAddress() + " (Token válido)");
-		conn.send("Bem-vindo ao servidor WebSocket!");
-	}
-
-	// --- Métodos de Suporte ---
-
-	/**
-	 * Extrai um parâmetro de consulta da URL.
-	 * 
-	 * @param url       O descritor de recurso do handshake (a URL).
-	 * @param paramName O nome do parâmetro a ser extraído.
-	 * @return O valor do parâmetro ou null se não for encontrado.
-	 */
-	private String getQueryParam(String url, String paramName) {
-		if (!url.contains("?")) {
-			return null;
-		}
-		String query = url.substring(url.indexOf("?") + 1);
-		String[] params = query.split("&");
-		for (String param : params) {
-			String[] pair = param.split("=");
-			if (pair.length > 1 && pair[0].equals(paramName)) {
-				return pair[1];
-			}
-		}
-		return null;
-	}
-
-	/**
-	 * Lógica real de validação do token. Isso pode incluir verificar em um banco de
-	 * dados, decodificar um JWT, etc.
-	 * 
-	 * @param token O token a ser validado.
-	 * @return true se o token for válido, false caso contrário.
-	 */
-	private boolean validarToken(String token) {
-
-		if (!ApiController.getInstance().getServices().getAuthService().validateToken(token))
-			return false;
-		return token != null && !token.isEmpty();
-	}
-
-	// O restante do seu código (onClose, onMessage, onError, onStart,
-	// enviarNotificacao) permanece o mesmo...
-	@Override
-	public void onClose(WebSocket conn, int code, String reason, boolean remote) {
-		clientes.remove(conn);
-		System.out.println("Cliente desconectado: " + conn.getRemoteSocketAddress());
-	}
-
-	@Override
-	public void onMessage(WebSocket conn, String message) {
-		System.out.println("Mensagem recebida: " + message);
-		conn.send("Eco: " + message);
-	}
-
-	@Override
-	public void onError(WebSocket conn, Exception ex) {
-		ex.printStackTrace();
-	}
-
-	@Override
-	public void onStart() {
-		System.out.println("Servidor WebSocket iniciado na porta: " + getPort());
-	}
-
-	public static void enviarNotificacao(String mensagem) {
-		synchronized (clientes) {
-			for (WebSocket cliente : clientes) {
-				if (cliente.isOpen()) {
-					cliente.send(mensagem);
-				}
-			}
-		}
-	}
+package com.sistema.websocket;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.drafts.Draft;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+
+import com.sistema.pedidos.config.ServerConfig;
+import com.sistema.pedidos.context.RequestContext;
+import com.sistema.pedidos.controller.ApiController;
+import com.sistema.pedidos.jfr.BroadcastEvent;
+import com.sistema.pedidos.model.User;
+import com.sistema.pedidos.util.JsonCodec;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class NotificacaoWebSocketServer extends WebSocketServer {
+
+	private static final ConnectionRegistry clientes = new ConnectionRegistry(
+			ServerConfig.getInstance().getWsMaxConnectionsPerUser());
+	private static final TopicIndex topicos = new TopicIndex();
+	private static final LongAdder rejectedConnections = new LongAdder();
+	private static final AtomicInteger openStreams = new AtomicInteger();
+	private static final NotificationDispatcher dispatcher = new NotificationDispatcher(ServerConfig.getInstance(),
+			topicos, clientes);
+
+	public NotificacaoWebSocketServer(InetSocketAddress address) {
+		super(address, drafts(ServerConfig.getInstance()));
+		// Ping a cada intervalo; conexões sem pong por 1,5 intervalo são fechadas
+		// pela biblioteca (0 desativa)
+		setConnectionLostTimeout(ServerConfig.getInstance().getWsHeartbeatIntervalSeconds());
+	}
+
+	/**
+	 * Negocia permessage-deflate com os clientes que o oferecem (os navegadores
+	 * oferecem por padrão); mensagens abaixo do limite seguem sem compressão
+	 */
+	private static List<Draft> drafts(ServerConfig config) {
+		if (!config.isWsCompressionEnabled()) {
+			return List.of(new Draft_6455());
+		}
+		return List.of(new Draft_6455(new TextDeflateExtension(config.getWsCompressionThreshold())));
+	}
+
+	@Override
+	public void onOpen(WebSocket conn, ClientHandshake handshake) {
+		// 🔥 Passo 1: Obter o token do handshake
+		// O cliente deve enviar o token como um parâmetro na URL, por exemplo:
+		// ws://localhost:8081/api/notificacoes?token=seu_token_aqui
+		String token = getQueryParam(handshake.getResourceDescriptor(), "token");
+
+		// 🔥 Passo 2: Validar o token
+		if (token == null || !validarToken(token)) {
+			log.info("Conexão WebSocket de {} sem token válido; fechando", conn.getRemoteSocketAddress());
+			conn.close(1008, "Token inválido."); // Código 1008 é para violação de política
+			return; // Encerra o método para evitar a adição do cliente
+		}
+		User userFromToken = ApiController.getInstance().getServices().getAuthService().getUserFromToken(token);
+		ServerConfig config = ServerConfig.getInstance();
+		ClientSession session = new ClientSession(new WebSocketTransport(conn), userFromToken.getId(),
+				userFromToken.getName(), permissoesConcedidas(userFromToken), config.getWsQueueCapacity(),
+				ClientSession.QueuePolicy.fromName(config.getWsQueuePolicy()),
+				ClientSession.Encoding.fromName(getQueryParam(handshake.getResourceDescriptor(), "encoding")));
+		conn.setAttachment(session);
+		if (!clientes.register(session)) {
+			rejectedConnections.increment();
+			log.warn("Conexão recusada: limite de conexões do usuário {} atingido", userFromToken.getId());
+			conn.close(1008, "Limite de conexões por usuário atingido.");
+			return;
+		}
+
+		// Reconexão: ws://...?token=...&since=42&epoch=... recebe apenas os eventos
+		// perdidos, se o servidor não reiniciou desde então
+		Long since = parseSince(getQueryParam(handshake.getResourceDescriptor(), "since"));
+		dispatcher.attach(session, Topics.defaultsFor(session.getPermissions()), "Bem-vindo ao servidor WebSocket!",
+				since, getQueryParam(handshake.getResourceDescriptor(), "epoch"));
+	}
+
+	// --- Métodos de Suporte ---
+
+	private static Set<String> permissoesConcedidas(User user) {
+		Set<String> permissoes = new LinkedHashSet<>();
+		if (user.getPermissions() != null) {
+			user.getPermissions().forEach((nome, concedida) -> {
+				if (Boolean.TRUE.equals(concedida)) {
+					permissoes.add(nome);
+				}
+			});
+		}
+		return permissoes;
+	}
+
+	private Long parseSince(String since) {
+		if (since == null) {
+			return null;
+		}
+		try {
+			long seq = Long.parseLong(since);
+			return seq >= 0 ? seq : null;
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Extrai um parâmetro de consulta da URL.
+	 * 
+	 * @param url       O descritor de recurso do handshake (a URL).
+	 * @param paramName O nome do parâmetro a ser extraído.
+	 * @return O valor do parâmetro ou null se não for encontrado.
+	 */
+	private String getQueryParam(String url, String paramName) {
+		if (!url.contains("?")) {
+			return null;
+		}
+		String query = url.substring(url.indexOf("?") + 1);
+		String[] params = query.split("&");
+		for (String param : params) {
+			String[] pair = param.split("=");
+			if (pair.length > 1 && pair[0].equals(paramName)) {
+				return pair[1];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Lógica real de validação do token. Isso pode incluir verificar em um banco de
+	 * dados, decodificar um JWT, etc.
+	 * 
+	 * @param token O token a ser validado.
+	 * @return true se o token for válido, false caso contrário.
+	 */
+	private boolean validarToken(String token) {
+
+		if (!ApiController.getInstance().getServices().getAuthService().validateToken(token))
+			return false;
+		return token != null && !token.isEmpty();
+	}
+
+	// O restante do seu código (onClose, onMessage, onError, onStart,
+	// enviarNotificacao) permanece o mesmo...
+	@Override
+	public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+		ClientSession session = conn.getAttachment();
+		if (session != null && clientes.remove(session)) {
+			dispatcher.detach(session);
+		}
+	}
+
+	@Override
+	public void onMessage(WebSocket conn, String message) {
+		ClientSession session = conn.getAttachment();
+		if (session != null && message.startsWith("{")) {
+			handleSubscription(conn, session, message);
+			return;
+		}
+		conn.send("Eco: " + message);
+	}
+
+	/**
+	 * Comandos de inscrição enviados pelo cliente, por exemplo:
+	 * {"action":"subscribe","topics":["pedido:123","status:pronto"]}
+	 */
+	private void handleSubscription(WebSocket conn, ClientSession session, String message) {
+		try {
+			Map<String, Object> command = JsonCodec.getInstance().readMap(message.getBytes(StandardCharsets.UTF_8));
+			Object action = command.get("action");
+			Object requested = command.get("topics");
+			boolean subscribe = "subscribe".equals(action);
+			if (!(requested instanceof List) || (!subscribe && !"unsubscribe".equals(action))) {
+				throw new IllegalArgumentException("Comando inválido");
+			}
+			Set<String> aceitos = new LinkedHashSet<>();
+			for (Object item : (List<?>) requested) {
+				String topico = String.valueOf(item);
+				if (!subscribe) {
+					topicos.unsubscribe(session, topico);
+					aceitos.add(topico);
+				} else if (Topics.canSubscribe(session.getPermissions(), topico)) {
+					topicos.subscribe(session, topico);
+					aceitos.add(topico);
+				}
+			}
+			Map<String, Object> resposta = new LinkedHashMap<>();
+			resposta.put("type", subscribe ? "subscribed" : "unsubscribed");
+			resposta.put("topics", aceitos);
+			conn.send(new String(JsonCodec.getInstance().write(resposta), StandardCharsets.UTF_8));
+		} catch (Exception e) {
+			conn.send("{\"type\":\"error\",\"message\":\"Comando de inscrição inválido\"}");
+		}
+	}
+
+	@Override
+	public void onError(WebSocket conn, Exception ex) {
+		log.error("Erro no WebSocket {}", conn != null ? conn.getRemoteSocketAddress() : "(servidor)", ex);
+	}
+
+	@Override
+	public void onStart() {
+		log.info("Servidor WebSocket iniciado na porta {}", getPort());
+	}
+
+	// --- Modo unificado (SERVER_MODE=unified): conexões aceitas pelo servidor
+	// HTTP e repassadas pela WebSocketBridge, sem o seletor desta classe ---
+
+	void abrirConexaoExterna(WebSocket conn, ClientHandshake handshake) {
+		if (addConnection(conn)) {
+			onOpen(conn, handshake);
+		}
+	}
+
+	void fecharConexaoExterna(WebSocket conn, int code, String reason, boolean remote) {
+		if (removeConnection(conn)) {
+			onClose(conn, code, reason, remote);
+		}
+	}
+
+	/**
+	 * Ping/pong das conexões externas, já que o servidor não é iniciado
+	 */
+	void iniciarHeartbeat() {
+		startConnectionLostTimer();
+	}
+
+	/**
+	 * Abre um stream SSE (/api/events) nas mesmas filas, tópicos e replay das
+	 * conexões WebSocket, e com o mesmo limite de conexões por usuário. Retorna
+	 * null se o limite foi atingido; nesse caso nada foi enviado ao cliente.
+	 *
+	 * @param topicosPedidos tópicos pedidos pelo cliente, ou null para os padrões
+	 *                       das permissões
+	 * @param since          último seq recebido (Last-Event-ID), ou null
+	 * @param sinceEpoch     época do servidor em que since foi recebido
+	 */
+	public static ClientSession abrirStream(SseTransport transport, User user, Collection<String> topicosPedidos,
+			Long since, String sinceEpoch) throws IOException {
+		ServerConfig config = ServerConfig.getInstance();
+		Set<String> permissoes = permissoesConcedidas(user);
+		Set<String> topicosDoStream = new LinkedHashSet<>();
+		if (topicosPedidos == null) {
+			topicosDoStream.addAll(Topics.defaultsFor(permissoes));
+		} else {
+			for (String topico : topicosPedidos) {
+				if (Topics.canSubscribe(permissoes, topico)) {
+					topicosDoStream.add(topico);
+				}
+			}
+			if (topicosDoStream.isEmpty()) {
+				throw new IllegalArgumentException("Nenhum dos tópicos pedidos é permitido");
+			}
+		}
+
+		ClientSession session = new ClientSession(transport, user.getId(), user.getName(), permissoes,
+				config.getWsQueueCapacity(), ClientSession.QueuePolicy.fromName(config.getWsQueuePolicy()),
+				ClientSession.Encoding.JSON);
+		if (!clientes.register(session)) {
+			rejectedConnections.increment();
+			return null;
+		}
+		try {
+			transport.start(() -> {
+				openStreams.decrementAndGet();
+				if (clientes.remove(session)) {
+					dispatcher.detach(session);
+				}
+			});
+		} catch (IOException e) {
+			clientes.remove(session);
+			throw e;
+		}
+		openStreams.incrementAndGet();
+		if (!transport.isOpen()) {
+			// O cliente saiu antes do início do stream; o onClose já o removeu
+			return session;
+		}
+		dispatcher.attach(session, topicosDoStream, "Bem-vindo ao stream de eventos!", since, sinceEpoch);
+		return session;
+	}
+
+	/**
+	 * Publica o evento para as conexões inscritas em algum dos tópicos, sem
+	 * bloquear a thread chamadora; o envio acontece pelas filas de cada conexão
+	 */
+	public static void enviarNotificacao(NotificationEvent evento, String... topicosDoEvento) {
+		BroadcastEvent jfrEvent = new BroadcastEvent();
+		jfrEvent.begin();
+		Collection<String> destino = topicosDoEvento.length == 1 ? List.of(topicosDoEvento[0])
+				: Arrays.asList(topicosDoEvento);
+		dispatcher.publish(destino, evento.getKey(), evento.getJson());
+		jfrEvent.end();
+		if (jfrEvent.shouldCommit()) {
+			jfrEvent.requestId = RequestContext.getRequestId();
+			jfrEvent.topics = String.join(",", topicosDoEvento);
+			jfrEvent.key = evento.getKey();
+			jfrEvent.payloadBytes = evento.getJson().length();
+			jfrEvent.commit();
+		}
+	}
+
+	/**
+	 * Conexões registradas (WebSocket e SSE), sem percorrer as filas
+	 */
+	public static int getConnectedClients() {
+		return clientes.size();
+	}
+
+	public static int getSseClients() {
+		return openStreams.get();
+	}
+
+	/**
+	 * Métricas das notificações: conexões, profundidade das filas, tópicos,
+	 * latência de envio e agrupamento de eventos
+	 */
+	public static Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		int queueDepthTotal = 0;
+		int queueDepthMax = 0;
+		for (ClientSession session : clientes.getSessions()) {
+			int depth = session.getQueueDepth();
+			queueDepthTotal += depth;
+			queueDepthMax = Math.max(queueDepthMax, depth);
+		}
+		stats.put("connectedClients", clientes.size());
+		stats.put("sseClients", openStreams.get());
+		stats.put("connectedUsers", clientes.getConnectedUsers());
+		stats.put("maxConnectionsPerUser", clientes.getMaxPerUser());
+		stats.put("rejectedConnections", rejectedConnections.sum());
+		stats.put("queueDepthTotal", queueDepthTotal);
+		stats.put("queueDepthMax", queueDepthMax);
+		stats.put("topics", topicos.getTopicCount());
+		stats.putAll(dispatcher.getStats());
+		return stats;
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,441 @@
+package com.sistema.websocket;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+import java.util.zip.Deflater;
+
+import org.java_websocket.framing.CloseFrame;
+
+import com.sistema.pedidos.config.ServerConfig;
+import com.sistema.pedidos.jfr.FanOutEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publicação assíncrona das notificações: os handlers apenas entregam a
+ * mensagem, e o fan-out para as filas de cada {@link ClientSession} e a
+ * drenagem dessas filas acontecem em threads próprias. Conexões que ficam
+ * tempo demais sem escoar a fila são desconectadas.
+ * <p>
+ * Eventos publicados dentro da mesma janela (WS_BATCH_WINDOW_MS) são
+ * agrupados: eventos de mesma chave se fundem no mais recente, e cada conexão
+ * recebe um único quadro com os eventos que lhe interessam — o próprio
+ * evento quando há só um, ou um array JSON com todos.
+ * <p>
+ * Cada evento recebe um número de sequência crescente (campo seq) e a época
+ * do servidor (campo epoch) e fica no {@link ReplayBuffer}, para que o cliente
+ * que reconecta receba só o que perdeu.
+ * <p>
+ * Conexões com encoding=binary recebem o mesmo quadro comprimido com DEFLATE;
+ * a compressão é feita uma vez por quadro e o resultado é compartilhado, ao
+ * contrário do permessage-deflate, que comprime de novo em cada conexão.
+ * <p>
+ * Streams SSE (/api/events) são sessões como as de WebSocket, com outro
+ * {@link SessionTransport}: passam pelo mesmo fan-out, filas e replay.
+ */
+@Slf4j
+public final class NotificationDispatcher {
+
+	private static final long RETRY_DELAY_MS = 10;
+
+	private final TopicIndex topicIndex;
+	private final ConnectionRegistry registry;
+	private final ScheduledExecutorService fanOut;
+	private final ScheduledExecutorService drainer;
+	private final int maxPendingFrames;
+	private final long slowConsumerTimeoutMs;
+	private final long batchWindowMs;
+	private final ReplayBuffer replayBuffer;
+	/** Maior seq já repassado às filas; lido e escrito só na thread de fan-out */
+	private long deliveredSeq;
+	/** Usado só na thread de fan-out */
+	private final Deflater deflater;
+	private final byte[] deflateBuffer = new byte[8192];
+
+	private final Object batchLock = new Object();
+	private LinkedHashMap<String, PendingEvent> pending = new LinkedHashMap<>();
+	private boolean flushScheduled;
+
+	private final LongAdder published = new LongAdder();
+	private final LongAdder coalescedEvents = new LongAdder();
+	private final LongAdder deliveredEvents = new LongAdder();
+	private final LongAdder framesSent = new LongAdder();
+	private final LongAdder slowConsumersClosed = new LongAdder();
+	private final LongAdder replayedEvents = new LongAdder();
+	private final LongAdder replayResyncs = new LongAdder();
+	private final LongAdder staleEvicted = new LongAdder();
+	private final LongAdder sendCount = new LongAdder();
+	private final LongAdder sendLatencyNanos = new LongAdder();
+	private final AtomicLong maxSendLatencyNanos = new AtomicLong();
+	private final LongConsumer sendLatency = this::recordSendLatency;
+	private final LongAdder binaryFramesEncoded = new LongAdder();
+	private final LongAdder binaryBytesIn = new LongAdder();
+	private final LongAdder binaryBytesOut = new LongAdder();
+
+	public NotificationDispatcher(ServerConfig config, TopicIndex topicIndex, ConnectionRegistry registry) {
+		this.topicIndex = topicIndex;
+		this.registry = registry;
+		// Uma única thread de fan-out preserva a ordem de publicação em todas as filas
+		this.fanOut = Executors.newSingleThreadScheduledExecutor(new PublisherThreadFactory("ws-fanout-"));
+		this.drainer = Executors.newScheduledThreadPool(Math.max(1, config.getWsPublishThreads()),
+				new PublisherThreadFactory("ws-publisher-"));
+		this.maxPendingFrames = Math.max(1, config.getWsMaxPendingFrames());
+		this.slowConsumerTimeoutMs = config.getWsSlowConsumerTimeoutMs();
+		this.batchWindowMs = config.getWsBatchWindowMs();
+		this.replayBuffer = new ReplayBuffer(config.getWsReplayBufferSize());
+		this.deflater = new Deflater(config.getCompressionLevel(), true);
+
+		int heartbeatSeconds = config.getWsHeartbeatIntervalSeconds();
+		if (heartbeatSeconds > 0) {
+			drainer.scheduleAtFixedRate(this::evictStale, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * Evento aguardando a janela de agrupamento
+	 */
+	private static final class PendingEvent {
+		private final Set<String> topics;
+		private final String key;
+		private final String message;
+		private final long seq;
+
+		PendingEvent(Set<String> topics, String key, String message, long seq) {
+			this.topics = topics;
+			this.key = key;
+			this.message = message;
+			this.seq = seq;
+		}
+	}
+
+	/**
+	 * Enfileira a mensagem (um objeto JSON já serializado) para as conexões
+	 * inscritas nos tópicos, sem bloquear quem publica
+	 */
+	public void publish(Collection<String> topics, String key, String message) {
+		published.increment();
+		Set<String> eventTopics = new LinkedHashSet<>(topics);
+		// A numeração e o repasse ao fan-out ficam sob o mesmo lock para que a
+		// ordem de entrega siga a ordem do seq
+		synchronized (batchLock) {
+			ReplayBuffer.Entry numbered = replayBuffer.append(Set.copyOf(eventTopics), message);
+			if (batchWindowMs <= 0) {
+				List<PendingEvent> single = List.of(
+						new PendingEvent(eventTopics, key, numbered.getJson(), numbered.getSeq()));
+				fanOut.execute(() -> deliver(single));
+				return;
+			}
+
+			String batchKey = key != null ? key : numbered.getJson();
+			PendingEvent previous = pending.remove(batchKey);
+			if (previous != null) {
+				// O evento mais recente substitui o anterior, mas quem assinava os
+				// tópicos do anterior continua sendo avisado
+				coalescedEvents.increment();
+				eventTopics.addAll(previous.topics);
+			}
+			pending.put(batchKey, new PendingEvent(eventTopics, key, numbered.getJson(), numbered.getSeq()));
+			if (!flushScheduled) {
+				flushScheduled = true;
+				fanOut.schedule(this::flush, batchWindowMs, TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+
+	/**
+	 * Inscreve a conexão nos tópicos e envia as boas-vindas com o último seq já
+	 * entregue e a época. Com since, reenvia antes os eventos perdidos dos
+	 * tópicos assinados; se a época é outra (servidor reiniciado) ou o buffer
+	 * não cobre a lacuna, envia {"type":"resync"} e o cliente recarrega tudo. Roda na thread de fan-out, então não se intercala
+	 * com a entrega de eventos novos: o que ainda está na janela de agrupamento
+	 * chega depois, pelo caminho normal.
+	 */
+	public void attach(ClientSession session, Collection<String> topics, String welcomeMessage, Long since,
+			String sinceEpoch) {
+		fanOut.execute(() -> {
+			for (String topic : topics) {
+				topicIndex.subscribe(session, topic);
+			}
+			session.enqueue(null, "{\"type\":\"welcome\",\"message\":\"" + welcomeMessage + "\",\"seq\":"
+					+ deliveredSeq + ",\"epoch\":\"" + replayBuffer.getEpoch() + "\"}");
+			if (since != null) {
+				replay(session, since, sinceEpoch);
+			}
+			schedule(session);
+		});
+	}
+
+	/**
+	 * Remove a conexão dos tópicos na thread de fan-out, depois de um attach
+	 * ainda pendente
+	 */
+	public void detach(ClientSession session) {
+		fanOut.execute(() -> topicIndex.unsubscribeAll(session));
+	}
+
+	private void replay(ClientSession session, long since, String sinceEpoch) {
+		List<ReplayBuffer.Entry> missed = replayBuffer.since(sinceEpoch, since, deliveredSeq);
+		if (missed == null) {
+			replayResyncs.increment();
+			session.enqueue(null, "{\"type\":\"resync\",\"seq\":" + deliveredSeq + ",\"epoch\":\""
+					+ replayBuffer.getEpoch() + "\"}");
+			return;
+		}
+		Set<String> subscribed = session.getTopics();
+		for (ReplayBuffer.Entry entry : missed) {
+			if (!Collections.disjoint(subscribed, entry.getTopics())) {
+				enqueue(session, null, entry.getJson(), null);
+				replayedEvents.increment();
+			}
+		}
+	}
+
+	private void flush() {
+		LinkedHashMap<String, PendingEvent> events;
+		synchronized (batchLock) {
+			events = pending;
+			pending = new LinkedHashMap<>();
+			flushScheduled = false;
+		}
+		deliver(new ArrayList<>(events.values()));
+	}
+
+	/**
+	 * Monta um quadro por conexão com os eventos dos tópicos que ela assina
+	 */
+	private void deliver(List<PendingEvent> events) {
+		FanOutEvent jfrEvent = new FanOutEvent();
+		jfrEvent.begin();
+		Map<ClientSession, List<PendingEvent>> perSession = new LinkedHashMap<>();
+		for (PendingEvent event : events) {
+			deliveredSeq = Math.max(deliveredSeq, event.seq);
+			for (ClientSession session : topicIndex.subscribersOf(event.topics)) {
+				perSession.computeIfAbsent(session, s -> new ArrayList<>(events.size())).add(event);
+			}
+		}
+
+		// Conexões com o mesmo conjunto de eventos compartilham o quadro serializado
+		// e, no modo binário, o quadro comprimido
+		Map<List<PendingEvent>, String> frames = new HashMap<>();
+		Map<String, byte[]> compressed = new IdentityHashMap<>();
+		int sent = 0;
+		for (Map.Entry<ClientSession, List<PendingEvent>> entry : perSession.entrySet()) {
+			List<PendingEvent> sessionEvents = entry.getValue();
+			ClientSession session = entry.getKey();
+			if (sessionEvents.size() == 1 || !session.getTransport().acceptsBatches()) {
+				// SSE: um evento por mensagem, cada um com o próprio id
+				for (PendingEvent event : sessionEvents) {
+					enqueue(session, event.key, event.message, compressed);
+				}
+				framesSent.add(sessionEvents.size());
+				sent += sessionEvents.size();
+			} else {
+				enqueue(session, null, frames.computeIfAbsent(sessionEvents, this::encodeBatch), compressed);
+				framesSent.increment();
+				sent++;
+			}
+			deliveredEvents.add(sessionEvents.size());
+			schedule(session);
+		}
+		jfrEvent.end();
+		if (jfrEvent.shouldCommit()) {
+			jfrEvent.events = events.size();
+			jfrEvent.sessions = perSession.size();
+			jfrEvent.frames = sent;
+			jfrEvent.commit();
+		}
+	}
+
+	private void enqueue(ClientSession session, String key, String frame, Map<String, byte[]> compressed) {
+		if (session.getEncoding() != ClientSession.Encoding.BINARY) {
+			session.enqueue(key, frame);
+			return;
+		}
+		byte[] data = compressed != null ? compressed.get(frame) : null;
+		if (data == null) {
+			data = deflate(frame);
+			if (compressed != null) {
+				compressed.put(frame, data);
+			}
+		}
+		session.enqueue(key, data);
+	}
+
+	/**
+	 * DEFLATE raw (sem cabeçalho zlib), o formato de DecompressionStream("deflate-raw")
+	 */
+	private byte[] deflate(String frame) {
+		byte[] input = frame.getBytes(StandardCharsets.UTF_8);
+		ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(64, input.length / 2));
+		deflater.reset();
+		deflater.setInput(input);
+		deflater.finish();
+		while (!deflater.finished()) {
+			int length = deflater.deflate(deflateBuffer);
+			output.write(deflateBuffer, 0, length);
+		}
+		binaryFramesEncoded.increment();
+		binaryBytesIn.add(input.length);
+		binaryBytesOut.add(output.size());
+		return output.toByteArray();
+	}
+
+	/**
+	 * As mensagens já são JSON serializado uma única vez na publicação; o lote
+	 * apenas as concatena em um array
+	 */
+	private String encodeBatch(List<PendingEvent> events) {
+		StringBuilder batch = new StringBuilder(events.size() * 128).append('[');
+		for (int i = 0; i < events.size(); i++) {
+			if (i > 0) {
+				batch.append(',');
+			}
+			batch.append(events.get(i).message);
+		}
+		return batch.append(']').toString();
+	}
+
+	private void schedule(ClientSession session) {
+		if (session.markScheduled()) {
+			drainer.execute(() -> drain(session));
+		}
+	}
+
+	private void drain(ClientSession session) {
+		try {
+			long now = System.currentTimeMillis();
+			if (!session.drain(maxPendingFrames, now, sendLatency)) {
+				session.clearScheduled();
+				// Mensagem pode ter chegado entre a drenagem e a liberação da marca
+				if (session.hasPending() && session.getTransport().isOpen()) {
+					schedule(session);
+				}
+				return;
+			}
+
+			if (session.getBackloggedMillis(now) > slowConsumerTimeoutMs) {
+				slowConsumersClosed.increment();
+				log.warn("Desconectando cliente lento {} ({} mensagens pendentes)",
+						session.getTransport().getRemoteAddress(), session.getQueueDepth());
+				session.clearScheduled();
+				session.getTransport().close(CloseFrame.TRY_AGAIN_LATER, "Cliente lento");
+				return;
+			}
+			drainer.schedule(() -> drain(session), RETRY_DELAY_MS, TimeUnit.MILLISECONDS);
+		} catch (Exception e) {
+			log.warn("Falha ao enviar notificação para {}", session.getTransport().getRemoteAddress(), e);
+			session.clearScheduled();
+		}
+	}
+
+	private void recordSendLatency(long nanos) {
+		sendCount.increment();
+		sendLatencyNanos.add(nanos);
+		maxSendLatencyNanos.accumulateAndGet(nanos, Math::max);
+	}
+
+	/**
+	 * Remove do registro as conexões que fecharam sem passar pelo onClose. A
+	 * detecção de conexões mortas é do heartbeat da biblioteca (ping/pong); aqui
+	 * uma conexão vista fechada, ou presa no fechamento, em duas varreduras
+	 * seguidas é encerrada e descartada. Transportes sem ping próprio (SSE)
+	 * recebem a mensagem de keep-alive, e a escrita que falha os fecha.
+	 */
+	private void evictStale() {
+		try {
+			for (ClientSession session : registry.getSessions()) {
+				SessionTransport transport = session.getTransport();
+				if (transport.isOpen()) {
+					String keepAlive = transport.getKeepAliveMessage();
+					if (keepAlive != null && !session.hasPending()) {
+						session.enqueue(null, keepAlive);
+						schedule(session);
+					}
+					continue;
+				}
+				if (!session.markStale()) {
+					continue;
+				}
+				transport.abort("Conexão inativa");
+				if (registry.remove(session)) {
+					detach(session);
+					staleEvicted.increment();
+					log.info("Conexão inativa removida: {}", transport.getRemoteAddress());
+				}
+			}
+		} catch (Exception e) {
+			log.warn("Falha na varredura de conexões WebSocket", e);
+		}
+	}
+
+	public long getPublished() {
+		return published.sum();
+	}
+
+	public long getSlowConsumersClosed() {
+		return slowConsumersClosed.sum();
+	}
+
+	/**
+	 * Métricas do agrupamento: eventos fundidos na janela e quadros economizados
+	 * (eventos entregues menos quadros efetivamente enfileirados)
+	 */
+	public Map<String, Object> getStats() {
+		long delivered = deliveredEvents.sum();
+		long frames = framesSent.sum();
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("publishedEvents", published.sum());
+		stats.put("coalescedEvents", coalescedEvents.sum());
+		stats.put("deliveredEvents", delivered);
+		stats.put("framesSent", frames);
+		stats.put("framesSaved", delivered - frames);
+		stats.put("slowConsumersClosed", slowConsumersClosed.sum());
+		stats.put("batchWindowMs", batchWindowMs);
+		stats.put("epoch", replayBuffer.getEpoch());
+		stats.put("lastSeq", replayBuffer.getLastSeq());
+		stats.put("replayedEvents", replayedEvents.sum());
+		stats.put("replayResyncs", replayResyncs.sum());
+		long sends = sendCount.sum();
+		stats.put("sendLatencyAvgMs", sends == 0 ? 0.0 : sendLatencyNanos.sum() / (double) sends / 1_000_000);
+		stats.put("sendLatencyMaxMs", maxSendLatencyNanos.get() / 1_000_000.0);
+		stats.put("staleEvicted", staleEvicted.sum());
+		stats.put("binaryFramesEncoded", binaryFramesEncoded.sum());
+		stats.put("binaryBytesIn", binaryBytesIn.sum());
+		stats.put("binaryBytesOut", binaryBytesOut.sum());
+		return stats;
+	}
+
+	private static final class PublisherThreadFactory implements ThreadFactory {
+		private final String prefix;
+		private final AtomicInteger counter = new AtomicInteger();
+
+		PublisherThreadFactory(String prefix) {
+			this.prefix = prefix;
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
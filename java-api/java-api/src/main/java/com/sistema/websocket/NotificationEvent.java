@@ -0,0 +1,107 @@
+package com.sistema.websocket;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.sistema.pedidos.model.Order;
+import com.sistema.pedidos.model.Product;
+import com.sistema.pedidos.util.JsonCodec;
+
+/**
+ * Evento enviado aos clientes com a entidade alterada, para que o front-end
+ * aplique a mudança sem refazer a consulta. É serializado uma única vez, na
+ * criação, e o mesmo JSON é compartilhado por todos os destinatários:
+ *
+ * <pre>
+ * {"type":"order.status","path":"/status_pedidos/12/Pronto","data":{...}}
+ * </pre>
+ *
+ * O campo path mantém a notificação textual antiga, usada pelo cliente como
+ * fallback (recarregar os dados) quando não consegue aplicar o delta.
+ */
+public final class NotificationEvent {
+
+	public static final String ORDER_CREATED = "order.created";
+	public static final String ORDER_STATUS = "order.status";
+	public static final String CHAT_MESSAGE = "chat.message";
+	public static final String PRODUCT_CHANGED = "product.changed";
+
+	private final String type;
+	private final String path;
+	private final String key;
+	private final String json;
+
+	/**
+	 * @param key identifica eventos que se substituem (ex.: status do mesmo
+	 *            pedido); null quando todo evento deve ser entregue
+	 */
+	public NotificationEvent(String type, String path, String key, Object data) {
+		this.type = type;
+		this.path = path;
+		this.key = key;
+
+		Map<String, Object> envelope = new LinkedHashMap<>();
+		envelope.put("type", type);
+		envelope.put("path", path);
+		envelope.put("data", data);
+		try {
+			this.json = new String(JsonCodec.getInstance().write(envelope), StandardCharsets.UTF_8);
+		} catch (Exception e) {
+			throw new IllegalArgumentException("Falha ao serializar evento " + type, e);
+		}
+	}
+
+	public static NotificationEvent orderCreated(Order order) {
+		return new NotificationEvent(ORDER_CREATED, "/novo_pedidos/" + order.getId(), null, order);
+	}
+
+	/**
+	 * Mudanças de status do mesmo pedido se substituem: só o último status
+	 * pendente interessa ao cliente
+	 */
+	public static NotificationEvent orderStatus(Order order) {
+		String status = order.getStatus();
+		Map<String, Object> data = new LinkedHashMap<>();
+		data.put("id", order.getId());
+		data.put("status", status);
+		data.put("updatedAt", order.getUpdatedAt());
+		return new NotificationEvent(ORDER_STATUS,
+				"/status_pedidos/" + order.getId() + "/" + status.substring(0, 1).toUpperCase() + status.substring(1),
+				ORDER_STATUS + ":" + order.getId(), data);
+	}
+
+	public static NotificationEvent chatMessage(String orderId, Order.ChatMessage message) {
+		Map<String, Object> data = new LinkedHashMap<>();
+		data.put("orderId", orderId);
+		data.put("message", message);
+		return new NotificationEvent(CHAT_MESSAGE, "/chat/" + orderId, null, message != null ? data : null);
+	}
+
+	public static NotificationEvent productChanged(Product product) {
+		return new NotificationEvent(PRODUCT_CHANGED, "/produto", PRODUCT_CHANGED + ":" + product.getId(), product);
+	}
+
+	public static NotificationEvent productDeleted(Long productId) {
+		Map<String, Object> data = new LinkedHashMap<>();
+		data.put("id", productId);
+		data.put("deleted", true);
+		return new NotificationEvent(PRODUCT_CHANGED, "/produto", PRODUCT_CHANGED + ":" + productId, data);
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public String getJson() {
+		return json;
+	}
+}
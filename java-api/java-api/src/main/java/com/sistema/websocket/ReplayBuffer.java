@@ -0,0 +1,97 @@
+package com.sistema.websocket;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Buffer circular com os eventos mais recentes, numerados em sequência. Um
+ * cliente que reconecta com ?since=seq&amp;epoch=... recebe apenas o que perdeu;
+ * se a lacuna for maior que o buffer, precisa recarregar tudo.
+ * <p>
+ * O seq recomeça em 1 a cada partida do servidor, então cada buffer tem uma
+ * época (o instante de criação): um since de outra época não é comparável
+ * com os seqs atuais e também exige recarregar tudo.
+ */
+public final class ReplayBuffer {
+
+	/**
+	 * Evento numerado, já serializado com o campo seq
+	 */
+	public static final class Entry {
+		private final long seq;
+		private final Set<String> topics;
+		private final String json;
+
+		Entry(long seq, Set<String> topics, String json) {
+			this.seq = seq;
+			this.topics = topics;
+			this.json = json;
+		}
+
+		public long getSeq() {
+			return seq;
+		}
+
+		public Set<String> getTopics() {
+			return topics;
+		}
+
+		public String getJson() {
+			return json;
+		}
+	}
+
+	private final Entry[] entries;
+	private final String epoch;
+	private long lastSeq;
+
+	public ReplayBuffer(int capacity) {
+		this(capacity, Long.toString(System.currentTimeMillis(), 36));
+	}
+
+	ReplayBuffer(int capacity, String epoch) {
+		this.entries = new Entry[Math.max(1, capacity)];
+		this.epoch = epoch;
+	}
+
+	/**
+	 * Numera o evento e o guarda no buffer. O seq e a época são inseridos no
+	 * início do objeto JSON, sem serializar o evento de novo.
+	 */
+	public synchronized Entry append(Set<String> topics, String json) {
+		long seq = ++lastSeq;
+		Entry entry = new Entry(seq, topics,
+				"{\"seq\":" + seq + ",\"epoch\":\"" + epoch + "\"," + json.substring(1));
+		entries[(int) (seq % entries.length)] = entry;
+		return entry;
+	}
+
+	/**
+	 * Eventos de seq+1 até upTo, em ordem, ou null quando não é possível
+	 * completar a lacuna (época diferente, de antes de um reinício, ou seq
+	 * anterior ao buffer)
+	 */
+	public synchronized List<Entry> since(String sinceEpoch, long seq, long upTo) {
+		if (!epoch.equals(sinceEpoch) || seq > upTo || upTo > lastSeq) {
+			return null;
+		}
+		long oldest = Math.max(1, lastSeq - entries.length + 1);
+		if (seq + 1 < oldest) {
+			return null;
+		}
+		List<Entry> missed = new ArrayList<>((int) (upTo - seq));
+		for (long next = seq + 1; next <= upTo; next++) {
+			missed.add(entries[(int) (next % entries.length)]);
+		}
+		return missed;
+	}
+
+	public String getEpoch() {
+		return epoch;
+	}
+
+	public synchronized long getLastSeq() {
+		return lastSeq;
+	}
+}
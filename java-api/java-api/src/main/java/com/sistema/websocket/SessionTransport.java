@@ -0,0 +1,51 @@
+package com.sistema.websocket;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Canal por onde uma {@link ClientSession} entrega as mensagens: uma conexão
+ * WebSocket ({@link WebSocketTransport}) ou um stream SSE
+ * ({@link SseTransport}). O {@link NotificationDispatcher} trata os dois da
+ * mesma forma: mesma fila, mesma contrapressão e mesmo replay. Quadros
+ * binários só passam por um {@link BinarySessionTransport}.
+ */
+public interface SessionTransport {
+
+	boolean isOpen();
+
+	void send(String text);
+
+	/**
+	 * Quadros aguardando escrita no socket; a fila da sessão só é drenada
+	 * enquanto houver até WS_MAX_PENDING_FRAMES
+	 */
+	int getPendingFrames();
+
+	/**
+	 * Encerramento normal, com código e motivo no padrão do WebSocket
+	 */
+	void close(int code, String reason);
+
+	/**
+	 * Encerra de imediato uma conexão que já parou de responder
+	 */
+	void abort(String reason);
+
+	InetSocketAddress getRemoteAddress();
+
+	/**
+	 * Se aceita vários eventos em um único quadro (array JSON); quando não, cada
+	 * evento é enfileirado separado
+	 */
+	default boolean acceptsBatches() {
+		return true;
+	}
+
+	/**
+	 * Mensagem enfileirada a cada varredura do heartbeat, para transportes sem
+	 * ping próprio; null quando o protocolo já cuida disso
+	 */
+	default String getKeepAliveMessage() {
+		return null;
+	}
+}
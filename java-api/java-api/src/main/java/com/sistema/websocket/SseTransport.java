@@ -0,0 +1,214 @@
+package com.sistema.websocket;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sistema.pedidos.server.StreamingExchange;
+import com.sun.net.httpserver.HttpExchange;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Transporte Server-Sent Events sobre uma resposta HTTP mantida aberta. Cada
+ * evento vira uma mensagem com id "época:seq", que o EventSource devolve no
+ * cabeçalho Last-Event-ID ao reconectar. Nenhuma escrita bloqueia as threads
+ * de publicação: no modo unificado o flush só enfileira os bytes para o
+ * seletor; no modo clássico, em que a escrita no socket bloqueia, as mensagens
+ * vão para uma fila do próprio stream, escrita por uma thread sse-writer. Em
+ * ambos a fila pendente é a contrapressão vista pelo {@link ClientSession},
+ * que para de repassar em WS_MAX_PENDING_FRAMES e desconecta o cliente lento.
+ */
+@Slf4j
+public final class SseTransport implements SessionTransport {
+
+	/** Comentário SSE: ignorado pelo EventSource, mas mantém a conexão ativa */
+	static final String KEEP_ALIVE = ": ping";
+
+	private static final String SEQ_PREFIX = "{\"seq\":";
+	private static final String EPOCH_PREFIX = ",\"epoch\":\"";
+	private static final int RETRY_MS = 3000;
+
+	/**
+	 * Escritores do modo clássico: uma thread por stream com mensagens
+	 * pendentes, para que um cliente travado não segure os demais
+	 */
+	private static final ExecutorService WRITERS = Executors.newCachedThreadPool(new WriterThreadFactory());
+
+	private final HttpExchange exchange;
+	private final StreamingExchange streaming;
+	/** Mensagens aguardando o escritor (modo clássico) */
+	private final ArrayDeque<byte[]> queued = new ArrayDeque<>();
+	private boolean writing;
+	private Runnable onClose = () -> {
+	};
+	private final AtomicBoolean closed = new AtomicBoolean();
+
+	public SseTransport(HttpExchange exchange) {
+		this.exchange = exchange;
+		this.streaming = exchange instanceof StreamingExchange ? (StreamingExchange) exchange : null;
+	}
+
+	/**
+	 * Envia os cabeçalhos e o intervalo de reconexão; a resposta segue aberta
+	 * em chunked até o fechamento
+	 */
+	void start(Runnable onClose) throws IOException {
+		this.onClose = onClose;
+		exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+		exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+		// Proxies como o nginx não devem acumular o stream
+		exchange.getResponseHeaders().set("X-Accel-Buffering", "no");
+		exchange.sendResponseHeaders(200, 0);
+		write("retry: " + RETRY_MS + "\n\n");
+	}
+
+	@Override
+	public boolean isOpen() {
+		return !closed.get() && (streaming == null || streaming.isConnectionOpen());
+	}
+
+	/**
+	 * Eventos numerados (o JSON começa com {"seq":N,"epoch":"E", como gravado
+	 * pelo {@link ReplayBuffer}) levam id: E:N; comentários (": ...") seguem
+	 * como estão
+	 */
+	@Override
+	public void send(String text) {
+		if (text.startsWith(":")) {
+			write(text + "\n\n");
+			return;
+		}
+		StringBuilder message = new StringBuilder(text.length() + 32);
+		if (text.startsWith(SEQ_PREFIX)) {
+			int end = SEQ_PREFIX.length();
+			while (end < text.length() && Character.isDigit(text.charAt(end))) {
+				end++;
+			}
+			int epochStart = end + EPOCH_PREFIX.length();
+			int epochEnd = text.startsWith(EPOCH_PREFIX, end) ? text.indexOf('"', epochStart) : -1;
+			if (epochEnd > 0) {
+				message.append("id: ").append(text, epochStart, epochEnd).append(':')
+						.append(text, SEQ_PREFIX.length(), end).append('\n');
+			}
+		}
+		// O JSON serializado não tem quebras de linha, então cabe em um único data:
+		write(message.append("data: ").append(text).append("\n\n").toString());
+	}
+
+	private void write(String message) {
+		if (closed.get()) {
+			return;
+		}
+		byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+		if (streaming != null) {
+			writeNow(bytes);
+			return;
+		}
+		synchronized (queued) {
+			queued.addLast(bytes);
+			if (writing) {
+				return;
+			}
+			writing = true;
+		}
+		WRITERS.execute(this::writeQueued);
+	}
+
+	private void writeQueued() {
+		while (true) {
+			byte[] next;
+			synchronized (queued) {
+				next = closed.get() ? null : queued.pollFirst();
+				if (next == null) {
+					queued.clear();
+					writing = false;
+					return;
+				}
+			}
+			writeNow(next);
+		}
+	}
+
+	private void writeNow(byte[] bytes) {
+		try {
+			OutputStream body = exchange.getResponseBody();
+			body.write(bytes);
+			body.flush();
+		} catch (IOException e) {
+			log.debug("Stream SSE encerrado pelo cliente {}", getRemoteAddress());
+			terminate();
+		}
+	}
+
+	/**
+	 * Mensagens ainda não escritas no socket, contando a que está em escrita
+	 */
+	@Override
+	public int getPendingFrames() {
+		if (streaming != null) {
+			return streaming.getPendingWrites();
+		}
+		synchronized (queued) {
+			return queued.size() + (writing ? 1 : 0);
+		}
+	}
+
+	@Override
+	public void close(int code, String reason) {
+		terminate();
+	}
+
+	@Override
+	public void abort(String reason) {
+		terminate();
+	}
+
+	/**
+	 * No modo clássico o close também escreve no socket (fim do chunked), então
+	 * roda em uma thread sse-writer, fora de quem desconectou o cliente
+	 */
+	private void terminate() {
+		if (closed.compareAndSet(false, true)) {
+			onClose.run();
+			if (streaming != null) {
+				exchange.close();
+			} else {
+				WRITERS.execute(exchange::close);
+			}
+		}
+	}
+
+	@Override
+	public InetSocketAddress getRemoteAddress() {
+		return exchange.getRemoteAddress();
+	}
+
+	@Override
+	public boolean acceptsBatches() {
+		return false;
+	}
+
+	@Override
+	public String getKeepAliveMessage() {
+		return KEEP_ALIVE;
+	}
+
+	private static final class WriterThreadFactory implements ThreadFactory {
+		private final AtomicInteger counter = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "sse-writer-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package com.sistema.websocket;
+
+import org.java_websocket.enums.Opcode;
+import org.java_websocket.extensions.IExtension;
+import org.java_websocket.extensions.permessage_deflate.PerMessageDeflateExtension;
+import org.java_websocket.framing.Framedata;
+
+/**
+ * permessage-deflate apenas para quadros de texto. Os quadros binários
+ * (encoding=binary) já saem comprimidos do {@link NotificationDispatcher},
+ * uma vez para todos os clientes, e comprimi-los de novo por conexão só
+ * gastaria CPU.
+ */
+public class TextDeflateExtension extends PerMessageDeflateExtension {
+
+	public TextDeflateExtension(int threshold) {
+		setThreshold(threshold);
+	}
+
+	@Override
+	public void encodeFrame(Framedata frame) {
+		if (frame.getOpcode() == Opcode.BINARY) {
+			return;
+		}
+		super.encodeFrame(frame);
+	}
+
+	/**
+	 * Cada conexão recebe sua própria cópia (com Deflater próprio), mantendo o
+	 * limite configurado
+	 */
+	@Override
+	public IExtension copyInstance() {
+		return new TextDeflateExtension(getThreshold());
+	}
+}
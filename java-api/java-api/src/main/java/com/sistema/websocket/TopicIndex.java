@@ -0,0 +1,77 @@
+package com.sistema.websocket;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice tópico → conexões inscritas. O fan-out consulta apenas os tópicos do
+ * evento, então o custo cresce com o número de interessados e não com o total
+ * de conexões.
+ */
+public final class TopicIndex {
+
+	private final Map<String, Set<ClientSession>> subscribers = new ConcurrentHashMap<>();
+
+	/**
+	 * A inclusão acontece dentro do compute, atômica com a remoção do conjunto
+	 * vazio em removeFromTopic; fora dele, a sessão poderia entrar num conjunto
+	 * já descartado do índice
+	 */
+	public void subscribe(ClientSession session, String topic) {
+		if (session.addTopic(topic)) {
+			subscribers.compute(topic, (t, sessions) -> {
+				Set<ClientSession> members = sessions != null ? sessions : ConcurrentHashMap.newKeySet();
+				members.add(session);
+				return members;
+			});
+		}
+	}
+
+	public void unsubscribe(ClientSession session, String topic) {
+		if (session.removeTopic(topic)) {
+			removeFromTopic(session, topic);
+		}
+	}
+
+	/**
+	 * Remove a conexão de todos os tópicos (ao desconectar)
+	 */
+	public void unsubscribeAll(ClientSession session) {
+		for (String topic : session.clearTopics()) {
+			removeFromTopic(session, topic);
+		}
+	}
+
+	private void removeFromTopic(ClientSession session, String topic) {
+		subscribers.computeIfPresent(topic, (t, sessions) -> {
+			sessions.remove(session);
+			return sessions.isEmpty() ? null : sessions;
+		});
+	}
+
+	/**
+	 * Conexões inscritas em pelo menos um dos tópicos, sem repetição
+	 */
+	public Collection<ClientSession> subscribersOf(Collection<String> topics) {
+		if (topics.size() == 1) {
+			Set<ClientSession> sessions = subscribers.get(topics.iterator().next());
+			return sessions != null ? sessions : Collections.emptySet();
+		}
+		Set<ClientSession> union = new LinkedHashSet<>();
+		for (String topic : topics) {
+			Set<ClientSession> sessions = subscribers.get(topic);
+			if (sessions != null) {
+				union.addAll(sessions);
+			}
+		}
+		return union;
+	}
+
+	public int getTopicCount() {
+		return subscribers.size();
+	}
+}
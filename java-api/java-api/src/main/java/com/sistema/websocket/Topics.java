@@ -0,0 +1,93 @@
+package com.sistema.websocket;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import com.sistema.pedidos.enums.Permissions;
+import com.sistema.pedidos.enums.Status;
+
+/**
+ * Tópicos de notificação. Cada evento é publicado em um ou mais tópicos e só
+ * chega às conexões inscritas em algum deles:
+ * <ul>
+ * <li>{@code pedidos}: quadro de pedidos (novos pedidos e mudanças de status)</li>
+ * <li>{@code pedido:{id}}: tudo sobre um pedido (status e chat)</li>
+ * <li>{@code status:{status}}: pedidos que entraram no status (ex.: status:pronto)</li>
+ * <li>{@code chat} e {@code chat:{id}}: mensagens de chat</li>
+ * <li>{@code produtos}: alterações no cardápio</li>
+ * <li>{@code perm:{permissao}}: avisos para quem tem a permissão</li>
+ * </ul>
+ */
+public final class Topics {
+
+	public static final String PEDIDOS = "pedidos";
+	public static final String CHAT = "chat";
+	public static final String PRODUTOS = "produtos";
+
+	private Topics() {
+	}
+
+	public static String pedido(String orderId) {
+		return "pedido:" + orderId;
+	}
+
+	public static String status(String status) {
+		return "status:" + status.toLowerCase(Locale.ROOT);
+	}
+
+	public static String chat(String orderId) {
+		return "chat:" + orderId;
+	}
+
+	public static String permissao(Permissions permission) {
+		return "perm:" + permission.getName();
+	}
+
+	/**
+	 * Inscrições automáticas de uma conexão, derivadas das permissões do token
+	 */
+	public static Set<String> defaultsFor(Set<String> permissions) {
+		Set<String> topics = new LinkedHashSet<>();
+		for (String permission : permissions) {
+			topics.add("perm:" + permission);
+		}
+		if (permissions.contains(Permissions.VER_PEDIDOS.getName())) {
+			topics.add(PEDIDOS);
+		}
+		if (permissions.contains(Permissions.VER_CHAT.getName())) {
+			topics.add(CHAT);
+		}
+		if (permissions.contains(Permissions.VER_CARDAPIO.getName())) {
+			topics.add(PRODUTOS);
+		}
+		// Entregadores acompanham apenas pedidos prontos para sair
+		if (permissions.contains(Permissions.ACOMPANHAR_ENTREGAS.getName())) {
+			topics.add(status(Status.PRONTO.getName()));
+		}
+		return topics;
+	}
+
+	/**
+	 * Verifica se as permissões autorizam a inscrição pedida pelo cliente
+	 */
+	public static boolean canSubscribe(Set<String> permissions, String topic) {
+		boolean verPedidos = permissions.contains(Permissions.VER_PEDIDOS.getName());
+		if (PEDIDOS.equals(topic)) {
+			return verPedidos;
+		}
+		if (topic.startsWith("pedido:") || topic.startsWith("status:")) {
+			return verPedidos || permissions.contains(Permissions.ACOMPANHAR_ENTREGAS.getName());
+		}
+		if (CHAT.equals(topic) || topic.startsWith("chat:")) {
+			return permissions.contains(Permissions.VER_CHAT.getName());
+		}
+		if (PRODUTOS.equals(topic)) {
+			return permissions.contains(Permissions.VER_CARDAPIO.getName());
+		}
+		if (topic.startsWith("perm:")) {
+			return permissions.contains(topic.substring("perm:".length()));
+		}
+		return false;
+	}
+}
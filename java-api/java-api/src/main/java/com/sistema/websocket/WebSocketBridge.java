@@ -0,0 +1,101 @@
+package com.sistema.websocket;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.function.Consumer;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.WebSocketAdapter;
+import org.java_websocket.WebSocketImpl;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.handshake.Handshakedata;
+
+/**
+ * Liga as conexões WebSocket aceitas pelo servidor unificado (HTTP e WebSocket
+ * na mesma porta) ao {@link NotificacaoWebSocketServer}. O servidor unificado
+ * lê e escreve no socket; o WebSocketImpl da biblioteca faz o handshake e o
+ * enquadramento, e os eventos chegam aos mesmos onOpen/onMessage/onClose do
+ * modo com porta separada.
+ */
+public final class WebSocketBridge extends WebSocketAdapter {
+
+	private final NotificacaoWebSocketServer server;
+	private final Consumer<WebSocketImpl> writeDemand;
+
+	/**
+	 * @param writeDemand chamado, de qualquer thread, quando a conexão tem dados
+	 *                    a escrever
+	 */
+	public WebSocketBridge(Consumer<WebSocketImpl> writeDemand) {
+		// Instância usada apenas pelos callbacks e pelas extensões negociadas;
+		// nunca abre a própria porta
+		this.server = new NotificacaoWebSocketServer(new InetSocketAddress(0));
+		this.writeDemand = writeDemand;
+		server.iniciarHeartbeat();
+	}
+
+	/**
+	 * Cria a conexão para um socket que pediu upgrade; os bytes da requisição
+	 * devem ser repassados a {@link WebSocketImpl#decode(ByteBuffer)}
+	 */
+	public WebSocketImpl newConnection(SocketChannel channel, SelectionKey key) {
+		WebSocketImpl connection = new WebSocketImpl(this, server.getDraft());
+		connection.setChannel(channel);
+		connection.setSelectionKey(key);
+		return connection;
+	}
+
+	@Override
+	public void onWebsocketOpen(WebSocket conn, Handshakedata handshake) {
+		server.abrirConexaoExterna(conn, (ClientHandshake) handshake);
+	}
+
+	@Override
+	public void onWebsocketMessage(WebSocket conn, String message) {
+		server.onMessage(conn, message);
+	}
+
+	@Override
+	public void onWebsocketMessage(WebSocket conn, ByteBuffer blob) {
+		server.onMessage(conn, blob);
+	}
+
+	@Override
+	public void onWebsocketClose(WebSocket conn, int code, String reason, boolean remote) {
+		server.fecharConexaoExterna(conn, code, reason, remote);
+	}
+
+	@Override
+	public void onWebsocketClosing(WebSocket conn, int code, String reason, boolean remote) {
+	}
+
+	@Override
+	public void onWebsocketCloseInitiated(WebSocket conn, int code, String reason) {
+	}
+
+	@Override
+	public void onWebsocketError(WebSocket conn, Exception ex) {
+		server.onError(conn, ex);
+	}
+
+	@Override
+	public void onWriteDemand(WebSocket conn) {
+		writeDemand.accept((WebSocketImpl) conn);
+	}
+
+	@Override
+	public InetSocketAddress getLocalSocketAddress(WebSocket conn) {
+		return (InetSocketAddress) socket(conn).socket().getLocalSocketAddress();
+	}
+
+	@Override
+	public InetSocketAddress getRemoteSocketAddress(WebSocket conn) {
+		return (InetSocketAddress) socket(conn).socket().getRemoteSocketAddress();
+	}
+
+	private static SocketChannel socket(WebSocket conn) {
+		return (SocketChannel) ((WebSocketImpl) conn).getChannel();
+	}
+}
@@ -0,0 +1,63 @@
+package com.sistema.websocket;
+
+import java.net.InetSocketAddress;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.WebSocketImpl;
+import org.java_websocket.framing.CloseFrame;
+
+/**
+ * Transporte de uma conexão WebSocket; o ping/pong fica com a biblioteca
+ */
+public final class WebSocketTransport implements BinarySessionTransport {
+
+	private final WebSocket connection;
+
+	public WebSocketTransport(WebSocket connection) {
+		this.connection = connection;
+	}
+
+	public WebSocket getConnection() {
+		return connection;
+	}
+
+	@Override
+	public boolean isOpen() {
+		return connection.isOpen();
+	}
+
+	@Override
+	public void send(String text) {
+		connection.send(text);
+	}
+
+	@Override
+	public void send(byte[] data) {
+		connection.send(data);
+	}
+
+	@Override
+	public int getPendingFrames() {
+		if (connection instanceof WebSocketImpl) {
+			return ((WebSocketImpl) connection).outQueue.size();
+		}
+		return connection.hasBufferedData() ? 1 : 0;
+	}
+
+	@Override
+	public void close(int code, String reason) {
+		connection.close(code, reason);
+	}
+
+	@Override
+	public void abort(String reason) {
+		if (!connection.isClosed()) {
+			connection.closeConnection(CloseFrame.ABNORMAL_CLOSE, reason);
+		}
+	}
+
+	@Override
+	public InetSocketAddress getRemoteAddress() {
+		return connection.getRemoteSocketAddress();
+	}
+}
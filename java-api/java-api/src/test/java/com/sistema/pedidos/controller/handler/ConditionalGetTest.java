@@ -0,0 +1,118 @@
+package com.sistema.pedidos.controller.handler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * ETag e 304 de {@link BaseHandler#handleConditionalGet}, em um servidor real
+ * na porta efêmera
+ */
+class ConditionalGetTest {
+
+	private static final String ETAG = "W/\"orders-abc-7\"";
+
+	private static HttpServer server;
+	private static HttpClient client;
+
+	private static class BoardHandler extends BaseHandler {
+
+		BoardHandler() {
+			super(null, new ObjectMapper());
+		}
+
+		void board(HttpExchange exchange) throws IOException {
+			if (handleConditionalGet(exchange, "orders", "abc-7")) {
+				return;
+			}
+			if (exchange.getRequestURI().getQuery() != null) {
+				sendErrorResponse(exchange, 500, "falha");
+				return;
+			}
+			sendJsonResponse(exchange, 200, Map.of("orders", 3));
+		}
+	}
+
+	@BeforeAll
+	static void start() throws IOException {
+		BoardHandler handler = new BoardHandler();
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/board", handler::board);
+		server.start();
+		client = HttpClient.newHttpClient();
+	}
+
+	@AfterAll
+	static void stop() {
+		server.stop(0);
+	}
+
+	@Test
+	void respostaCompletaLevaETagFraco() throws Exception {
+		HttpResponse<String> response = get("/board", null);
+		assertEquals(200, response.statusCode());
+		assertEquals(ETAG, response.headers().firstValue("ETag").orElse(null));
+		assertEquals("no-cache", response.headers().firstValue("Cache-Control").orElse(null));
+	}
+
+	@Test
+	void mesmaVersaoResponde304SemCorpo() throws Exception {
+		HttpResponse<String> response = get("/board", ETAG);
+		assertEquals(304, response.statusCode());
+		assertEquals("", response.body());
+		assertEquals(ETAG, response.headers().firstValue("ETag").orElse(null));
+	}
+
+	@Test
+	void respostasCompletaE304VariamPorAcceptEncoding() throws Exception {
+		// A compressão vem habilitada por padrão
+		assertEquals(List.of("Accept-Encoding"), get("/board", null).headers().allValues("Vary"));
+		assertEquals(List.of("Accept-Encoding"), get("/board", ETAG).headers().allValues("Vary"));
+	}
+
+	@Test
+	void comparacaoFracaAceitaTagSemPrefixoListaECuringa() throws Exception {
+		assertEquals(304, get("/board", "\"orders-abc-7\"").statusCode());
+		assertEquals(304, get("/board", "W/\"orders-abc-6\", W/\"orders-abc-7\"").statusCode());
+		assertEquals(304, get("/board", "*").statusCode());
+	}
+
+	@Test
+	void versaoDiferenteRespondeCompleto() throws Exception {
+		assertEquals(200, get("/board", "W/\"orders-abc-6\"").statusCode());
+	}
+
+	@Test
+	void erroNaoLevaETag() throws Exception {
+		HttpResponse<String> response = get("/board?fail", null);
+		assertEquals(500, response.statusCode());
+		assertFalse(response.headers().firstValue("ETag").isPresent());
+		assertTrue(response.body().contains("falha"));
+	}
+
+	private static HttpResponse<String> get(String path, String ifNoneMatch) throws Exception {
+		HttpRequest.Builder request = HttpRequest
+				.newBuilder(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path));
+		if (ifNoneMatch != null) {
+			request.header("If-None-Match", ifNoneMatch);
+		}
+		return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+	}
+}
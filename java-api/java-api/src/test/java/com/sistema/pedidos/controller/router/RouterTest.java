@@ -0,0 +1,96 @@
+package com.sistema.pedidos.controller.router;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpHandler;
+
+class RouterTest {
+
+	private static final HttpHandler NOOP = exchange -> {
+	};
+
+	private Router router;
+
+	@BeforeEach
+	void setUp() {
+		router = new Router(NOOP, NOOP)
+				.get("/api/orders", NOOP)
+				.post("/api/orders", NOOP)
+				.get("/api/orders/stats", NOOP)
+				.get("/api/orders/{id}", NOOP)
+				.put("/api/orders/{id}/status", NOOP)
+				.get("/api/products/{id:long}", NOOP)
+				.get("/api/products/category/{category}", NOOP);
+	}
+
+	@Test
+	void encontraRotaEstatica() {
+		assertEquals("/api/orders", router.find("/api/orders").getTemplate());
+	}
+
+	@Test
+	void segmentoEstaticoTemPrioridadeSobreParametro() {
+		assertEquals("/api/orders/stats", router.find("/api/orders/stats").getTemplate());
+		assertEquals("/api/orders/{id}", router.find("/api/orders/2024010100001").getTemplate());
+	}
+
+	@Test
+	void ignoraBarrasRepetidasEFinais() {
+		assertEquals("/api/orders/{id}/status", router.find("/api//orders/42/status/").getTemplate());
+	}
+
+	@Test
+	void caminhoDesconhecidoRetornaNull() {
+		assertNull(router.find("/api/unknown"));
+		assertNull(router.find("/api/orders/42/items"));
+		assertNull(router.find("/"));
+	}
+
+	@Test
+	void parametroLongAceitaApenasDigitos() {
+		assertNotNull(router.find("/api/products/123"));
+		assertNull(router.find("/api/products/abc"));
+		assertNull(router.find("/api/products/-1"));
+		// Mais de 18 dígitos não cabe em um long sem risco de overflow
+		assertNull(router.find("/api/products/1234567890123456789"));
+	}
+
+	@Test
+	void extraiParametrosDoCaminho() {
+		String path = "/api/orders/2024010100001/status";
+		Route route = router.find(path);
+		assertEquals("2024010100001", route.getParam(path, "id"));
+
+		String productPath = "/api/products/77";
+		assertEquals(77L, router.find(productPath).getLongParam(productPath, "id"));
+
+		String categoryPath = "/api/products/category/bebidas";
+		assertEquals("bebidas", router.find(categoryPath).getParam(categoryPath, "category"));
+	}
+
+	@Test
+	void parametroInexistenteLancaIllegalArgument() {
+		String path = "/api/orders/1";
+		Route route = router.find(path);
+		assertThrows(IllegalArgumentException.class, () -> route.getParam(path, "category"));
+	}
+
+	@Test
+	void rotaDuplicadaLancaIllegalState() {
+		assertThrows(IllegalStateException.class, () -> router.get("/api/orders", NOOP));
+	}
+
+	@Test
+	void templatesConflitantesLancamIllegalState() {
+		// Mesmo caminho com nome de parâmetro diferente
+		assertThrows(IllegalStateException.class, () -> router.get("/api/orders/{orderId}/status", NOOP));
+		// Mesmo nível com tipo de parâmetro diferente
+		assertThrows(IllegalStateException.class, () -> router.delete("/api/products/{id}", NOOP));
+	}
+}
@@ -0,0 +1,80 @@
+package com.sistema.pedidos.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+import com.sistema.pedidos.model.Product;
+
+class EventRingTest {
+
+	@Test
+	void capacidadeArredondadaParaPotenciaDeDois() {
+		assertEquals(8, new EventRing(5, 1).capacity());
+		assertEquals(8, new EventRing(8, 1).capacity());
+		assertEquals(1024, new EventRing(1000, 1).capacity());
+	}
+
+	@Test
+	void consumidorLeEventosNaOrdemPublicada() {
+		EventRing ring = new EventRing(4, 1);
+		DomainEvent first = event(1);
+		DomainEvent second = event(2);
+
+		long seq1 = ring.tryClaim();
+		long seq2 = ring.tryClaim();
+		ring.publish(seq2, second);
+		// Reservado mas ainda não publicado: o consumidor espera
+		assertNull(ring.peek(0));
+
+		ring.publish(seq1, first);
+		assertSame(first, ring.peek(0));
+		ring.advance(0);
+		assertSame(second, ring.peek(0));
+		ring.advance(0);
+		assertNull(ring.peek(0));
+	}
+
+	@Test
+	void anelCheioAteOConsumidorMaisLentoAvancar() {
+		EventRing ring = new EventRing(4, 2);
+		for (int i = 0; i < 4; i++) {
+			ring.publish(ring.tryClaim(), event(i));
+		}
+		assertEquals(-1, ring.tryClaim());
+
+		// Só o consumidor 0 avançou: o 1 ainda segura a posição
+		ring.advance(0);
+		assertEquals(-1, ring.tryClaim());
+		assertEquals(3, ring.lag(0));
+		assertEquals(4, ring.lag(1));
+
+		ring.advance(1);
+		assertEquals(4, ring.tryClaim());
+	}
+
+	@Test
+	void posicaoReaproveitadaNaoExpoeEventoDaVoltaAnterior() {
+		EventRing ring = new EventRing(4, 1);
+		for (int i = 0; i < 4; i++) {
+			ring.publish(ring.tryClaim(), event(i));
+			ring.advance(0);
+		}
+
+		// A sequência 4 volta à posição da 0, que ainda guarda o evento antigo
+		long seq = ring.tryClaim();
+		assertEquals(4, seq);
+		assertNull(ring.peek(0));
+		DomainEvent next = event(4);
+		ring.publish(seq, next);
+		assertSame(next, ring.peek(0));
+	}
+
+	private static DomainEvent event(long id) {
+		Product product = new Product();
+		product.setId(id);
+		return new ProductChanged(product);
+	}
+}
@@ -0,0 +1,322 @@
+package com.sistema.pedidos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sistema.pedidos.context.RequestContext;
+import com.sistema.pedidos.model.Order;
+import com.sistema.pedidos.util.DatabaseConfig;
+
+/**
+ * Quantidade de consultas das listagens de pedidos, contra um driver JDBC
+ * falso que responde às URLs jdbc:mysql: com linhas em memória
+ */
+class OrderServiceQueryCountTest {
+
+	private static final Timestamp CREATED_AT = Timestamp.valueOf("2024-01-01 12:00:00");
+
+	private static final FakeDriver driver = new FakeDriver();
+	private static final List<Driver> previousDrivers = new ArrayList<>();
+
+	private OrderService orderService;
+
+	@BeforeAll
+	static void registerDriver() throws Exception {
+		// Carrega o driver do MySQL antes, para que não volte a se registrar
+		Class.forName(DatabaseConfig.class.getName());
+		for (Driver registered : Collections.list(DriverManager.getDrivers())) {
+			DriverManager.deregisterDriver(registered);
+			previousDrivers.add(registered);
+		}
+		DriverManager.registerDriver(driver);
+	}
+
+	@AfterAll
+	static void restoreDrivers() throws SQLException {
+		DriverManager.deregisterDriver(driver);
+		for (Driver previous : previousDrivers) {
+			DriverManager.registerDriver(previous);
+		}
+	}
+
+	@BeforeEach
+	void setUp() {
+		driver.reset();
+		orderService = new OrderService(new ProductService());
+		// A consulta do contador de pedidos, feita no construtor, fica de fora
+		driver.executed.set(0);
+		RequestContext.initialize("test", "127.0.0.1", null, "GET", "/api/orders");
+	}
+
+	@AfterEach
+	void tearDown() {
+		RequestContext.clear();
+	}
+
+	@Test
+	void findAllNaoFazUmaConsultaPorPedido() {
+		driver.addOrders(50);
+
+		List<Order> orders = orderService.findAll();
+
+		assertEquals(50, orders.size());
+		// Pedidos, itens e chat: uma consulta cada, na mesma conexão
+		assertEquals(3, RequestContext.getQueryCount());
+		assertEquals(1, RequestContext.getConnectionCount());
+		assertEquals(3, driver.executed.get());
+	}
+
+	@Test
+	void findAllConsultaDetalhesEmLotes() {
+		driver.addOrders(1200);
+
+		assertEquals(1200, orderService.findAll().size());
+		// Três lotes de até 500 pedidos para itens e para chat
+		assertEquals(1 + 2 * 3, RequestContext.getQueryCount());
+		assertEquals(1, RequestContext.getConnectionCount());
+	}
+
+	@Test
+	void detalhesSaoAssociadosAoPedidoCorreto() {
+		driver.addOrders(10);
+
+		Map<String, Order> byId = new HashMap<>();
+		for (Order order : orderService.findAll()) {
+			byId.put(order.getId(), order);
+		}
+
+		for (int i = 0; i < 10; i++) {
+			Order order = byId.get(FakeDriver.orderId(i));
+			// Pedidos pares têm dois itens e uma mensagem; ímpares, nenhum
+			assertEquals(i % 2 == 0 ? 2 : 0, order.getItems().size());
+			assertEquals(i % 2 == 0 ? 1 : 0, order.getChat().size());
+			for (Order.OrderItem item : order.getItems()) {
+				assertTrue(item.getProductName().endsWith("#" + i));
+			}
+		}
+	}
+
+	@Test
+	void findByIdUsaUmaConexao() {
+		driver.addOrders(3);
+
+		Order order = orderService.findById(FakeDriver.orderId(2));
+
+		assertEquals(2, order.getItems().size());
+		assertEquals(3, RequestContext.getQueryCount());
+		assertEquals(1, RequestContext.getConnectionCount());
+	}
+
+	/**
+	 * Driver JDBC com as tabelas orders, order_items e order_chat_messages em
+	 * memória; o WHERE é interpretado apenas pelos ids passados como parâmetro
+	 */
+	private static final class FakeDriver implements Driver {
+
+		private final List<Map<String, Object>> orders = new ArrayList<>();
+		private final List<Map<String, Object>> items = new ArrayList<>();
+		private final List<Map<String, Object>> chat = new ArrayList<>();
+		private final AtomicInteger executed = new AtomicInteger();
+
+		static String orderId(int i) {
+			return String.format("20240101%04d", i);
+		}
+
+		void reset() {
+			orders.clear();
+			items.clear();
+			chat.clear();
+			executed.set(0);
+		}
+
+		void addOrders(int count) {
+			for (int i = 0; i < count; i++) {
+				String id = orderId(i);
+				Map<String, Object> order = new HashMap<>();
+				order.put("id", id);
+				order.put("customer_name", "Cliente " + i);
+				order.put("customer_phone", "(11) 99999-0000");
+				order.put("address", null);
+				order.put("type", "pickup");
+				order.put("status", "atendimento");
+				order.put("total", new BigDecimal("20.00"));
+				order.put("created_at", CREATED_AT);
+				order.put("updated_at", CREATED_AT);
+				orders.add(order);
+				if (i % 2 != 0) {
+					continue;
+				}
+				for (int j = 0; j < 2; j++) {
+					Map<String, Object> item = new HashMap<>();
+					item.put("order_id", id);
+					item.put("product_id", (long) j + 1);
+					item.put("product_name", "Produto " + j + " #" + i);
+					item.put("quantity", 1);
+					item.put("unit_price", new BigDecimal("10.00"));
+					items.add(item);
+				}
+				Map<String, Object> message = new HashMap<>();
+				message.put("order_id", id);
+				message.put("sender", "customer");
+				message.put("message", "Olá");
+				message.put("created_at", CREATED_AT);
+				chat.add(message);
+			}
+		}
+
+		private List<Map<String, Object>> query(String sql, Map<Integer, Object> params) {
+			executed.incrementAndGet();
+			List<Map<String, Object>> table;
+			if (sql.contains("FROM order_items")) {
+				table = items;
+			} else if (sql.contains("FROM order_chat_messages")) {
+				table = chat;
+			} else if (sql.contains("FROM orders") && !sql.contains("MAX(")) {
+				table = orders;
+			} else {
+				return Collections.emptyList();
+			}
+			if (params.isEmpty()) {
+				return table;
+			}
+			Collection<Object> ids = params.values();
+			String key = table == orders ? "id" : "order_id";
+			List<Map<String, Object>> rows = new ArrayList<>();
+			for (Map<String, Object> row : table) {
+				if (ids.contains(row.get(key))) {
+					rows.add(row);
+				}
+			}
+			return rows;
+		}
+
+		@Override
+		public Connection connect(String url, Properties info) {
+			if (!acceptsURL(url)) {
+				return null;
+			}
+			return proxy(Connection.class, (proxy, method, args) -> {
+				if ("prepareStatement".equals(method.getName())) {
+					return statement((String) args[0]);
+				}
+				return defaultValue(method.getReturnType());
+			});
+		}
+
+		private PreparedStatement statement(String sql) {
+			Map<Integer, Object> params = new HashMap<>();
+			return proxy(PreparedStatement.class, (proxy, method, args) -> {
+				switch (method.getName()) {
+				case "setString":
+				case "setLong":
+				case "setInt":
+					params.put((Integer) args[0], args[1]);
+					return null;
+				case "executeQuery":
+					return resultSet(query(sql, params));
+				default:
+					return defaultValue(method.getReturnType());
+				}
+			});
+		}
+
+		private ResultSet resultSet(List<Map<String, Object>> rows) {
+			int[] position = { -1 };
+			return proxy(ResultSet.class, (proxy, method, args) -> {
+				String name = method.getName();
+				if ("next".equals(name)) {
+					return ++position[0] < rows.size();
+				}
+				if (name.startsWith("get") && args != null && args.length == 1 && args[0] instanceof String) {
+					Object value = rows.get(position[0]).get(args[0]);
+					if (value == null) {
+						return defaultValue(method.getReturnType());
+					}
+					if (method.getReturnType() == long.class) {
+						return ((Number) value).longValue();
+					}
+					if (method.getReturnType() == int.class) {
+						return ((Number) value).intValue();
+					}
+					return value;
+				}
+				return defaultValue(method.getReturnType());
+			});
+		}
+
+		private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+			return type.cast(Proxy.newProxyInstance(FakeDriver.class.getClassLoader(), new Class<?>[] { type },
+					handler));
+		}
+
+		private static Object defaultValue(Class<?> type) {
+			if (type == boolean.class) {
+				return false;
+			}
+			if (type == int.class) {
+				return 0;
+			}
+			if (type == long.class) {
+				return 0L;
+			}
+			return null;
+		}
+
+		@Override
+		public boolean acceptsURL(String url) {
+			return url.startsWith("jdbc:mysql:");
+		}
+
+		@Override
+		public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+			return new DriverPropertyInfo[0];
+		}
+
+		@Override
+		public int getMajorVersion() {
+			return 1;
+		}
+
+		@Override
+		public int getMinorVersion() {
+			return 0;
+		}
+
+		@Override
+		public boolean jdbcCompliant() {
+			return false;
+		}
+
+		@Override
+		public Logger getParentLogger() {
+			return Logger.getGlobal();
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package com.sistema.pedidos.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ActionLogWalTest {
+
+	private static final int SEGMENT_BYTES = 64 * 1024;
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void reenviaNaOrdemDeEscritaEntreSegmentos() throws IOException {
+		ActionLogWal wal = ActionLogWal.open(dir, SEGMENT_BYTES, 8);
+		assertEquals(2000, wal.append(entries(0, 2000)));
+		assertEquals(4, wal.getSegmentCount());
+
+		List<String> replayed = drain(wal, 300);
+		assertEquals(actions(0, 2000), replayed);
+		assertEquals(0, wal.getPendingRecords());
+
+		// Segmentos reenviados são apagados no force(); o último fica ativo
+		wal.force();
+		assertEquals(1, countFiles());
+	}
+
+	@Test
+	void recuperaApenasOQueNaoFoiReenviado() throws IOException {
+		ActionLogWal wal = ActionLogWal.open(dir, SEGMENT_BYTES, 8);
+		wal.append(entries(0, 10));
+		ActionLogWal.Pending pending = wal.peek(10);
+		wal.commit(pending, 4);
+		wal.force();
+
+		ActionLogWal recovered = ActionLogWal.open(dir, SEGMENT_BYTES, 8);
+		assertEquals(6, recovered.getPendingRecords());
+		assertEquals(actions(4, 10), drain(recovered, 100));
+	}
+
+	@Test
+	void segmentoReenviadoPorInteiroEApagadoNaRecuperacao() throws IOException {
+		ActionLogWal wal = ActionLogWal.open(dir, SEGMENT_BYTES, 8);
+		wal.append(entries(0, 5));
+		drain(wal, 100);
+		wal.force();
+		assertEquals(1, countFiles());
+
+		ActionLogWal recovered = ActionLogWal.open(dir, SEGMENT_BYTES, 8);
+		assertEquals(0, recovered.getPendingRecords());
+		assertEquals(0, recovered.getSegmentCount());
+		assertEquals(0, countFiles());
+	}
+
+	@Test
+	void registroComCrcInvalidoEncerraOSegmento() throws IOException {
+		ActionLogWal wal = ActionLogWal.open(dir, SEGMENT_BYTES, 8);
+		wal.append(entries(0, 3));
+		wal.force();
+
+		// Simula escrita interrompida no terceiro registro
+		Path segment = singleFile();
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			int offset = 16;
+			for (int i = 0; i < 2; i++) {
+				offset += 8 + readInt(channel, offset);
+			}
+			ByteBuffer data = ByteBuffer.allocate(1);
+			channel.read(data, offset + 8);
+			data.put(0, (byte) (data.get(0) ^ 0xff)).rewind();
+			channel.write(data, offset + 8);
+		}
+
+		ActionLogWal recovered = ActionLogWal.open(dir, SEGMENT_BYTES, 8);
+		assertEquals(2, recovered.getPendingRecords());
+		assertEquals(actions(0, 2), drain(recovered, 100));
+	}
+
+	@Test
+	void segmentoInvalidoEIgnorado() throws IOException {
+		Files.write(dir.resolve("segment-00000000000000000007.wal"), new byte[40]);
+
+		ActionLogWal wal = ActionLogWal.open(dir, SEGMENT_BYTES, 8);
+		assertEquals(0, wal.getSegmentCount());
+		assertEquals(0, wal.getPendingRecords());
+	}
+
+	@Test
+	void limiteDeSegmentosRecusaOExcedente() throws IOException {
+		ActionLogWal wal = ActionLogWal.open(dir, SEGMENT_BYTES, 2);
+		int appended = wal.append(entries(0, 2000));
+		assertEquals(2, wal.getSegmentCount());
+		assertEquals(appended, wal.getPendingRecords());
+		assertEquals(actions(0, appended), drain(wal, 500));
+	}
+
+	private static List<ActionLogEntry> entries(int from, int to) {
+		List<ActionLogEntry> entries = new ArrayList<>();
+		for (int i = from; i < to; i++) {
+			entries.add(new ActionLogEntry(i, "INFO", "action-" + i, "m".repeat(50), "admin", (long) i, "127.0.0.1",
+					null));
+		}
+		return entries;
+	}
+
+	private static List<String> actions(int from, int to) {
+		List<String> actions = new ArrayList<>();
+		for (int i = from; i < to; i++) {
+			actions.add("action-" + i);
+		}
+		return actions;
+	}
+
+	private static List<String> drain(ActionLogWal wal, int batch) {
+		List<String> actions = new ArrayList<>();
+		ActionLogWal.Pending pending;
+		while ((pending = wal.peek(batch)) != null) {
+			for (ActionLogEntry entry : pending.getEntries()) {
+				actions.add(entry.action);
+			}
+			wal.commit(pending, pending.getEntries().size());
+		}
+		assertNull(wal.peek(batch));
+		return actions;
+	}
+
+	private static int readInt(FileChannel channel, long position) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(4);
+		channel.read(buffer, position);
+		return buffer.getInt(0);
+	}
+
+	private long countFiles() throws IOException {
+		try (Stream<Path> files = Files.list(dir)) {
+			return files.count();
+		}
+	}
+
+	private Path singleFile() throws IOException {
+		try (Stream<Path> files = Files.list(dir)) {
+			List<Path> list = files.toList();
+			assertEquals(1, list.size());
+			return list.get(0);
+		}
+	}
+}
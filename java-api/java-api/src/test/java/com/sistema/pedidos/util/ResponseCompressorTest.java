@@ -0,0 +1,77 @@
+package com.sistema.pedidos.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.sistema.pedidos.util.ResponseCompressor.Encoding;
+
+class ResponseCompressorTest {
+
+	/** Acima do mínimo padrão (COMPRESSION_MIN_SIZE=1024) */
+	private static final int LARGE = 5000;
+
+	private final ResponseCompressor compressor = ResponseCompressor.getInstance();
+
+	@Test
+	void preferenciaPorGzip() {
+		assertEquals(Encoding.GZIP, compressor.negotiate("gzip, deflate, br", LARGE));
+		assertEquals(Encoding.GZIP, compressor.negotiate("*", LARGE));
+		assertEquals(Encoding.DEFLATE, compressor.negotiate("deflate", LARGE));
+	}
+
+	@Test
+	void semCabecalhoOuCorpoPequenoNaoComprime() {
+		assertNull(compressor.negotiate(null, LARGE));
+		assertNull(compressor.negotiate("identity", LARGE));
+		assertNull(compressor.negotiate("gzip", 10));
+		assertFalse(compressor.isCompressible(10));
+		assertTrue(compressor.isCompressible(LARGE));
+	}
+
+	@Test
+	void qualidadeZeroRecusaCodificacao() {
+		assertNull(compressor.negotiate("gzip;q=0", LARGE));
+		assertEquals(Encoding.DEFLATE, compressor.negotiate("gzip;q=0, deflate", LARGE));
+		assertEquals(Encoding.DEFLATE, compressor.negotiate("gzip;level=1;q=0, deflate", LARGE));
+	}
+
+	@Test
+	void curingaNaoEscolheCodificacaoRecusada() {
+		assertEquals(Encoding.DEFLATE, compressor.negotiate("gzip;q=0, *", LARGE));
+		assertNull(compressor.negotiate("gzip;q=0, deflate;q=0, *", LARGE));
+		assertEquals(Encoding.GZIP, compressor.negotiate("*;q=0, gzip", LARGE));
+	}
+
+	@Test
+	void compressaoPreservaConteudo() throws IOException {
+		byte[] body = "{\"success\":true,\"data\":[]}".repeat(300).getBytes(StandardCharsets.UTF_8);
+
+		ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+		compressor.compress(body, Encoding.GZIP, gzip);
+		assertTrue(gzip.size() < body.length);
+		assertArrayEquals(body, readAll(new GZIPInputStream(new ByteArrayInputStream(gzip.toByteArray()))));
+
+		ByteArrayOutputStream deflate = new ByteArrayOutputStream();
+		compressor.compress(body, Encoding.DEFLATE, deflate);
+		assertArrayEquals(body, readAll(new InflaterInputStream(new ByteArrayInputStream(deflate.toByteArray()))));
+	}
+
+	private static byte[] readAll(InputStream in) throws IOException {
+		try (InputStream stream = in) {
+			return stream.readAllBytes();
+		}
+	}
+}
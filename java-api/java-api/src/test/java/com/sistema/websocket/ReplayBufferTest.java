@@ -0,0 +1,90 @@
+package com.sistema.websocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class ReplayBufferTest {
+
+	private static final Set<String> TOPICS = Collections.singleton("orders");
+
+	@Test
+	void numeraEventosEInsereSeqNoJson() {
+		ReplayBuffer buffer = new ReplayBuffer(4, "e1");
+		ReplayBuffer.Entry first = buffer.append(TOPICS, "{\"type\":\"order.created\"}");
+		ReplayBuffer.Entry second = buffer.append(TOPICS, "{\"type\":\"order.updated\"}");
+
+		assertEquals(1, first.getSeq());
+		assertEquals(2, second.getSeq());
+		assertEquals("{\"seq\":2,\"epoch\":\"e1\",\"type\":\"order.updated\"}", second.getJson());
+		assertEquals(2, buffer.getLastSeq());
+	}
+
+	@Test
+	void retornaEventosDaLacunaEmOrdem() {
+		ReplayBuffer buffer = filled(4, 6);
+
+		List<ReplayBuffer.Entry> missed = buffer.since("e1", 3, 6);
+		assertEquals(3, missed.size());
+		assertEquals(4, missed.get(0).getSeq());
+		assertEquals(6, missed.get(2).getSeq());
+
+		assertTrue(buffer.since("e1", 6, 6).isEmpty());
+	}
+
+	@Test
+	void lacunaMaisAntigaQueOBufferRetornaNull() {
+		ReplayBuffer buffer = filled(4, 10);
+
+		// Guarda 7..10: quem viu o 6 ainda é atendido, quem viu o 5 não
+		assertEquals(4, buffer.since("e1", 6, 10).size());
+		assertNull(buffer.since("e1", 5, 10));
+	}
+
+	@Test
+	void seqInconsistenteRetornaNull() {
+		ReplayBuffer buffer = filled(4, 3);
+
+		// Cliente à frente do servidor (seq de antes de um reinício)
+		assertNull(buffer.since("e1", 5, 3));
+		assertNull(buffer.since("e1", 1, 4));
+	}
+
+	@Test
+	void seqDeOutraEpocaRetornaNull() {
+		// Cliente viu até o 8 antes do reinício; a nova instância já entregou 10
+		ReplayBuffer beforeRestart = filled(16, 8);
+		ReplayBuffer afterRestart = new ReplayBuffer(16, "e2");
+		for (int i = 0; i < 10; i++) {
+			afterRestart.append(TOPICS, "{\"n\":" + i + "}");
+		}
+
+		// O seq 8 existe no buffer novo, mas é outro evento
+		assertNull(afterRestart.since(beforeRestart.getEpoch(), 8, 10));
+		assertNull(afterRestart.since(null, 8, 10));
+		assertEquals(2, afterRestart.since("e2", 8, 10).size());
+	}
+
+	@Test
+	void epocaPadraoEFixadaNaCriacao() {
+		ReplayBuffer buffer = new ReplayBuffer(4);
+		String epoch = buffer.getEpoch();
+		buffer.append(TOPICS, "{}");
+		assertEquals(epoch, buffer.getEpoch());
+		assertTrue(buffer.append(TOPICS, "{\"n\":1}").getJson().contains("\"epoch\":\"" + epoch + "\""));
+	}
+
+	private static ReplayBuffer filled(int capacity, int events) {
+		ReplayBuffer buffer = new ReplayBuffer(capacity, "e1");
+		for (int i = 0; i < events; i++) {
+			buffer.append(TOPICS, "{\"n\":" + i + "}");
+		}
+		return buffer;
+	}
+}
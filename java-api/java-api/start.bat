@@ -27,6 +27,12 @@ if not exist lib\jackson-core-2.15.2.jar (
     curl -L -o lib\jackson-annotations-2.15.2.jar https://repo1.maven.org/maven2/com/fasterxml/jackson/core/jackson-annotations/2.15.2/jackson-annotations-2.15.2.jar
 )
 
+:: Baixar Jackson Blackbird se não existir
+if not exist lib\jackson-module-blackbird-2.15.2.jar (
+    echo Baixando Jackson Blackbird...
+    curl -L -o lib\jackson-module-blackbird-2.15.2.jar https://repo1.maven.org/maven2/com/fasterxml/jackson/module/jackson-module-blackbird/2.15.2/jackson-module-blackbird-2.15.2.jar
+)
+
 echo Compilando codigo Java...
 dir /s /B src\*.java > sources.txt
 "%JAVA_HOME%\bin\javac.exe" -cp "lib\*;." -d build\classes @sources.txt
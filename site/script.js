@@ -236,6 +236,12 @@ class SistemaPedidos {
         this.users = [];
         this.metrics = {};
 
+        // Último evento WebSocket recebido e época do servidor que o numerou,
+        // usados para retomar após reconexão
+        this.lastEventSeq = null;
+        this.eventEpoch = null;
+        this.wsReconnectTimer = null;
+
         // Inicialização
         this.initializeEventListeners();
         this.checkExistingSession();
@@ -267,8 +273,11 @@ class SistemaPedidos {
 			return;
 		}
 	
-		// Adiciona o token como um parâmetro de consulta à URL do WebSocket
-		this.socket = new WebSocket(`ws://localhost:8081/api/notificacoes?token=${token}`);
+		// Adiciona o token como um parâmetro de consulta à URL do WebSocket.
+		// Na reconexão, since pede apenas os eventos perdidos enquanto desconectado;
+		// com outra época (servidor reiniciado) o servidor responde resync
+		const since = this.lastEventSeq !== null ? `&since=${this.lastEventSeq}&epoch=${this.eventEpoch}` : '';
+		this.socket = new WebSocket(`ws://localhost:8081/api/notificacoes?token=${token}${since}`);
 	
 		this.socket.onopen = () => {
 			console.log("Conectado ao servidor WebSocket com sucesso!");
@@ -276,17 +285,24 @@ class SistemaPedidos {
 	
 		this.socket.onmessage = async (event) => {
 			console.log("Notificação recebida:", event.data);
-			await this.handleWebSocketNotification(event.data);
+			// Eventos chegam como objeto JSON, ou array quando agrupados pelo servidor
+			const data = event.data;
+			const parsed = data.startsWith('[') || data.startsWith('{') ? JSON.parse(data) : data;
+			for (const notification of Array.isArray(parsed) ? parsed : [parsed]) {
+				await this.handleWebSocketEvent(notification);
+			}
 		};
 	
 		this.socket.onclose = (event) => {
 			// O evento de fechamento contém informações úteis, como o código.
-			// O código 1008, por exemplo, indica que a conexão foi rejeitada por política (token inválido).
+			// O código 1008, por exemplo, indica que a conexão foi rejeitada por política
+			// (token inválido ou limite de conexões do usuário); nesse caso não reconecta.
 			if (event.code === 1008) {
-				console.warn("Conexão WebSocket fechada: token inválido ou ausente.");
+				console.warn("Conexão WebSocket recusada pelo servidor:", event.reason);
 				// Você pode adicionar uma lógica para fazer logout ou pedir um novo login aqui
 			} else {
 				console.log("Conexão WebSocket encerrada.");
+				this.scheduleWebSocketReconnect();
 			}
 		};
 	
@@ -295,6 +311,96 @@ class SistemaPedidos {
 		};
 	}
 
+	scheduleWebSocketReconnect() {
+		if (!this.apiService.token || this.wsReconnectTimer) return;
+		this.wsReconnectTimer = setTimeout(() => {
+			this.wsReconnectTimer = null;
+			this.connectWebSocket();
+		}, 3000);
+	}
+
+	async handleWebSocketEvent(event) {
+		if (typeof event === 'string') {
+			return this.handleWebSocketNotification(event);
+		}
+
+		switch (event.type) {
+			case 'welcome':
+				// Primeira conexão: os dados carregados por REST valem até aqui
+				if (this.lastEventSeq === null) {
+					this.lastEventSeq = event.seq;
+					this.eventEpoch = event.epoch;
+				}
+				return;
+			case 'resync':
+				// Lacuna maior que o buffer do servidor ou servidor reiniciado
+				this.lastEventSeq = event.seq;
+				this.eventEpoch = event.epoch;
+				if (!this.apiService.token || !this.currentUser) return;
+				await this.loadInitialData();
+				this.renderSectionContent(this.activeSection);
+				return;
+		}
+
+		if (typeof event.seq === 'number') {
+			// Evento já recebido antes da reconexão; seqs de outra época não se comparam
+			if (event.epoch === this.eventEpoch && this.lastEventSeq !== null && event.seq <= this.lastEventSeq) return;
+			this.lastEventSeq = event.seq;
+			this.eventEpoch = event.epoch;
+		}
+		if (!this.apiService.token || !this.currentUser) return;
+
+		// Sem dados suficientes para aplicar o delta, recarrega como antes
+		if (!this.applyWebSocketDelta(event) && event.path) {
+			await this.handleWebSocketNotification(event.path);
+		}
+	}
+
+	applyWebSocketDelta(event) {
+		const data = event.data;
+		if (!data) return false;
+
+		switch (event.type) {
+			case 'order.created':
+				if (!this.orders.some(o => o.id === data.id)) {
+					this.orders.unshift(data);
+				}
+				this.renderSectionContent('pedidos');
+				return true;
+			case 'order.status': {
+				const order = this.orders.find(o => o.id === data.id);
+				if (!order) return false;
+				order.status = data.status;
+				order.updatedAt = data.updatedAt;
+				this.renderSectionContent('pedidos');
+				return true;
+			}
+			case 'chat.message': {
+				const order = this.orders.find(o => o.id === data.orderId);
+				// Chat ainda não carregado: a lista completa vem pelo fallback
+				if (!order || !Array.isArray(order.chat)) return false;
+				order.chat.push(data.message);
+				this.lastMessageTimestamp = data.message.time;
+				this.updateChatInterface(data.orderId, order.chat);
+				return true;
+			}
+			case 'product.changed': {
+				const index = this.products.findIndex(p => p.id === data.id);
+				if (data.deleted) {
+					if (index >= 0) this.products.splice(index, 1);
+				} else if (index >= 0) {
+					this.products[index] = data;
+				} else {
+					this.products.push(data);
+				}
+				this.renderSectionContent('cardapio');
+				return true;
+			}
+			default:
+				return false;
+		}
+	}
+
 	async handleWebSocketNotification(notificationUrl) {
 		if (!this.apiService.token || !this.currentUser) return;
 	
@@ -304,6 +410,11 @@ class SistemaPedidos {
 			return; // Retorna para não processar outros casos
 		}
 	
+		// Notificações de pedido individuais recarregam o quadro inteiro
+		if (notificationUrl.startsWith('/novo_pedidos/') || notificationUrl.startsWith('/status_pedidos/')) {
+			notificationUrl = '/pedidos';
+		}
+	
 		try {
 			switch (notificationUrl) {
 				case '/pedidos':
@@ -670,6 +781,11 @@ class SistemaPedidos {
         } finally {
             // Limpar dados locais independente do resultado da API
             this.apiService.setToken(null);
+            clearTimeout(this.wsReconnectTimer);
+            this.wsReconnectTimer = null;
+            this.lastEventSeq = null;
+            this.eventEpoch = null;
+            if (this.socket) this.socket.close();
             this.currentUser = null;
             this.currentProfile = null;
             this.permissions = {};